@@ -0,0 +1,115 @@
+package actors;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.typesafe.config.Config;
+
+/**
+ * The log of the events the GameActors receive from the front-ends, one line of key=value pairs
+ * per event, e.g. "session=3 type=tileclicked message={...}".
+ *
+ * Each message type logs to a logger of its own, "events." followed by the type, so its level is
+ * set in logback.xml like any other logger: heartbeats are off there by default. The types are the
+ * ones GameActor processes; anything else a client sends, or a message without a type, goes to
+ * "events.unknown", so clients cannot make the log create loggers and counters. Frequent types
+ * can also be sampled, see game.event-log in application.conf: a sample of n logs one event of
+ * that type in every n. The message is only turned into text for the events that are logged, and
+ * logback.xml writes them from a background thread, so the actors never wait on the console.
+ *
+ * @author The team
+ */
+public final class EventLog {
+
+	public static final String LOGGER_PREFIX = "events.";
+	public static final String UNKNOWN = "unknown";
+
+	private static volatile EventLog current = new EventLog(1, Collections.<String, Integer>emptyMap());
+
+	private final int defaultSample;
+	private final Map<String, Integer> samples; // by message type
+	private final Map<String, Logger> loggers = new HashMap<>(); // by message type, never changed after construction
+	private final Map<String, AtomicLong> counts = new HashMap<>(); // events seen, by message type, the same
+
+	/**
+	 * @param defaultSample log one in every defaultSample events of types without a sample of their own
+	 * @param samples the samples by message type
+	 */
+	public EventLog(int defaultSample, Map<String, Integer> samples) {
+		this.defaultSample = Math.max(1, defaultSample);
+		this.samples = new HashMap<>(samples);
+		for (String type : GameActor.EVENT_TYPES) add(type);
+		add(UNKNOWN);
+	}
+
+	private void add(String type) {
+		loggers.put(type, LoggerFactory.getLogger(LOGGER_PREFIX + type));
+		counts.put(type, new AtomicLong());
+	}
+
+	// the type events are logged and counted under
+	private static String known(String type) {
+		return type != null && GameActor.EVENT_TYPES.contains(type) ? type : UNKNOWN;
+	}
+
+	/**
+	 * @param config the game.event-log settings: sample and samples.<type>
+	 * @return the log the settings describe
+	 */
+	public static EventLog fromConfig(Config config) {
+		int defaultSample = config.hasPath("sample") ? config.getInt("sample") : 1;
+		Map<String, Integer> samples = new HashMap<>();
+		if (config.hasPath("samples")) {
+			Config byType = config.getConfig("samples");
+			for (Map.Entry<String, ?> entry : byType.root().entrySet()) {
+				samples.put(entry.getKey(), byType.getInt(entry.getKey()));
+			}
+		}
+		return new EventLog(defaultSample, samples);
+	}
+
+	/**
+	 * @return the log the GameActors write to, see configure().
+	 */
+	public static EventLog get() {
+		return current;
+	}
+
+	/**
+	 * Replaces the log the GameActors write to, e.g. with EventLog.fromConfig() at startup.
+	 * @param log
+	 */
+	public static void configure(EventLog log) {
+		current = log;
+	}
+
+	/**
+	 * Logs an event received by a session, if its type's logger is enabled and the event is sampled.
+	 * @param session the session's id
+	 * @param type the message type, null or any unknown type is logged to events.unknown
+	 * @param message the whole message
+	 */
+	public void received(long session, String type, JsonNode message) {
+		Logger logger = loggers.get(known(type));
+		if (!logger.isInfoEnabled() || !sample(type)) return;
+		logger.info("session={} type={} message={}", session, type, message);
+	}
+
+	/**
+	 * Counts an event of the type. Unknown types share one count and the sample of "unknown".
+	 * @param type the message type
+	 * @return whether this event is one of the sampled ones.
+	 */
+	public boolean sample(String type) {
+		String known = known(type);
+		int every = samples.getOrDefault(known, defaultSample);
+		if (every <= 1) return true;
+		return counts.get(known).getAndIncrement() % every == 0;
+	}
+}
@@ -1,15 +1,29 @@
 package actors;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import akka.actor.AbstractActor;
+import akka.actor.AbstractActorWithTimers;
 import akka.actor.ActorRef;
+import akka.dispatch.Dispatchers;
+import commands.BasicCommands;
+import commands.CommandTimeline;
 import events.CardClicked;
 import events.EndTurnClicked;
 import events.EventProcessor;
@@ -19,9 +33,14 @@ import events.OtherClicked;
 import events.TileClicked;
 import events.UnitMoving;
 import events.UnitStopped;
+import metrics.EventDispatchEvent;
+import metrics.GameMetrics;
+import metrics.SessionEvent;
 import play.libs.Json;
+import structures.AIPlayer;
 import structures.GameState;
-import utils.ImageListForPreLoad;
+import structures.GreedyAI;
+import utils.PreloadManifest;
 import play.libs.Json;
 
 /**
@@ -31,25 +50,93 @@ import play.libs.Json;
  * also includes an ActorRef object which can be used to issue commands to the UI to change 
  * what the user sees. The GameActor is created when the user browser creates a websocket
  * connection to back-end services (on load of the game web page).
+ * 
+ * Commands issued while processing an event are queued on the session's CommandTimeline and
+ * sent from timer ticks, so the actor never sleeps while animations play. Events that arrive
+ * while the timeline is still busy are held back until it drains, so the game logic sees them
+ * in the same order and at the same point as it did when the rules slept on this thread.
+ * 
+ * Game actors run on a dispatcher of their own (DISPATCHER) rather than Play's default one, and
+ * the end of turn, in which player two's AI plays, runs on the AI dispatcher (AI_DISPATCHER). So a
+ * slow AI turn holds up neither the other sessions nor HTTP requests. While the AI plays, the
+ * actor only holds back new events, so the game state is still used by one thread at a time.
+ * Both dispatchers are set up in application.conf.
+ * 
+ * Optionally the other events are processed on virtual threads instead of the actor's thread
+ * (game.sessions.virtual-threads, see SessionExecutors), one event of a session at a time, in
+ * the order the mailbox delivers them.
+ * 
+ * Each processed event is timed for GameMetrics and, while a flight recording runs, recorded
+ * with its session, see SessionEvent.
  * @author Dr. Richard McCreadie
  *
  */
-public class GameActor extends AbstractActor {
+public class GameActor extends AbstractActorWithTimers {
+
+	public static final String DISPATCHER = "game.dispatchers.game-actors"; // see application.conf
+	public static final String AI_DISPATCHER = "game.dispatchers.ai";
+
+	private static final Logger log = LoggerFactory.getLogger(GameActor.class);
+	private static final AtomicLong sessions = new AtomicLong(); // Numbers the sessions for the logs
+
+	private static final Object TICK = "timelineTick"; // Timer key and message used to drain the timeline
+	private static final String AI_TURN = "endturnclicked"; // The event in which player two's AI plays
+	// The message types the front-end sends, each has an EventProcessor, see the constructor
+	static final Set<String> EVENT_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"initalize", "heartbeat", "unitMoving", "unitstopped", "tileclicked", "cardclicked", "endturnclicked", "otherclicked")));
+
+	// Sent to the actor when an event processed on another thread is done
+	private static final class EventDone {
+		final Throwable failure; // null if the event went through
+
+		EventDone(Throwable failure) {
+			this.failure = failure;
+		}
+	}
 
 	private ObjectMapper mapper = new ObjectMapper(); // Jackson Java Object Serializer, is used to turn java objects to Strings
+	private final long sessionId = sessions.incrementAndGet(); // Identifies this session in the logs
 	private ActorRef out; // The ActorRef can be used to send messages to the front-end UI
 	private Map<String,EventProcessor> eventProcessors; // Classes used to process each type of event
 	private GameState gameState; // A class that can be used to hold game state information
+	private CommandTimeline timeline; // Timed commands waiting to be sent to the front-end
+	private Queue<JsonNode> heldEvents = new ArrayDeque<>(); // Events received while the timeline was busy
+	private Executor aiExecutor; // Runs the AI's turns, null to run them on this actor's thread
+	private Executor eventExecutor; // Runs the other events, null to run them on this actor's thread
+	private boolean processing = false; // An event is being processed on one of the executors
 
 	/**
 	 * Constructor for the GameActor. This is called by the GameController when the websocket
 	 * connection to the front-end is established.
 	 * @param out
 	 */
-	@SuppressWarnings("deprecation")
 	public GameActor(ActorRef out) {
+		this(out, new GreedyAI());
+	}
+
+	/**
+	 * @param out
+	 * @param playerTwoAI the AI that plays player two, see AIPlayer.fromConfig()
+	 */
+	public GameActor(ActorRef out, AIPlayer playerTwoAI) {
+		this(out, playerTwoAI, null);
+	}
+
+	/**
+	 * @param out
+	 * @param playerTwoAI the AI that plays player two, see AIPlayer.fromConfig()
+	 * @param eventExecutor runs the events other than the end of turn, e.g. on virtual threads,
+	 * see SessionExecutors. Null to run them on this actor's thread.
+	 */
+	@SuppressWarnings("deprecation")
+	public GameActor(ActorRef out, AIPlayer playerTwoAI, Executor eventExecutor) {
 
 		this.out = out; // save this, so we can send commands to the front-end later
+		this.timeline = CommandTimeline.register(out); // commands to this front-end are paced from now on
+		GameMetrics.sessionOpened(); // closed in postStop()
+		Dispatchers dispatchers = getContext().getSystem().dispatchers();
+		if (dispatchers.hasDispatcher(AI_DISPATCHER)) aiExecutor = dispatchers.lookup(AI_DISPATCHER);
+		this.eventExecutor = eventExecutor;
 
 		// create class instances to respond to the various events that we might recieve
 		eventProcessors = new HashMap<String,EventProcessor>();
@@ -64,18 +151,11 @@ public class GameActor extends AbstractActor {
 		
 		// Initalize a new game state object
 		gameState = new GameState();
+		gameState.setPlayerTwoAI(playerTwoAI);
 		
-		// Get the list of image files to pre-load the UI with
-		Set<String> images = ImageListForPreLoad.getImageListForPreLoad();
-		
-		try {
-			ObjectNode readyMessage = Json.newObject();
-			readyMessage.put("messagetype", "actorReady");
-			readyMessage.put("preloadImages", mapper.readTree(mapper.writeValueAsString(images)));
-			out.tell(readyMessage, out);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		// Tell the front-end where to get the list of image files to pre-load the UI with,
+		// the list itself is built once and cached by the browser, see PreloadManifest
+		out.tell(PreloadManifest.get().getReadyMessage(), out);
 	}
 
 	/**
@@ -86,9 +166,74 @@ public class GameActor extends AbstractActor {
 	public Receive createReceive() {
 		return receiveBuilder()
 				.match(JsonNode.class, message -> {
-					System.out.println(message);
-					processMessage(message.get("messagetype").asText(), message);
-				}).build();
+					EventLog.get().received(sessionId, messageType(message), message);
+					if (processing || timeline.isBusy() || !heldEvents.isEmpty()) {
+						heldEvents.add(message); // still animating, handle it once the front-end has caught up
+					} else {
+						dispatch(message);
+					}
+					drainTimeline();
+				})
+				.matchEquals(TICK, tick -> drainTimeline())
+				.match(EventDone.class, done -> {
+					processing = false;
+					if (done.failure != null) throw new IllegalStateException("Processing an event failed", done.failure);
+					drainTimeline();
+				})
+				.build();
+	}
+
+	/**
+	 * Sends every command that is due, then either schedules the next tick or, once the
+	 * timeline is idle, processes the events that were held back in the meantime.
+	 */
+	private void drainTimeline() throws Exception {
+		if (processing) return; // drained once the event is done
+		long wait = timeline.flush();
+		while (wait < 0 && !heldEvents.isEmpty()) {
+			dispatch(heldEvents.poll());
+			if (processing) return;
+			wait = timeline.flush();
+		}
+		if (wait >= 0) getTimers().startSingleTimer(TICK, TICK, Duration.ofMillis(wait));
+	}
+
+	/**
+	 * Processes an event on this actor's thread, or on an executor: the end of turn on the AI
+	 * dispatcher, other events on the eventExecutor if there is one. In the latter cases EventDone
+	 * is sent back to this actor once the event is processed.
+	 * @param message
+	 * @throws Exception
+	 */
+	private void dispatch(JsonNode message) throws Exception {
+		String messageType = messageType(message);
+		Executor executor = messageType.equals(AI_TURN) && aiExecutor != null ? aiExecutor : eventExecutor;
+		if (executor == null) {
+			processMessage(messageType, message);
+			return;
+		}
+		processing = true;
+		ActorRef self = getSelf();
+		executor.execute(() -> {
+			Throwable failure = null;
+			try {
+				processMessage(messageType, message);
+			} catch (Throwable e) {
+				failure = e;
+			}
+			self.tell(new EventDone(failure), ActorRef.noSender());
+		});
+	}
+
+	// The message's type, "" if it has none, which processMessage() reports as unknown
+	private static String messageType(JsonNode message) {
+		return message.path("messagetype").asText();
+	}
+
+	@Override
+	public void postStop() {
+		CommandTimeline.unregister(out);
+		GameMetrics.sessionClosed();
 	}
 
 	/**
@@ -105,9 +250,23 @@ public class GameActor extends AbstractActor {
 		EventProcessor processor = eventProcessors.get(messageType);
 		if (processor==null) {
 			// Unknown event type received
-			System.err.println("GameActor: Recieved unknown event type "+messageType);
+			log.warn("session={} Recieved unknown event type {}", sessionId, messageType);
 		} else {
-			processor.processEvent(out, gameState, message); // process the event
+			// the flight recorder events raised on this thread belong to this session
+			SessionEvent.enter(sessionId);
+			EventDispatchEvent event = new EventDispatchEvent(messageType);
+			// everything the event sends between two pauses goes out as one frame
+			BasicCommands.beginBatch(out);
+			event.begin();
+			long start = System.nanoTime();
+			try {
+				processor.processEvent(out, gameState, message); // process the event
+			} finally {
+				GameMetrics.eventProcessed(messageType, System.nanoTime() - start);
+				event.record();
+				BasicCommands.endBatch(out);
+				SessionEvent.exit();
+			}
 		}
 	}
 	
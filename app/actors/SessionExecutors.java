@@ -0,0 +1,57 @@
+package actors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.LoggerFactory;
+
+import com.typesafe.config.Config;
+
+/**
+ * Chooses where the GameActors process their events, see game.sessions in application.conf.
+ *
+ * By default events are processed on the actor's own thread. With virtual-threads = on, every
+ * event is processed on a new virtual thread instead, so rule code that blocks (e.g. waits for
+ * the AI's search trees, or rules still written with sleeps) parks cheaply instead of holding a
+ * thread of the game-actors dispatcher. The actor still hands a session one event at a time.
+ *
+ * Virtual threads need Java 21. The project builds for older JVMs, so the executor is looked up
+ * once at startup and the mode falls back to the actor's thread when the JVM has none.
+ *
+ * @author The team
+ */
+public final class SessionExecutors {
+
+	private SessionExecutors() {}
+
+	/**
+	 * @param config the game.sessions settings
+	 * @return the executor for the GameActors' events, or null to process them on the actor's thread.
+	 */
+	public static ExecutorService fromConfig(Config config) {
+		if (!config.hasPath("virtual-threads") || !config.getBoolean("virtual-threads")) return null;
+		ExecutorService executor = virtualThreads();
+		if (executor == null) {
+			LoggerFactory.getLogger(SessionExecutors.class).warn("This JVM has no virtual threads, events stay on the actor threads");
+		}
+		return executor;
+	}
+
+	/**
+	 * @return an executor that runs every task on a new virtual thread, or null before Java 21.
+	 */
+	public static ExecutorService virtualThreads() {
+		try {
+			MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class,
+					"newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+			return (ExecutorService) factory.invoke();
+		} catch (NoSuchMethodException | IllegalAccessException | UnsupportedOperationException e) {
+			return null; // before Java 21, or a preview that is not enabled
+		} catch (Throwable e) {
+			throw new IllegalStateException("Cannot create the virtual thread executor", e);
+		}
+	}
+}
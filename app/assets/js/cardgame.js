@@ -951,12 +951,12 @@ function play(){
 	
 	// Draw Tile Actions
 	while (drawTileQueue.length>0) {
-		drawTile(drawTileQueue.pop());
+		drawTile(drawTileQueue.shift());
 	}
 	
 	// Draw Tile Actions
 	while (drawUnitQueue.length>0) {
-		drawUnit(drawUnitQueue.pop());
+		drawUnit(drawUnitQueue.shift());
 	}
 	
 	var continuingProjectiles = [];
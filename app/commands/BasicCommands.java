@@ -1,9 +1,9 @@
 package commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import akka.actor.ActorRef;
+import metrics.GameMetrics;
 import play.libs.Json;
 import structures.basic.Card;
 import structures.basic.EffectAnimation;
@@ -22,12 +22,80 @@ import structures.basic.UnitAnimationType;
  */
 public class BasicCommands {
 
-	private static ObjectMapper mapper = new ObjectMapper(); // Jackson Java Object Serializer, is used to turn java objects to Strings
-	
 	// An alternative class with a 'tell' implementation can be given if writing unit tests
 	// and need to have a null ActorRef. This should be null during normal operation.
 	public static DummyTell altTell = null;
 	
+	// Domain event sink for headless games on this thread, used for commands with a null ActorRef
+	private static final ThreadLocal<GameEventSink> eventSink = new ThreadLocal<>();
+	
+	/**
+	 * Installs a sink for the current thread. From now on, commands issued on this thread for a null
+	 * ActorRef are passed to the sink as domain events and no JSON is built. Pass null to remove it.
+	 * @param sink
+	 */
+	public static void setEventSink(GameEventSink sink) {
+		if (sink==null) eventSink.remove();
+		else eventSink.set(sink);
+	}
+	
+	/**
+	 * @return the sink installed for the current thread, or null
+	 */
+	public static GameEventSink getEventSink() {
+		return eventSink.get();
+	}
+	
+	// The sink that should receive this command instead of the front-end, if any
+	private static GameEventSink sink(ActorRef out) {
+		return out==null ? eventSink.get() : null;
+	}
+	
+	/**
+	 * Delays every command sent to this front-end after this call by the given number of milliseconds.
+	 * This replaces Thread.sleep() in game logic: the calling thread carries on immediately and the
+	 * session's CommandTimeline holds back the following commands instead. When no timeline is
+	 * registered (e.g. in unit tests) this does nothing.
+	 * @param out
+	 * @param millis
+	 */
+	public static void pause(ActorRef out, long millis) {
+		CommandTimeline timeline = CommandTimeline.of(out);
+		if (timeline!=null) timeline.pause(millis);
+	}
+	
+	/**
+	 * Starts collecting the commands sent to this front-end into a single frame, so that e.g. a
+	 * redraw of the whole board is one websocket message rather than 45. Every call must be
+	 * matched by endBatch(). Batches can be nested, the frame is sent when the outermost one ends.
+	 * When no timeline is registered commands are sent one by one as usual.
+	 * @param out
+	 */
+	public static void beginBatch(ActorRef out) {
+		CommandTimeline timeline = CommandTimeline.of(out);
+		if (timeline!=null) timeline.beginBatch();
+	}
+	
+	/**
+	 * Ends a batch started with beginBatch().
+	 * @param out
+	 */
+	public static void endBatch(ActorRef out) {
+		CommandTimeline timeline = CommandTimeline.of(out);
+		if (timeline!=null) timeline.endBatch();
+	}
+	
+	// Counts a finished command and hands it to the test hook, the session timeline or the front-end directly
+	private static void send(ActorRef out, ObjectNode message) {
+		GameMetrics.commandSent(message.get("messagetype").asText());
+		if (altTell!=null) {
+			altTell.tell(message);
+			return;
+		}
+		CommandTimeline timeline = CommandTimeline.of(out);
+		if (timeline!=null) timeline.add(message);
+		else out.tell(message, out);
+	}
 	
 	/**
 	 * You can consider the contents of the user’s browser window a canvas that can be drawn upon. drawTile will draw 
@@ -38,15 +106,18 @@ public class BasicCommands {
 	 * @param tile
 	 * @param mode
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void drawTile(ActorRef out, Tile tile, int mode) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.tileDrawn(tile, mode);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "drawTile");
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
+			returnMessage.set("tile", CommandEncoder.tile(tile));
 			returnMessage.put("mode", mode);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -60,15 +131,18 @@ public class BasicCommands {
 	 * @param unit
 	 * @param tile
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void drawUnit(ActorRef out, Unit unit, Tile tile) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.unitDrawn(unit, tile);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "drawUnit");
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("tile", CommandEncoder.tile(tile));
+			returnMessage.set("unit", CommandEncoder.unit(unit));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -81,15 +155,18 @@ public class BasicCommands {
 	 * @param unit
 	 * @param attack
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setUnitAttack(ActorRef out, Unit unit, int attack) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.unitAttackChanged(unit, attack);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "setUnitAttack");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
+			returnMessage.set("unit", CommandEncoder.unit(unit));
 			returnMessage.put("attack", attack);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -102,15 +179,18 @@ public class BasicCommands {
 	 * @param unit
 	 * @param health
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setUnitHealth(ActorRef out, Unit unit, int health) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.unitHealthChanged(unit, health);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "setUnitHealth");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
+			returnMessage.set("unit", CommandEncoder.unit(unit));
 			returnMessage.put("health", health);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -123,15 +203,18 @@ public class BasicCommands {
 	 * @param unit
 	 * @param tile
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void moveUnitToTile(ActorRef out, Unit unit, Tile tile) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.unitMoved(unit, tile);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "moveUnitToTile");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("unit", CommandEncoder.unit(unit));
+			returnMessage.set("tile", CommandEncoder.tile(tile));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -146,16 +229,19 @@ public class BasicCommands {
 	 * @param unit
 	 * @param tile
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void moveUnitToTile(ActorRef out, Unit unit, Tile tile, boolean yfirst) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.unitMoved(unit, tile);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "moveUnitToTile");
 			returnMessage.put("yfirst", yfirst);
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("unit", CommandEncoder.unit(unit));
+			returnMessage.set("tile", CommandEncoder.tile(tile));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -169,18 +255,22 @@ public class BasicCommands {
 	 * @param unit
 	 * @param animation
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void playUnitAnimation(ActorRef out, Unit unit, UnitAnimationType animationToPlay) {
 		try {
 			
 			unit.setAnimation(animationToPlay);
 			
+			GameEventSink sink = sink(out);
+			if (sink!=null) {
+				sink.unitAnimated(unit, animationToPlay);
+				return;
+			}
+			
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "playUnitAnimation");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
+			returnMessage.set("unit", CommandEncoder.unit(unit));
 			returnMessage.put("animation", animationToPlay.toString());
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -192,14 +282,17 @@ public class BasicCommands {
 	 * @param out
 	 * @param unit
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void deleteUnit(ActorRef out, Unit unit) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.unitDeleted(unit);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "deleteUnit");
-			returnMessage.put("unit", mapper.readTree(mapper.writeValueAsString(unit)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("unit", CommandEncoder.unit(unit));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -212,14 +305,17 @@ public class BasicCommands {
 	 * @param out
 	 * @param player
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setPlayer1Health(ActorRef out, Player player) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.playerHealthChanged(player);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "setPlayer1Health");
-			returnMessage.put("player", mapper.readTree(mapper.writeValueAsString(player)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("player", CommandEncoder.player(player));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -232,14 +328,17 @@ public class BasicCommands {
 	 * @param out
 	 * @param player
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setPlayer2Health(ActorRef out, Player player) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.playerHealthChanged(player);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "setPlayer2Health");
-			returnMessage.put("player", mapper.readTree(mapper.writeValueAsString(player)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("player", CommandEncoder.player(player));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -252,14 +351,17 @@ public class BasicCommands {
 	 * @param out
 	 * @param player
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setPlayer1Mana(ActorRef out, Player player) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.playerManaChanged(player);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "setPlayer1Mana");
-			returnMessage.put("player", mapper.readTree(mapper.writeValueAsString(player)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("player", CommandEncoder.player(player));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -272,14 +374,17 @@ public class BasicCommands {
 	 * @param out
 	 * @param player
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void setPlayer2Mana(ActorRef out, Player player) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.playerManaChanged(player);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "setPlayer2Mana");
-			returnMessage.put("player", mapper.readTree(mapper.writeValueAsString(player)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("player", CommandEncoder.player(player));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -294,16 +399,19 @@ public class BasicCommands {
 	 * @param position
 	 * @param mode
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void drawCard(ActorRef out, Card card, int position, int mode) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.cardDrawn(card, position, mode);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "drawCard");
-			returnMessage.put("card", mapper.readTree(mapper.writeValueAsString(card)));
+			returnMessage.set("card", CommandEncoder.card(card));
 			returnMessage.put("position", position);
 			returnMessage.put("mode", mode);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -315,12 +423,16 @@ public class BasicCommands {
 	 * @param position
 	 */
 	public static void deleteCard(ActorRef out, int position) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.cardDeleted(position);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "deleteCard");
 			returnMessage.put("position", position);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -333,15 +445,18 @@ public class BasicCommands {
 	 * @param effect
 	 * @param tile
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void playEffectAnimation(ActorRef out, EffectAnimation effect, Tile tile) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.effectPlayed(effect, tile);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "playEffectAnimation");
-			returnMessage.put("effect", mapper.readTree(mapper.writeValueAsString(effect)));
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(tile)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("effect", CommandEncoder.effect(effect));
+			returnMessage.set("tile", CommandEncoder.tile(tile));
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -356,13 +471,17 @@ public class BasicCommands {
 	 * @param displayTimeSeconds
 	 */
 	public static void addPlayer1Notification(ActorRef out, String text, int displayTimeSeconds) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.notification(text, displayTimeSeconds);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "addPlayer1Notification");
 			returnMessage.put("text", text);
 			returnMessage.put("seconds", displayTimeSeconds);
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -374,17 +493,20 @@ public class BasicCommands {
 	 * @param effect
 	 * @param tile
 	 */
-	@SuppressWarnings({"deprecation"})
 	public static void playProjectileAnimation(ActorRef out, EffectAnimation effect, int mode, Tile startTile, Tile targetTile) {
+		GameEventSink sink = sink(out);
+		if (sink!=null) {
+			sink.projectileFired(effect, startTile, targetTile);
+			return;
+		}
 		try {
 			ObjectNode returnMessage = Json.newObject();
 			returnMessage.put("messagetype", "drawProjectile");
-			returnMessage.put("effect", mapper.readTree(mapper.writeValueAsString(effect)));
-			returnMessage.put("tile", mapper.readTree(mapper.writeValueAsString(startTile)));
-			returnMessage.put("targetTile", mapper.readTree(mapper.writeValueAsString(targetTile)));
-			returnMessage.put("mode", mapper.readTree(mapper.writeValueAsString(mode)));
-			if (altTell!=null) altTell.tell(returnMessage);
-			else out.tell(returnMessage, out);
+			returnMessage.set("effect", CommandEncoder.effect(effect));
+			returnMessage.set("tile", CommandEncoder.tile(startTile));
+			returnMessage.set("targetTile", CommandEncoder.tile(targetTile));
+			returnMessage.put("mode", mode);
+			send(out, returnMessage);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -0,0 +1,136 @@
+package commands;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import structures.basic.Card;
+import structures.basic.EffectAnimation;
+import structures.basic.Player;
+import structures.basic.Position;
+import structures.basic.Tile;
+import structures.basic.Unit;
+
+/**
+ * Builds the JSON payloads used by BasicCommands directly as Jackson tree nodes, instead of
+ * serialising each object to a String and parsing it back. Only the fields the front-end reads
+ * are written, e.g. a tile no longer carries the unit standing on it and a player no longer
+ * carries their whole hand and deck.
+ *
+ * Parts of an object that never change once it is loaded (tile geometry and textures, unit
+ * animation sets and image corrections, cards, effects) are encoded once and the resulting
+ * node is shared by every later command for the same object. Shared nodes must not be modified.
+ *
+ * @author The team
+ *
+ */
+public class CommandEncoder {
+
+	private static final JsonNodeFactory nodes = JsonNodeFactory.instance;
+	private static ObjectMapper mapper = new ObjectMapper(); // only used the first time a static part is encoded
+
+	// Encoded static parts, keyed by the object they were built from. Weak keys so finished sessions are collected.
+	private static final Map<Object, JsonNode> staticParts = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * @param tile
+	 * @return the tile's position, size and textures
+	 */
+	public static JsonNode tile(Tile tile) {
+		JsonNode node = staticParts.get(tile);
+		if (node==null) {
+			ObjectNode tileNode = nodes.objectNode();
+			tileNode.set("tileTextures", textures(tile));
+			tileNode.put("xpos", tile.getXpos());
+			tileNode.put("ypos", tile.getYpos());
+			tileNode.put("width", tile.getWidth());
+			tileNode.put("height", tile.getHeight());
+			tileNode.put("tilex", tile.getTilex());
+			tileNode.put("tiley", tile.getTiley());
+			node = tileNode;
+			staticParts.put(tile, node);
+		}
+		return node;
+	}
+
+	/**
+	 * The animation state, position, health and attack are written fresh for every command,
+	 * the animation frames and image correction are shared.
+	 * @param unit
+	 * @return the unit as the front-end expects it
+	 */
+	public static ObjectNode unit(Unit unit) {
+		ObjectNode node = nodes.objectNode();
+		node.put("id", unit.getId());
+		if (unit.getAnimation()!=null) node.put("animation", unit.getAnimation().toString());
+		Position position = unit.getPosition();
+		if (position!=null) {
+			ObjectNode positionNode = node.putObject("position");
+			positionNode.put("xpos", position.getXpos());
+			positionNode.put("ypos", position.getYpos());
+			positionNode.put("tilex", position.getTilex());
+			positionNode.put("tiley", position.getTiley());
+		}
+		node.set("animations", staticPart(unit.getAnimations()));
+		node.set("correction", staticPart(unit.getCorrection()));
+		node.put("health", unit.getHealth());
+		node.put("attack", unit.getAttack());
+		return node;
+	}
+
+	/**
+	 * @param player
+	 * @return the player's health and mana
+	 */
+	public static ObjectNode player(Player player) {
+		ObjectNode node = nodes.objectNode();
+		node.put("health", player.getHealth());
+		node.put("mana", player.getMana());
+		return node;
+	}
+
+	/**
+	 * @param card
+	 * @return the card, encoded once and shared afterwards
+	 */
+	public static JsonNode card(Card card) {
+		return staticPart(card);
+	}
+
+	/**
+	 * @param effect
+	 * @return the effect animation, encoded once and shared afterwards
+	 */
+	public static JsonNode effect(EffectAnimation effect) {
+		return staticPart(effect);
+	}
+
+	// Tiles loaded from the same template share their texture list, so the array node is shared too
+	private static JsonNode textures(Tile tile) {
+		if (tile.getTileTextures()==null) return nodes.nullNode();
+		JsonNode node = staticParts.get(tile.getTileTextures());
+		if (node==null) {
+			ArrayNode array = nodes.arrayNode(tile.getTileTextures().size());
+			for (String texture : tile.getTileTextures()) array.add(texture);
+			node = array;
+			staticParts.put(tile.getTileTextures(), node);
+		}
+		return node;
+	}
+
+	private static JsonNode staticPart(Object part) {
+		if (part==null) return nodes.nullNode();
+		JsonNode node = staticParts.get(part);
+		if (node==null) {
+			node = mapper.valueToTree(part);
+			staticParts.put(part, node);
+		}
+		return node;
+	}
+}
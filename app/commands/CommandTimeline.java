@@ -0,0 +1,198 @@
+package commands;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import akka.actor.ActorRef;
+import metrics.CommandBatchEvent;
+
+/**
+ * A per-session queue of timed UI commands. Game logic runs straight through without sleeping,
+ * and every command it issues is stamped with the time at which it should reach the front-end.
+ * Where the rules used to call Thread.sleep() to let an animation play out, they now call
+ * BasicCommands.pause(), which only moves the timeline cursor forward.
+ *
+ * The GameActor owning the session registers a timeline for its ActorRef and then drains it
+ * from Akka timer ticks, so no actor thread is ever blocked.
+ *
+ * Commands issued between beginBatch() and endBatch() are sent as a single "batch" frame,
+ * which the front-end applies as a whole. A pause inside a batch closes the current frame
+ * and starts a new one after the pause. While a flight recording runs, every such frame is
+ * recorded from the moment it is queued to the moment it is sent, see CommandBatchEvent.
+ *
+ * @author The team
+ *
+ */
+public class CommandTimeline {
+
+	private static final Map<ActorRef, CommandTimeline> timelines = new ConcurrentHashMap<>();
+
+	private final DummyTell target;
+	private final LongSupplier clock;
+	private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+	private long cursor; // time (ms) at which the next command is due
+	private int batchDepth = 0; // batches can nest, the outermost one decides when the frame is closed
+	private ArrayNode batch; // commands collected for the current frame
+
+	private static class Entry {
+		final long due;
+		final ObjectNode message;
+		final Runnable action;
+		CommandBatchEvent event; // for frames of batched commands, while a flight recording runs
+
+		Entry(long due, ObjectNode message, Runnable action) {
+			this.due = due; this.message = message; this.action = action;
+		}
+	}
+
+	/**
+	 * @param target where due commands are delivered
+	 * @param clock current time in milliseconds
+	 */
+	public CommandTimeline(DummyTell target, LongSupplier clock) {
+		this.target = target;
+		this.clock = clock;
+		this.cursor = clock.getAsLong();
+	}
+
+	/**
+	 * Creates the timeline for a session. Commands sent to this ActorRef are queued from now on.
+	 * @param out the session's front-end reference
+	 * @return the registered timeline
+	 */
+	public static CommandTimeline register(ActorRef out) {
+		CommandTimeline timeline = new CommandTimeline(message -> out.tell(message, out),
+				() -> System.nanoTime() / 1_000_000);
+		timelines.put(out, timeline);
+		return timeline;
+	}
+
+	public static void unregister(ActorRef out) {
+		timelines.remove(out);
+	}
+
+	/**
+	 * @param out a front-end reference
+	 * @return the timeline registered for it, or null if commands should be sent immediately
+	 */
+	public static CommandTimeline of(ActorRef out) {
+		if (out==null) return null;
+		return timelines.get(out);
+	}
+
+	/**
+	 * Queues a command to be sent once all previously queued commands and pauses have elapsed.
+	 * @param message
+	 */
+	public synchronized void add(ObjectNode message) {
+		if (batchDepth > 0) {
+			if (batch==null) batch = JsonNodeFactory.instance.arrayNode();
+			batch.add(message);
+		}
+		else entries.addLast(new Entry(catchUp(), message, null));
+	}
+
+	/**
+	 * Queues game logic that should only run once everything before it has been displayed,
+	 * e.g. re-enabling clicks at the end of the AI's turn.
+	 * @param action
+	 */
+	public synchronized void add(Runnable action) {
+		closeFrame();
+		entries.addLast(new Entry(catchUp(), null, action));
+	}
+
+	/**
+	 * Delays every command queued after this call by the given number of milliseconds.
+	 * @param millis
+	 */
+	public synchronized void pause(long millis) {
+		closeFrame();
+		cursor = catchUp() + millis;
+	}
+
+	/**
+	 * Starts collecting commands into one frame.
+	 */
+	public synchronized void beginBatch() {
+		batchDepth++;
+	}
+
+	/**
+	 * Ends a batch. When the outermost batch ends, the collected commands are queued as one frame.
+	 */
+	public synchronized void endBatch() {
+		if (batchDepth==0) return;
+		batchDepth--;
+		if (batchDepth==0) closeFrame();
+	}
+
+	/**
+	 * Sends every command that is due. Actions are run in order on the calling thread.
+	 * @return milliseconds until the next queued entry is due, or -1 if nothing is pending
+	 */
+	public long flush() {
+		while (true) {
+			Entry entry;
+			synchronized (this) {
+				entry = entries.peekFirst();
+				if (entry==null) return busyFor();
+				long now = clock.getAsLong();
+				if (entry.due > now) return entry.due - now;
+				entries.pollFirst();
+			}
+			if (entry.message!=null) target.tell(entry.message);
+			else entry.action.run();
+			if (entry.event!=null) entry.event.record();
+		}
+	}
+
+	/**
+	 * @return true while commands are queued or a pause has not yet elapsed
+	 */
+	public synchronized boolean isBusy() {
+		return !entries.isEmpty() || batch!=null || cursor > clock.getAsLong();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	// Queues the commands collected so far as one frame, a lone command is queued as it is
+	private void closeFrame() {
+		if (batch==null) return;
+		CommandBatchEvent event = new CommandBatchEvent(batch.size());
+		event.begin();
+		ObjectNode frame;
+		if (batch.size()==1) {
+			frame = (ObjectNode) batch.get(0);
+		} else {
+			frame = JsonNodeFactory.instance.objectNode();
+			frame.put("messagetype", "batch");
+			frame.set("commands", batch);
+		}
+		batch = null;
+		Entry entry = new Entry(catchUp(), frame, null);
+		if (event.isEnabled()) entry.event = event;
+		entries.addLast(entry);
+	}
+
+	// Remaining time of a trailing pause, so the caller keeps ticking until it has elapsed
+	private synchronized long busyFor() {
+		long remaining = cursor - clock.getAsLong();
+		return remaining > 0 ? remaining : -1;
+	}
+
+	// The cursor never lags behind the current time, otherwise a burst of stale commands would be sent at once
+	private long catchUp() {
+		long now = clock.getAsLong();
+		if (cursor < now) cursor = now;
+		return cursor;
+	}
+}
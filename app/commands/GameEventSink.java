@@ -0,0 +1,55 @@
+package commands;
+
+import structures.basic.Card;
+import structures.basic.EffectAnimation;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+import structures.basic.UnitAnimationType;
+
+/**
+ * Receives what happens in a game as domain events rather than as front-end commands.
+ * There is one method per BasicCommands command, taking the game objects directly, so nothing
+ * is encoded to JSON and no ActorRef is needed.
+ *
+ * A sink is installed for the current thread with BasicCommands.setEventSink(). While it is
+ * installed, every command issued for a null ActorRef is passed to the sink instead. This is how
+ * the rules run headless (see simulation.HeadlessGame). Every method does nothing by default, so a
+ * sink only overrides the events it is interested in.
+ *
+ * @author The team
+ *
+ */
+public interface GameEventSink {
+
+	/** A sink that ignores every event. */
+	GameEventSink IGNORE = new GameEventSink() {};
+
+	default void tileDrawn(Tile tile, int mode) {}
+
+	default void unitDrawn(Unit unit, Tile tile) {}
+
+	default void unitAttackChanged(Unit unit, int attack) {}
+
+	default void unitHealthChanged(Unit unit, int health) {}
+
+	default void unitMoved(Unit unit, Tile tile) {}
+
+	default void unitAnimated(Unit unit, UnitAnimationType animation) {}
+
+	default void unitDeleted(Unit unit) {}
+
+	default void playerHealthChanged(Player player) {}
+
+	default void playerManaChanged(Player player) {}
+
+	default void cardDrawn(Card card, int position, int mode) {}
+
+	default void cardDeleted(int position) {}
+
+	default void effectPlayed(EffectAnimation effect, Tile tile) {}
+
+	default void projectileFired(EffectAnimation effect, Tile startTile, Tile targetTile) {}
+
+	default void notification(String text, int displayTimeSeconds) {}
+}
@@ -1,11 +1,19 @@
 package controllers;
 
+import java.util.concurrent.Executor;
+
 import javax.inject.Inject;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.typesafe.config.Config;
+
+import actors.EventLog;
 import actors.GameActor;
+import actors.SessionExecutors;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.actor.Props;
+import akka.stream.ActorAttributes;
 import akka.stream.Materializer;
 import play.data.Form;
 import play.data.FormFactory;
@@ -14,7 +22,11 @@ import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
 import play.mvc.WebSocket;
+import structures.AIPlayer;
 import structures.User;
+import utils.CardRegistry;
+import utils.PreloadManifest;
+import utils.PrototypeRegistry;
 
 /**
  * This is the Controller class for the game. 
@@ -23,15 +35,25 @@ import structures.User;
  */
 public class GameScreenController extends Controller {
 
+	private static final String WEBSOCKET_DISPATCHER = "game.dispatchers.websocket"; // runs the websocket streams, see application.conf
+
 	private final ActorSystem actorSystem;
 	private final Materializer materializer;
+	private final AIPlayer playerTwoAI; // shared by every session, see game.ai in application.conf
+	private final Executor eventExecutor; // runs the sessions' events, null for the actor threads, see game.sessions
 	Form<User> userForm = null;
 	
 	
 	@Inject
-	public GameScreenController(FormFactory formFactory, ActorSystem actorSystem, Materializer materializer) {
+	public GameScreenController(FormFactory formFactory, ActorSystem actorSystem, Materializer materializer, Config config) {
 		this.actorSystem = actorSystem;
 		this.materializer = materializer;
+		this.playerTwoAI = AIPlayer.fromConfig(config.getConfig("game.ai"));
+		if (config.hasPath("game.event-log")) EventLog.configure(EventLog.fromConfig(config.getConfig("game.event-log")));
+		this.eventExecutor = config.hasPath("game.sessions") ? SessionExecutors.fromConfig(config.getConfig("game.sessions")) : null;
+		PrototypeRegistry.preload(); // every card, unit and effect file is read here, never during a game
+		CardRegistry.check(); // a card without a unit or spell stops the server here
+		PreloadManifest.get(); // the image list is built once, not for every connection
 		userForm = formFactory.form(User.class);
 	}
 
@@ -42,7 +64,8 @@ public class GameScreenController extends Controller {
 	public WebSocket socket() {
 
 		return WebSocket.Json.accept(
-				request -> ActorFlow.actorRef(this::createGameActor, actorSystem, materializer));
+				request -> ActorFlow.<JsonNode, JsonNode>actorRef(this::createGameActor, actorSystem, materializer)
+						.addAttributes(ActorAttributes.dispatcher(WEBSOCKET_DISPATCHER)));
 	}
 
 	/**
@@ -54,7 +77,29 @@ public class GameScreenController extends Controller {
 		return ok(views.html.gamescreen.render(request, null));
 	}
 	
+	/**
+	 * Serves the list of images the front-end preloads. The version in the URL changes whenever
+	 * the list does, so the response can be cached for good, see PreloadManifest.
+	 * @param request
+	 * @param version the version the front-end was told in the actorReady message
+	 * @return
+	 */
+	public Result preload(Http.Request request, String version) {
+		PreloadManifest manifest = PreloadManifest.get();
+		if (!manifest.getVersion().equals(version)) {
+			return redirect(manifest.getUrl()); // a page from before the images changed
+		}
+		if (manifest.isCachedBy(request.header(Http.HeaderNames.IF_NONE_MATCH).orElse(null))) {
+			return status(Http.Status.NOT_MODIFIED).withHeader(Http.HeaderNames.ETAG, manifest.getEtag());
+		}
+		return ok(manifest.getBody()).as(Http.MimeTypes.JSON)
+				.withHeader(Http.HeaderNames.ETAG, manifest.getEtag())
+				.withHeader(Http.HeaderNames.CACHE_CONTROL, "public, max-age=31536000, immutable");
+	}
+	
 	public Props createGameActor(ActorRef out) {
-		return Props.create(GameActor.class, out); // calls the constructor for Game Actor
+		Props props = eventExecutor == null ? Props.create(GameActor.class, out, playerTwoAI) // calls the constructor for Game Actor
+				: Props.create(GameActor.class, out, playerTwoAI, eventExecutor);
+		return props.withDispatcher(GameActor.DISPATCHER); // game actors have a pool of their own, see application.conf
 	}
 }
\ No newline at end of file
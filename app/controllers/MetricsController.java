@@ -0,0 +1,22 @@
+package controllers;
+
+import metrics.GameMetrics;
+import play.mvc.Controller;
+import play.mvc.Result;
+
+/**
+ * Serves the server's metrics in the Prometheus text format, for a scraper on the same host.
+ * See GameMetrics for what is measured.
+ * @author The team
+ *
+ */
+public class MetricsController extends Controller {
+
+	/**
+	 * This responds to GET /metrics
+	 * @return
+	 */
+	public Result metrics() {
+		return ok(GameMetrics.text()).as("text/plain; version=0.0.4; charset=utf-8");
+	}
+}
@@ -27,19 +27,19 @@ public class CheckMoveLogic {
 		BasicCommands.moveUnitToTile(out, unit, tile2);
 		unit.setPositionByTile(tile2); 
 		
-		try {Thread.sleep(4000);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 4000);
 		
 		// Move unit, default, horizontal then vertical
 		BasicCommands.moveUnitToTile(out, unit, tile);
 		unit.setPositionByTile(tile); 
 		
-		try {Thread.sleep(4000);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 4000);
 		
 		// Move unit, alternative, vertical then horizontal
 		BasicCommands.moveUnitToTile(out, unit, tile2, true);
 		unit.setPositionByTile(tile2); 
 		
-		try {Thread.sleep(4000);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 4000);
 		
 		// Move unit, alternative, vertical then horizontal
 		BasicCommands.moveUnitToTile(out, unit, tile, true);
@@ -31,7 +31,6 @@ public class CardClicked implements EventProcessor{
 			// Highlight clicked card in hand
 			gameState.resetHighlight(out);
             BasicCommands.drawCard(out, clickedCard, handPosition, 1);
-            try {Thread.sleep(10);} catch (InterruptedException e) {e.printStackTrace(); }
 
 			// Save clicked hand position to game state
 			gameState.setClickedHandPosition(handPosition);
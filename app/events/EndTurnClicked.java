@@ -4,7 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 import akka.actor.ActorRef;
 import commands.BasicCommands;
-import structures.AI;
+import metrics.AIStepEvent;
+import metrics.GameMetrics;
 import structures.GameState;
 import structures.basic.Card;
 import structures.basic.Player;
@@ -57,8 +58,12 @@ public class EndTurnClicked implements EventProcessor{
 			}
 
 			// Perform AI actions
-			AI.makeMove(out, gameState);
-			AI.executeCard(out, gameState);
+			AIStepEvent turn = new AIStepEvent("playTurn", 2);
+			turn.begin();
+			long start = System.nanoTime();
+			gameState.getPlayerTwoAI().playTurn(out, gameState, gameState.getPlayerTwo());
+			GameMetrics.aiStep("playTurn", System.nanoTime() - start);
+			turn.record();
 
 			if(!gameState.gameOver) {
 				//draw the new cards for both players on the backend, then display the player one's cards on front-end.
@@ -76,11 +81,7 @@ public class EndTurnClicked implements EventProcessor{
 				BasicCommands.setPlayer2Mana(out, playerTwo);
 
 				// Buffer to allow AI actions displaying before player actions
-				try {
-					Thread.sleep(1000);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
+				BasicCommands.pause(out, 1000);
 
 				//allow the user to click once the process ends.
 				gameState.clickable = true;
@@ -9,7 +9,7 @@ import structures.basic.Player;
 import structures.basic.Tile;
 import structures.basic.Unit;
 import structures.units.*;
-import utils.BasicObjectBuilders;
+import utils.PrototypeRegistry;
 import utils.CustomizedBuilders;
 import utils.StaticConfFiles;
 
@@ -51,7 +51,7 @@ public class Initalize implements EventProcessor{
 
 		BasicCommands.addPlayer1Notification(out, "Game Start!", 10);
 
-		try {Thread.sleep(1000);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 1000);
 		//draw the initial 3 cards for both players.
 		for(int i = 0; i < STARTING_HAND; i++){
 			playerOne.draw(out);
@@ -62,19 +62,19 @@ public class Initalize implements EventProcessor{
 		gameState.displayCurrentHandCards(out, playerOne);
 
 		//create avatars for both players.
-		Avatar avatarOne = (Avatar) BasicObjectBuilders.loadUnit(
+		Avatar avatarOne = (Avatar) PrototypeRegistry.loadUnit(
 				StaticConfFiles.humanAvatar,
 				gameState.getNewUnitID(),
 				Avatar.class);
-		try {Thread.sleep(250);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 250);
 		assert avatarOne != null;
 		avatarOne.setupAvatar(playerOne);
 
-		Avatar avatarTwo = (Avatar) BasicObjectBuilders.loadUnit(
+		Avatar avatarTwo = (Avatar) PrototypeRegistry.loadUnit(
 				StaticConfFiles.aiAvatar,
 				gameState.getNewUnitID(),
 				Avatar.class);
-		try {Thread.sleep(250);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 250);
 		assert avatarTwo != null;
 		avatarTwo.setupAvatar(playerTwo);
 		//designated tiles for each avatar.
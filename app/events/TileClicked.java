@@ -40,7 +40,7 @@ public class TileClicked implements EventProcessor{
 
 			// Reset clicked card when player clicked on tile without highlighting
 			if(clickedTile.getUnit() != null &&
-					!gameState.getBoard().getHighlightedTiles().contains(clickedTile)){
+					!gameState.getBoard().isHighlighted(clickedTile)){
 				gameState.setClickedHandPosition(-1);
 			}
 
@@ -54,9 +54,7 @@ public class TileClicked implements EventProcessor{
 			 * still highlighted in the list.
 			 * @see GameState check the drawDefaultTilesGrid()
 			 */
-			if (clickedTile.getUnit() != null &&
-					gameState.getBoard().getPlayer1Units()
-							.contains(clickedTile.getUnit())) {
+			if (gameState.getBoard().isOwnedBy(clickedTile.getUnit(), 1)) {
 				gameState.getBoard().clearHighlightedTiles();
 				gameState.drawDefaultTilesGrid(out);
 				Unit unit = clickedTile.getUnit();
@@ -78,23 +76,23 @@ public class TileClicked implements EventProcessor{
 
 			 // Runs when an Empty tile is clicked
 			if (clickedTile.getUnit() == null && previouslyClicked != null) {
-				if(previouslyClicked.getUnit() != null && gameState.getBoard().getPlayer1Units().contains(previouslyClicked.getUnit())) {
+				if(gameState.getBoard().isOwnedBy(previouslyClicked.getUnit(), 1)) {
 					gameState.getBoard().getLastTile().getUnit().moveUnit(clickedTile, out, gameState);
 					gameState.drawDefaultTilesGrid(out);
 				} // Runs when a Tile right next to the unit is clicked
 			}else if((previouslyClicked != null) && gameState.getNearbyTiles(previouslyClicked).contains(clickedTile)){
-					if(gameState.getBoard().getPlayer2Units().contains(clickedTile.getUnit())){
+					if(gameState.getBoard().isOwnedBy(clickedTile.getUnit(), 2)){
 						previouslyClicked.getUnit().attack(clickedTile.getUnit(), gameState, out);
 						gameState.drawDefaultTilesGrid(out);
 					}
 				// Runs when a Tile at the edge of the highlightedtiles is clicked
-			}else if(gameState.getBoard().getPlayer2Units().contains(clickedTile.getUnit()) && gameState.getBoard().getHighlightedTiles().contains(clickedTile)){
+			}else if(gameState.getBoard().isOwnedBy(clickedTile.getUnit(), 2) && gameState.getBoard().isHighlighted(clickedTile)){
 					gameState.getBoard().getLastTile().getUnit().attackMoveUnit(clickedTile, out, gameState);
 					gameState.drawDefaultTilesGrid(out);
 			}
 		} else {
 				// Execute the card if a card is selected before clicking the tile
-				if (gameState.getBoard().getHighlightedTiles().contains(clickedTile)) {
+				if (gameState.getBoard().isHighlighted(clickedTile)) {
 					Card clickedCard = gameState.getPlayerOne().getHand().get(gameState.getClickedHandPosition() - 1);
 					clickedCard.execute(out, gameState, clickedTile);
 				}
@@ -0,0 +1,23 @@
+package metrics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A part of the AI's turn, e.g. makeMove or executeCard, the same steps GameMetrics times.
+ */
+@Name("cardgame.AIStep")
+@Label("AI Step")
+public class AIStepEvent extends SessionEvent {
+
+	@Label("Step")
+	String step;
+
+	@Label("Player")
+	int player;
+
+	public AIStepEvent(String step, int player) {
+		this.step = step;
+		this.player = player;
+	}
+}
@@ -0,0 +1,27 @@
+package metrics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A card played by either player: the summon or the spell with all its effects.
+ */
+@Name("cardgame.CardExecution")
+@Label("Card Execution")
+public class CardExecutionEvent extends SessionEvent {
+
+	@Label("Card")
+	String card;
+
+	@Label("Mana Cost")
+	int manacost;
+
+	@Label("Player")
+	int player;
+
+	public CardExecutionEvent(String card, int manacost, int player) {
+		this.card = card;
+		this.manacost = manacost;
+		this.player = player;
+	}
+}
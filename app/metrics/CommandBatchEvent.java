@@ -0,0 +1,22 @@
+package metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A frame of commands, from being queued on the session's CommandTimeline to being sent over the
+ * websocket. Most of a turn's wall time is spent here, waiting for the animations before it.
+ */
+@Name("cardgame.CommandBatch")
+@Label("Command Batch")
+public class CommandBatchEvent extends SessionEvent {
+
+	@Label("Commands")
+	@Description("Commands in the frame")
+	int commands;
+
+	public CommandBatchEvent(int commands) {
+		this.commands = commands;
+	}
+}
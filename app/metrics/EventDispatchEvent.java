@@ -0,0 +1,19 @@
+package metrics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event from the front-end processed by GameActor, from the call of its EventProcessor to its return.
+ */
+@Name("cardgame.EventDispatch")
+@Label("Event Dispatch")
+public class EventDispatchEvent extends SessionEvent {
+
+	@Label("Message Type")
+	String messageType;
+
+	public EventDispatchEvent(String messageType) {
+		this.messageType = messageType;
+	}
+}
@@ -0,0 +1,140 @@
+package metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import commands.BasicCommands;
+
+/**
+ * The server's metrics, shared by every session: how long each type of event takes to process,
+ * how long the AI takes for its moves, how many commands of each type were sent to the front-ends
+ * and how many sessions are open. text() writes them in the Prometheus text format, which
+ * MetricsController serves on /metrics.
+ *
+ * Recording takes a few atomic increments, see LatencyHistogram. Headless games send no commands,
+ * and AI steps taken while a GameEventSink is installed on the thread, i.e. in headless games and
+ * the AI's look-ahead, are left out as in SessionEvent, so simulations do not show up here.
+ *
+ * @author The team
+ */
+public final class GameMetrics {
+
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+	private static final Map<String, LatencyHistogram> events = new ConcurrentHashMap<>(); // by message type
+	private static final Map<String, LatencyHistogram> ai = new ConcurrentHashMap<>(); // by AI step
+	private static final Map<String, LongAdder> commands = new ConcurrentHashMap<>(); // by message type
+	private static final AtomicLong activeSessions = new AtomicLong();
+	private static final LongAdder sessions = new LongAdder();
+
+	private GameMetrics() {}
+
+	/**
+	 * @param type the message type of the event, e.g. "tileclicked"
+	 * @param nanos how long processing it took
+	 */
+	public static void eventProcessed(String type, long nanos) {
+		events.computeIfAbsent(type, name -> new LatencyHistogram()).recordNanos(nanos);
+	}
+
+	/**
+	 * @param step the part of the AI's turn, e.g. "makeMove"
+	 * @param nanos how long it took
+	 */
+	public static void aiStep(String step, long nanos) {
+		if (BasicCommands.getEventSink() != null) return; // a headless game or a look-ahead
+		ai.computeIfAbsent(step, name -> new LatencyHistogram()).recordNanos(nanos);
+	}
+
+	/**
+	 * @param type the message type of a command sent to a front-end, e.g. "drawTile"
+	 */
+	public static void commandSent(String type) {
+		LongAdder counter = commands.get(type);
+		if (counter == null) counter = commands.computeIfAbsent(type, name -> new LongAdder());
+		counter.increment();
+	}
+
+	public static void sessionOpened() {
+		activeSessions.incrementAndGet();
+		sessions.increment();
+	}
+
+	public static void sessionClosed() {
+		activeSessions.decrementAndGet();
+	}
+
+	public static long getActiveSessions() {
+		return activeSessions.get();
+	}
+
+	/**
+	 * @param type a message type
+	 * @return the latencies of the events of that type, or null if none was processed.
+	 */
+	public static LatencyHistogram getEventLatency(String type) {
+		return events.get(type);
+	}
+
+	/**
+	 * @param step a part of the AI's turn
+	 * @return how long the AI took for it, or null if it was not timed yet.
+	 */
+	public static LatencyHistogram getAIStepLatency(String step) {
+		return ai.get(step);
+	}
+
+	/**
+	 * @param type a command's message type
+	 * @return how many were sent.
+	 */
+	public static long getCommandsSent(String type) {
+		LongAdder counter = commands.get(type);
+		return counter == null ? 0 : counter.sum();
+	}
+
+	/**
+	 * @return every metric in the Prometheus text exposition format.
+	 */
+	public static String text() {
+		StringBuilder text = new StringBuilder(4096);
+		summary(text, "game_event_duration_seconds", "Time to process an event from the front-end", "type", events);
+		summary(text, "game_ai_duration_seconds", "Time the AI takes for each part of its turn", "step", ai);
+		text.append("# HELP game_commands_sent_total Commands sent to the front-ends, by BasicCommands message type\n");
+		text.append("# TYPE game_commands_sent_total counter\n");
+		for (Map.Entry<String, LongAdder> entry : new TreeMap<>(commands).entrySet()) {
+			text.append("game_commands_sent_total{command=\"").append(entry.getKey()).append("\"} ")
+					.append(entry.getValue().sum()).append('\n');
+		}
+		text.append("# HELP game_sessions_active Open game sessions\n");
+		text.append("# TYPE game_sessions_active gauge\n");
+		text.append("game_sessions_active ").append(activeSessions.get()).append('\n');
+		text.append("# HELP game_sessions_total Game sessions opened since the server started\n");
+		text.append("# TYPE game_sessions_total counter\n");
+		text.append("game_sessions_total ").append(sessions.sum()).append('\n');
+		return text.toString();
+	}
+
+	private static void summary(StringBuilder text, String name, String help, String label, Map<String, LatencyHistogram> histograms) {
+		text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(name).append(" summary\n");
+		for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+			String labels = label + "=\"" + entry.getKey() + "\"";
+			LatencyHistogram histogram = entry.getValue();
+			for (double quantile : QUANTILES) {
+				text.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+						.append(seconds(histogram.percentile(quantile))).append('\n');
+			}
+			text.append(name).append("_sum{").append(labels).append("} ").append(seconds(histogram.getSum())).append('\n');
+			text.append(name).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+		}
+	}
+
+	private static String seconds(long micros) {
+		return String.format(Locale.ROOT, "%.6f", micros / 1e6);
+	}
+}
@@ -0,0 +1,97 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in microseconds, laid out like an HDR histogram: values below 128 have
+ * a bucket each, and every power of two above that is split into 64 buckets, so any recorded value
+ * is reported to within 1.6%. That covers anything from 1 microsecond to centuries in about 3800
+ * counters, without allocating or locking when a value is recorded.
+ *
+ * Recording is safe from any number of threads. Percentiles read while values are recorded may
+ * miss the newest ones.
+ *
+ * @author The team
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // values below this have a bucket each
+	private static final int HALF = SUB_BUCKETS / 2; // buckets per power of two above that
+	private static final int SIZE = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * HALF;
+
+	private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * @param nanos a duration in nanoseconds, e.g. the difference of two System.nanoTime() calls
+	 */
+	public void recordNanos(long nanos) {
+		record(nanos / 1000);
+	}
+
+	/**
+	 * @param micros a duration in microseconds
+	 */
+	public void record(long micros) {
+		if (micros < 0) micros = 0;
+		counts.incrementAndGet(index(micros));
+		count.increment();
+		sum.add(micros);
+		max.accumulate(micros);
+	}
+
+	static int index(long value) {
+		if (value < SUB_BUCKETS) return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+		int sub = (int) (value >>> shift); // from HALF to SUB_BUCKETS - 1
+		return SUB_BUCKETS + (shift - 1) * HALF + (sub - HALF);
+	}
+
+	// the highest value that falls in the bucket
+	static long highestValue(int index) {
+		if (index < SUB_BUCKETS) return index;
+		int shift = (index - SUB_BUCKETS) / HALF + 1;
+		long sub = (index - SUB_BUCKETS) % HALF + HALF;
+		return ((sub + 1) << shift) - 1;
+	}
+
+	/**
+	 * @param quantile from 0 to 1, e.g. 0.99
+	 * @return the value in microseconds that the given share of recorded values do not exceed, 0 if none.
+	 */
+	public long percentile(double quantile) {
+		long total = 0;
+		for (int i = 0; i < SIZE; i++) total += counts.get(i);
+		if (total == 0) return 0;
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int i = 0; i < SIZE; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) return Math.min(highestValue(i), getMax());
+		}
+		return getMax();
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return the sum of the recorded values, in microseconds.
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * @return the largest recorded value, in microseconds.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+}
@@ -0,0 +1,57 @@
+package metrics;
+
+import commands.BasicCommands;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * The base of the game's Java Flight Recorder events. Each of them carries the session it belongs
+ * to, numbered as in the event log, and its duration. Start the server with e.g.
+ * -XX:StartFlightRecording=maxage=1h,filename=game.jfr and the recording shows, next to the JVM's
+ * own events, how long every event of every session took, which AI steps and cards it ran, which
+ * units died and how long each frame of commands waited on the session's timeline.
+ *
+ * GameActor sets the session of the thread processing an event (enter() and exit()). Events
+ * created elsewhere, or while a GameEventSink is installed, i.e. in headless games and the AI's
+ * look-ahead, have no session and are not recorded.
+ *
+ * When no recording is running, begin() and commit() do nothing and the JIT drops the events.
+ *
+ * @author The team
+ */
+@Category("Card Game")
+@StackTrace(false)
+public abstract class SessionEvent extends Event {
+
+	private static final ThreadLocal<Long> current = new ThreadLocal<>();
+
+	@Label("Session")
+	@Description("The game session, as numbered in the event log")
+	long session;
+
+	SessionEvent() {
+		Long id = current.get();
+		session = id == null || BasicCommands.getEventSink() != null ? 0 : id;
+	}
+
+	/**
+	 * @param session the session whose event is processed on this thread from now on
+	 */
+	public static void enter(long session) {
+		current.set(session);
+	}
+
+	public static void exit() {
+		current.remove();
+	}
+
+	/**
+	 * Ends the event and commits it if it belongs to a session.
+	 */
+	public void record() {
+		if (session != 0) commit();
+	}
+}
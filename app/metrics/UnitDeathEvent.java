@@ -0,0 +1,23 @@
+package metrics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A unit removed from the board after taking lethal damage, including the board redraw.
+ */
+@Name("cardgame.UnitDeath")
+@Label("Unit Death")
+public class UnitDeathEvent extends SessionEvent {
+
+	@Label("Unit Type")
+	Class<?> unitType;
+
+	@Label("Unit Id")
+	int unitId;
+
+	public UnitDeathEvent(Class<?> unitType, int unitId) {
+		this.unitType = unitType;
+		this.unitId = unitId;
+	}
+}
@@ -0,0 +1,117 @@
+package simulation;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import events.EndTurnClicked;
+import events.Initalize;
+import structures.AI;
+import structures.AIPlayer;
+import structures.GreedyAI;
+import structures.GameState;
+import structures.basic.Player;
+
+/**
+ * Plays a whole game between two AI players without a browser. The normal rule code runs
+ * with a null ActorRef and a GameEventSink installed on the current thread, so no JSON is
+ * built, nothing waits for animations and no actor system is needed.
+ *
+ * Player one is played by the AI during its own turn, then ending the turn runs player two's
+ * AI turn exactly as it does in the browser game (see EndTurnClicked).
+ *
+ * A HeadlessGame is used by one thread at a time, several games can run in parallel. The sink is
+ * installed per thread and takes precedence over BasicCommands.altTell, so a test hook set on
+ * another thread never sees the commands of a headless game.
+ *
+ * @author The team
+ *
+ */
+public class HeadlessGame {
+
+	// Games where neither avatar dies within this many turns are counted as unfinished
+	public static final int DEFAULT_TURN_LIMIT = 60;
+
+	private final GameEventSink sink;
+	private final int turnLimit;
+	private GameState gameState;
+	private AIPlayer playerTwoAI = new GreedyAI();
+
+	public HeadlessGame() {
+		this(GameEventSink.IGNORE, DEFAULT_TURN_LIMIT);
+	}
+
+	/**
+	 * @param sink receives every event of the game
+	 * @param turnLimit the game is stopped after this many turns
+	 */
+	public HeadlessGame(GameEventSink sink, int turnLimit) {
+		this.sink = sink;
+		this.turnLimit = turnLimit;
+	}
+
+	/**
+	 * @param playerTwoAI the AI that plays player two's turns from the next game on
+	 */
+	public void setPlayerTwoAI(AIPlayer playerTwoAI) {
+		this.playerTwoAI = playerTwoAI;
+	}
+
+	/**
+	 * Plays a new game to the end with the usual decks.
+	 * @return the number of the winning player, or 0 if the turn limit was reached first
+	 */
+	public int play() {
+		return play(1, 2);
+	}
+
+	/**
+	 * Plays a new game to the end.
+	 * @param playerOneDeckType deck type for player one, see Deck
+	 * @param playerTwoDeckType deck type for player two
+	 * @return the number of the winning player, or 0 if the turn limit was reached first
+	 */
+	public int play(int playerOneDeckType, int playerTwoDeckType) {
+		BasicCommands.setEventSink(sink);
+		try {
+			gameState = new GameState(playerOneDeckType, playerTwoDeckType);
+			gameState.setPlayerTwoAI(playerTwoAI);
+			new Initalize().processEvent(null, gameState, null);
+			Player playerOne = gameState.getPlayerOne();
+			EndTurnClicked endTurn = new EndTurnClicked();
+			while (!gameState.gameOver && gameState.getTurn() <= turnLimit) {
+				// player one's turn
+				AI.makeMove(null, gameState, playerOne);
+				AI.executeCard(null, gameState, playerOne);
+				if (gameState.gameOver) break;
+				// player two's turn, then both players draw and gain mana
+				endTurn.processEvent(null, gameState, null);
+			}
+			return getWinner();
+		} finally {
+			BasicCommands.setEventSink(null);
+		}
+	}
+
+	/**
+	 * @return the number of the winning player, 0 if the game has not been won
+	 */
+	public int getWinner() {
+		if (gameState==null || !gameState.gameOver) return 0;
+		if (gameState.getPlayerOne().getHealth() < 1) return 2;
+		if (gameState.getPlayerTwo().getHealth() < 1) return 1;
+		return 0;
+	}
+
+	/**
+	 * @return the number of turns played in the last game
+	 */
+	public int getTurns() {
+		return gameState==null ? 0 : gameState.getTurn();
+	}
+
+	/**
+	 * @return the final state of the last game
+	 */
+	public GameState getGameState() {
+		return gameState;
+	}
+}
@@ -0,0 +1,80 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays many headless AI against AI games across all cores and reports how many each player
+ * won and how many games per second were played. Used for balance testing, e.g.
+ *
+ *   sbt "runMain simulation.SimulationRunner 10000"
+ *
+ * Arguments: number of games (default 1000), number of threads (default one per core).
+ *
+ * @author The team
+ *
+ */
+public class SimulationRunner {
+
+	public static void main(String[] args) throws Exception {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		System.out.println(run(games, threads));
+	}
+
+	/**
+	 * Plays the games on a fixed pool of threads, each thread reusing its own HeadlessGame.
+	 * @param games number of games to play
+	 * @param threads number of threads
+	 * @return the totals
+	 */
+	public static Results run(int games, int threads) throws Exception {
+		Results results = new Results(games);
+		AtomicInteger next = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				workers.add(pool.submit(() -> {
+					HeadlessGame game = new HeadlessGame();
+					while (next.getAndIncrement() < games) {
+						results.wins[game.play()].incrementAndGet();
+					}
+				}));
+			}
+			for (Future<?> worker : workers) worker.get();
+		} finally {
+			pool.shutdown();
+		}
+		results.elapsedNanos = System.nanoTime() - start;
+		return results;
+	}
+
+	/**
+	 * Totals of a run. wins[0] counts the games stopped at the turn limit.
+	 */
+	public static class Results {
+		public final int games;
+		public final AtomicInteger[] wins = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+		public long elapsedNanos;
+
+		Results(int games) {
+			this.games = games;
+		}
+
+		public double getGamesPerSecond() {
+			return games / (elapsedNanos / 1e9);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d games in %.1f s (%.1f games/s): player one won %d, player two won %d, %d unfinished",
+					games, elapsedNanos / 1e9, getGamesPerSecond(), wins[1].get(), wins[2].get(), wins[0].get());
+		}
+	}
+}
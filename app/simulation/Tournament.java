@@ -0,0 +1,157 @@
+package simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Command-line tournament between the two decks (OrderedCardLoader.getPlayer1Cards and
+ * getPlayer2Cards), played by the AI on both sides. The games are split across a ForkJoinPool
+ * and the decks swap seats every other game, so the first player's advantage does not count
+ * towards either deck. Prints the win rate of each deck, the average game length and the
+ * number of games played per second, e.g.
+ *
+ *   sbt "runMain simulation.Tournament 10000 8"
+ *
+ * Arguments: number of games (default 10000), parallelism (default one worker per core).
+ *
+ * Each worker thread owns its own HeadlessGame, and with it the GameState of the game it is
+ * playing and its own event sink, so no game state is shared between workers.
+ *
+ * @author The team
+ *
+ */
+public class Tournament {
+
+	// Games played by one task without splitting further
+	private static final int GAMES_PER_TASK = 16;
+
+	private static final ThreadLocal<HeadlessGame> workerGame = ThreadLocal.withInitial(HeadlessGame::new);
+
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		System.out.println(run(games, parallelism));
+	}
+
+	/**
+	 * @param games number of games to play
+	 * @param parallelism number of worker threads
+	 * @return the tournament results
+	 */
+	public static Report run(int games, int parallelism) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			long start = System.nanoTime();
+			Report report = pool.invoke(new Games(0, games));
+			report.elapsedNanos = System.nanoTime() - start;
+			return report;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	// Plays games [from, to), splitting the range in half until it is small enough
+	private static class Games extends RecursiveTask<Report> {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+
+		Games(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Report compute() {
+			if (to - from <= GAMES_PER_TASK) {
+				Report report = new Report();
+				HeadlessGame game = workerGame.get();
+				for (int i = from; i < to; i++) {
+					// deck 1 starts the even games, deck 2 the odd ones
+					int firstDeck = i % 2 == 0 ? 1 : 2;
+					int secondDeck = 3 - firstDeck;
+					int winner = game.play(firstDeck, secondDeck);
+					report.add(firstDeck, secondDeck, winner == 0 ? 0 : (winner == 1 ? firstDeck : secondDeck), game.getTurns());
+				}
+				return report;
+			}
+			int middle = (from + to) >>> 1;
+			Games left = new Games(from, middle);
+			left.fork();
+			Report right = new Games(middle, to).compute();
+			return right.merge(left.join());
+		}
+	}
+
+	/**
+	 * Results of a tournament. Decks are numbered as in Deck, index 0 is unused.
+	 */
+	public static class Report {
+		int games;
+		int unfinished;
+		long turns;
+		final int[] wins = new int[3];
+		final int[] winsAsFirstPlayer = new int[3];
+		final int[] gamesAsFirstPlayer = new int[3];
+		long elapsedNanos;
+
+		void add(int firstDeck, int secondDeck, int winningDeck, int gameTurns) {
+			games++;
+			turns += gameTurns;
+			gamesAsFirstPlayer[firstDeck]++;
+			if (winningDeck == 0) unfinished++;
+			else {
+				wins[winningDeck]++;
+				if (winningDeck == firstDeck) winsAsFirstPlayer[winningDeck]++;
+			}
+		}
+
+		Report merge(Report other) {
+			games += other.games;
+			unfinished += other.unfinished;
+			turns += other.turns;
+			for (int deck = 1; deck <= 2; deck++) {
+				wins[deck] += other.wins[deck];
+				winsAsFirstPlayer[deck] += other.winsAsFirstPlayer[deck];
+				gamesAsFirstPlayer[deck] += other.gamesAsFirstPlayer[deck];
+			}
+			return this;
+		}
+
+		public int getGames() {
+			return games;
+		}
+
+		public int getUnfinished() {
+			return unfinished;
+		}
+
+		/**
+		 * @param deck 1 or 2
+		 * @return share of all games won by the deck
+		 */
+		public double getWinRate(int deck) {
+			return games == 0 ? 0 : wins[deck] / (double) games;
+		}
+
+		public double getAverageTurns() {
+			return games == 0 ? 0 : turns / (double) games;
+		}
+
+		public double getGamesPerSecond() {
+			return games / (elapsedNanos / 1e9);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder();
+			text.append(String.format("%d games in %.1f s, %.1f games/s, %.1f turns per game on average, %d unfinished%n",
+					games, elapsedNanos / 1e9, getGamesPerSecond(), getAverageTurns(), unfinished));
+			for (int deck = 1; deck <= 2; deck++) {
+				text.append(String.format("deck %d: won %d (%.1f%%), %d of %d as first player%n",
+						deck, wins[deck], getWinRate(deck) * 100, winsAsFirstPlayer[deck], gamesAsFirstPlayer[deck]));
+			}
+			return text.toString();
+		}
+	}
+}
@@ -4,6 +4,7 @@ import akka.actor.ActorRef;
 import commands.BasicCommands;
 import structures.basic.Board;
 import structures.basic.Card;
+import structures.basic.Player;
 import structures.basic.Position;
 import structures.basic.Tile;
 import structures.basic.Unit;
@@ -12,13 +13,19 @@ import structures.units.Serpenti;
 
 import java.util.*;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * This class is used to implement AI opponent.
+ * It plays player two in the browser game, and can play either player in a headless game.
  *
  * @author the team
  */
 public class AI {
 
+    private static final Logger log = LoggerFactory.getLogger(AI.class);
+
     private static class Action{
         Tile move; double score;
 
@@ -34,16 +41,26 @@ public class AI {
      * @param gameState - current state of the game
      */
     public static void makeMove(ActorRef out, GameState gameState) {
+        makeMove(out, gameState, gameState.getPlayerTwo());
+    }
+
+    /**
+     * Method to iterate move/attack actions of each unit on board for the given player
+     *
+     * @param out - game actor reference
+     * @param gameState - current state of the game
+     * @param player - the player the AI plays for
+     */
+    public static void makeMove(ActorRef out, GameState gameState, Player player) {
         Board board = gameState.getBoard();
-        List<Unit> AIunits = board.getPlayer2Units();
-        List<Action> actions = new ArrayList<>();
+        List<Unit> AIunits = board.getPlayerUnits(player.getPlayerNumber());
         int initialUnitsSize = AIunits.size();
 
         for (int i = 0; i < AIunits.size(); i++) {
-            startMove(out, AIunits.get(i), gameState);
+            startMove(out, AIunits.get(i), gameState, player);
             // Serpenti can attack again
             if(initialUnitsSize == AIunits.size() && AIunits.get(i) instanceof Serpenti){
-                startMove(out, AIunits.get(i), gameState);
+                startMove(out, AIunits.get(i), gameState, player);
             }
         }
     }
@@ -53,23 +70,13 @@ public class AI {
      *
      * @param out - game actor reference
      * @param gameState - current state of the game
+     * @param player - the player the AI plays for
      */
-    private static void startMove(ActorRef out, Unit AIunit, GameState gameState){
+    private static void startMove(ActorRef out, Unit AIunit, GameState gameState, Player player){
         Board board = gameState.getBoard();
-        List<Unit> AIunits = board.getPlayer2Units();
         List<Action> actions = new ArrayList<>();
 
-        actions.clear();
-        gameState.drawDefaultTilesGrid(out);
-        board.getHighlightedTiles().clear();
-        Tile unitTile = board.getTile(AIunit.getPosition().getTilex(), AIunit.getPosition().getTiley());
-        board.setLastTile(unitTile);
-        if(!AIunit.getHasMoved() && !AIunit.getHasAttacked()){
-            AIunit.displayMovementTiles(out, unitTile, gameState);
-        }
-        if(AIunit.getHasMoved() && !AIunit.getHasAttacked()){
-            AIunit.displayInRangeAttackTiles(out, unitTile, gameState.getBoard());
-        }
+        Tile unitTile = highlightUnitActions(out, AIunit, gameState);
 
         List<Tile> highlightedTiles = board.getHighlightedTiles();
         for(Tile move : highlightedTiles){
@@ -81,29 +88,67 @@ public class AI {
                 .orElse(null);
 
         if(action != null){
-            if(action.move.getUnit() != null){
-                if(gameState.getNearbyTiles(unitTile).contains(action.move)){
-                    if(gameState.getBoard().getPlayer1Units().contains(action.move.getUnit())){
-                        AIunit.attack(action.move.getUnit(), gameState, out);
-                    }
-                }else{
-                    AIunit.attackMoveUnit(action.move, out, gameState);
-                }
-            }
-            else AIunit.moveUnit(action.move, out, gameState);
+            performUnitAction(out, AIunit, unitTile, action.move, gameState, player);
         }
-        try {Thread.sleep(200);} catch (InterruptedException e) {e.printStackTrace();}
+        BasicCommands.pause(out, 200);
 
         gameState.drawDefaultTilesGrid(out);
     }
 
+    /**
+     * Highlights the tiles a unit can move to or attack, as they are shown when the player clicks on it.
+     *
+     * @param out - game actor reference
+     * @param unit - the unit to act with
+     * @param gameState - current state of the game
+     * @return the tile the unit stands on
+     */
+    static Tile highlightUnitActions(ActorRef out, Unit unit, GameState gameState){
+        Board board = gameState.getBoard();
+        gameState.drawDefaultTilesGrid(out);
+        board.clearHighlightedTiles();
+        Tile unitTile = board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+        board.setLastTile(unitTile);
+        if(!unit.getHasMoved() && !unit.getHasAttacked()){
+            unit.displayMovementTiles(out, unitTile, gameState);
+        }
+        if(unit.getHasMoved() && !unit.getHasAttacked()){
+            unit.displayInRangeAttackTiles(out, unitTile, gameState.getBoard());
+        }
+        return unitTile;
+    }
+
+    /**
+     * Moves to, attacks, or moves and attacks the chosen tile. The tile must be one of those
+     * highlighted by highlightUnitActions() or Move.apply().
+     *
+     * @param out - game actor reference
+     * @param unit - the unit to act with
+     * @param unitTile - the tile the unit stands on
+     * @param move - the chosen highlighted tile
+     * @param gameState - current state of the game
+     * @param player - the player the unit belongs to
+     */
+    static void performUnitAction(ActorRef out, Unit unit, Tile unitTile, Tile move, GameState gameState, Player player){
+        if(move.getUnit() != null){
+            if(gameState.getNearbyTiles(unitTile).contains(move)){
+                if(gameState.getBoard().isOwnedBy(move.getUnit(), opponent(player))){
+                    unit.attack(move.getUnit(), gameState, out);
+                }
+            }else{
+                unit.attackMoveUnit(move, out, gameState);
+            }
+        }
+        else unit.moveUnit(move, out, gameState);
+    }
+
     /**
      * Helper method to calculate the score of each move/attack action
      *
      * @param unit - current AI unit to make action
      * @param tile - valid tile for the action
      */
-    private static double calculateScore(Unit unit, Tile tile) {
+    public static double calculateScore(Unit unit, Tile tile) {
         double score = 0.0;
         if (unit instanceof Avatar) {
             if (tile.getUnit() != null) {
@@ -142,54 +187,89 @@ public class AI {
      * @param gameState - current state of the game
      */
     public static void executeCard(ActorRef out, GameState gameState){
-        int[] cardComboIndex = AI.findOptimalCardCombo(gameState);
+        executeCard(out, gameState, gameState.getPlayerTwo());
+    }
+
+    /**
+     * Method to play cards for the given player based on their scores and the player's mana.
+     * Player one's cards are paid for and taken out of the hand by Card.execute(), so this must
+     * be called during player one's turn (gameState.clickable) when playing for player one.
+     *
+     * @param out - game actor reference
+     * @param gameState - current state of the game
+     * @param player - the player the AI plays for
+     */
+    public static void executeCard(ActorRef out, GameState gameState, Player player){
+        int[] cardComboIndex = AI.findOptimalCardCombo(gameState, player);
         Tile executionTile;
 
         if(!gameState.gameOver) {
             if (cardComboIndex != null) {
+                // Look the cards up first, playing a card for player one removes it from the hand
+                List<Card> combo = new ArrayList<>(cardComboIndex.length);
                 for (int index : cardComboIndex) {
-                    Card theCard = gameState.getPlayerTwo().getHand().get(index);
+                    combo.add(player.getHand().get(index));
+                }
+                for (Card theCard : combo) {
+                    executionTile = null;
                     if (theCard.getBigCard().getHealth() != -1) {
                         // If it is a unit
-                        executionTile = AI.findUnitSummoningTile(gameState, theCard);
-                        if (executionTile != null) theCard.execute(out, gameState, executionTile);
+                        executionTile = AI.findUnitSummoningTile(gameState, theCard, player);
                     } else {
                         // If it is a spell
                         if (theCard.getCardname().equals("Entropic Decay")) {
-                            executionTile = AI.findEntropicDecayTile(gameState);
-                            if (executionTile != null) theCard.execute(out, gameState, executionTile);
+                            executionTile = AI.findEntropicDecayTile(gameState, player);
                         }
                         if (theCard.getCardname().equals("Staff of Y'Kir'")) {
-                            executionTile = AI.findStaffOfYkirTile(gameState);
-                            if (executionTile != null) theCard.execute(out, gameState, executionTile);
+                            executionTile = AI.findStaffOfYkirTile(gameState, player);
                         }
                     }
-                    // Deduct mana
-                    gameState.getPlayerTwo().setMana(gameState.getPlayerTwo().getMana() - theCard.getManacost());
-                    BasicCommands.setPlayer2Mana(out, gameState.getPlayerTwo());
+                    playCard(out, gameState, player, theCard, executionTile);
                 }
-                for (Card card : gameState.getPlayerTwo().getHand()) {
-                    System.out.println(card.getCardname());
-                }
-                // Remove all executed cards in hand
-                for (int i = 0; i < cardComboIndex.length; i++) {
-                    gameState.getPlayerTwo().getHand().remove(cardComboIndex[i]);
-                    for (int j = i + 1; j < cardComboIndex.length; j++) {
-                        cardComboIndex[j]--;
-                    }
+                if (out != null && log.isDebugEnabled()) {
+                    List<String> hand = new ArrayList<>(player.getHand().size());
+                    for (Card card : player.getHand()) hand.add(card.getCardname());
+                    log.debug("player={} hand={}", player.getPlayerNumber(), hand);
                 }
             }
         }
     }
 
+    /**
+     * Plays a card from the player's hand on the given tile. Player two pays for the card here,
+     * player one's cards are paid for by Card.execute(). A card without a tile is still paid for
+     * and discarded.
+     *
+     * @param out - game actor reference
+     * @param gameState - current state of the game
+     * @param player - the player holding the card
+     * @param card - the card to play
+     * @param tile - where to play it, or null
+     */
+    static void playCard(ActorRef out, GameState gameState, Player player, Card card, Tile tile){
+        if (tile != null) card.execute(out, gameState, tile);
+        // Deduct mana and remove the card from the hand
+        if (player.getPlayerNumber() == 2) {
+            player.setMana(player.getMana() - card.getManacost());
+            BasicCommands.setPlayer2Mana(out, player);
+            player.removeFromHand(card);
+        }
+    }
+
+    // The other player's number
+    static int opponent(Player player){
+        return player.getPlayerNumber() == 1 ? 2 : 1;
+    }
+
     /**
      * Helper method to find the tile to cast Entropic Decay
      *
      * @param gameState - current state of the game
+     * @param player - the player casting the spell
      */
-    private static Tile findEntropicDecayTile(GameState gameState){
+    private static Tile findEntropicDecayTile(GameState gameState, Player player){
         List<Unit> enemyUnits;
-        enemyUnits = gameState.getBoard().getPlayer1Units();
+        enemyUnits = gameState.getBoard().getPlayerUnits(opponent(player));
 
         for(int i=0;i<enemyUnits.size();i++){
             if(!(enemyUnits.get(i) instanceof Avatar) && enemyUnits.get(i).getHealth() > 6){
@@ -203,13 +283,11 @@ public class AI {
      * Helper method to find the tile to cast Staff Of Ykir
      *
      * @param gameState - current state of the game
+     * @param player - the player casting the spell
      */
-    private static Tile findStaffOfYkirTile(GameState gameState){
-        List<Unit> enemyUnits = new ArrayList<Unit>();
-        enemyUnits = gameState.getBoard().getPlayer1Units();
-
-        List<Unit> friendlyUnits = new ArrayList<Unit>();
-        friendlyUnits = gameState.getBoard().getPlayer2Units();
+    private static Tile findStaffOfYkirTile(GameState gameState, Player player){
+        List<Unit> enemyUnits = gameState.getBoard().getPlayerUnits(opponent(player));
+        List<Unit> friendlyUnits = gameState.getBoard().getPlayerUnits(player.getPlayerNumber());
 
         for(int i=0;i<friendlyUnits.size();i++){
             if(friendlyUnits.get(i) instanceof Avatar) {
@@ -224,14 +302,14 @@ public class AI {
      * Helper method to find the tile to summon units
      *
      * @param gameState - current state of the game
+     * @param card - the unit card to summon
+     * @param player - the player summoning the unit
      */
-    private static Tile findUnitSummoningTile(GameState gameState, Card card){
+    private static Tile findUnitSummoningTile(GameState gameState, Card card, Player player){
         List<Tile> range = new ArrayList<Tile>();
-        List<Unit> enemyUnits = new ArrayList<Unit>();
-        List<Unit> friendlyUnits = new ArrayList<Unit>();
         Position avatarPos = null;
-        enemyUnits = gameState.getBoard().getPlayer1Units();
-        friendlyUnits = gameState.getBoard().getPlayer2Units();
+        List<Unit> enemyUnits = gameState.getBoard().getPlayerUnits(opponent(player));
+        List<Unit> friendlyUnits = gameState.getBoard().getPlayerUnits(player.getPlayerNumber());
 
         Tile refTile = null;
 
@@ -299,7 +377,7 @@ public class AI {
         for(int x = 0; x < gameState.getBoard().getX(); x++) {
 			for (int y = 0; y < gameState.getBoard().getY(); y++) {
                 Unit unit = gameState.getBoard().getTile(x, y).getUnit();
-                if(friendlyUnits.contains(unit)){
+                if(gameState.getBoard().isOwnedBy(unit, player.getPlayerNumber())){
                     range=gameState.getNearbyTiles(gameState.getBoard().getTile(x, y));
                 }
 
@@ -323,18 +401,18 @@ public class AI {
      *
      * @param gameState - current state of the game
      * @param card - card to be executed
+     * @param player - the player holding the card
      */
-    private static double calculateCardScore(GameState gameState, Card card){
-        double score;
+    private static double calculateCardScore(GameState gameState, Card card, Player player){
         // Prioritize Entropic Decay if there is an enemy with health greater than 7
         if(card.getCardname().equals("Entropic Decay")){
-            for(Unit unit: gameState.getBoard().getPlayer1Units()){
+            for(Unit unit: gameState.getBoard().getPlayerUnits(opponent(player))){
                 if(unit.getHealth() > 6) return 99;
             }
         }
         // Prioritize Staff of Y'Kir' if there is less than 4 enemy units on the board
         if(card.getCardname().equals("Staff of Y'Kir'")){
-            if(gameState.getBoard().getPlayer1Units().size() < 4){
+            if(gameState.getBoard().getPlayerUnits(opponent(player)).size() < 4){
                 return 99;
             }
         }
@@ -347,16 +425,17 @@ public class AI {
      * using algorithm for 0-1 Knapsack Problem
      *
      * @param gameState - current state of the game
+     * @param player - the player whose hand to play
      */
-    private static int[] findOptimalCardCombo(GameState gameState){
+    public static int[] findOptimalCardCombo(GameState gameState, Player player){
 
-        int currentMana = gameState.getPlayerTwo().getMana();
-        List<Card> currentHand = gameState.getPlayerTwo().getHand();
+        int currentMana = player.getMana();
+        List<Card> currentHand = player.getHand();
 
         // Matrix to store card combination scores
-        double[][] cardComboScores = new double[gameState.getPlayerTwo().getHand().size() + 1][gameState.getPlayerTwo().getMana() + 1];
+        double[][] cardComboScores = new double[currentHand.size() + 1][currentMana + 1];
         // Matrix to store card combination indexes
-        int[][][] cardComboIndexes = new int[gameState.getPlayerTwo().getHand().size() + 1][gameState.getPlayerTwo().getMana() + 1][];
+        int[][][] cardComboIndexes = new int[currentHand.size() + 1][currentMana + 1][];
 
         // Iterate the cards in the hand
         for(int i = 0; i <= currentHand.size(); i++){
@@ -368,7 +447,7 @@ public class AI {
                     // Option 1: use the previous score
                     double option1Score = cardComboScores[i-1][j];
                     // Option 2: use the current score + the max score of reminding mana
-                    double option2Score = calculateCardScore(gameState, currentHand.get(i-1)) +
+                    double option2Score = calculateCardScore(gameState, currentHand.get(i-1), player) +
                             cardComboScores[i-1][j-currentHand.get(i-1).getManacost()];
                     // Their max is the current score
                     cardComboScores[i][j] = Math.max(option1Score, option2Score);
@@ -397,7 +476,7 @@ public class AI {
             }
         }
         // Return the indexes with maximum score
-        return cardComboIndexes[gameState.getPlayerTwo().getHand().size()][gameState.getPlayerTwo().getMana()];
+        return cardComboIndexes[currentHand.size()][currentMana];
     }
 
 
@@ -0,0 +1,51 @@
+package structures;
+
+import com.typesafe.config.Config;
+
+import akka.actor.ActorRef;
+import structures.basic.Player;
+
+/**
+ * An AI that plays a whole turn for a player: unit moves, attacks and cards.
+ * The browser game uses one for player two, see GameState.getPlayerTwoAI().
+ *
+ * @author the team
+ */
+public interface AIPlayer {
+
+    /**
+     * Plays the player's turn on the game state. Ending the turn is left to the caller.
+     *
+     * @param out - game actor reference
+     * @param gameState - current state of the game
+     * @param player - the player the AI plays for
+     */
+    void playTurn(ActorRef out, GameState gameState, Player player);
+
+    /**
+     * Creates the AI selected in the configuration, e.g. the game.ai section of application.conf:
+     * mode is "greedy" or "mcts", the mcts section sets the search budget, how many trees are
+     * searched in parallel on a pool of its own and the size of the transposition table.
+     *
+     * @param config - the AI settings
+     * @return the configured AI
+     */
+    static AIPlayer fromConfig(Config config) {
+        String mode = config.hasPath("mode") ? config.getString("mode") : "greedy";
+        if (mode.equals("greedy")) return new GreedyAI();
+        if (mode.equals("mcts")) {
+            int iterations = config.hasPath("mcts.iterations") ?
+                    config.getInt("mcts.iterations") : MctsAI.DEFAULT_ITERATIONS;
+            long timeBudget = config.hasPath("mcts.time-budget") ?
+                    config.getDuration("mcts.time-budget").toMillis() : MctsAI.DEFAULT_TIME_BUDGET_MILLIS;
+            int trees = config.hasPath("mcts.trees") ? config.getInt("mcts.trees") : 1;
+            int tableSize = config.hasPath("mcts.transposition-table-size") ?
+                    config.getInt("mcts.transposition-table-size") : MctsAI.DEFAULT_TABLE_SIZE;
+            TranspositionTable table = tableSize > 0 ? new TranspositionTable(tableSize) : null;
+            if (trees <= 1) return new MctsAI(iterations, timeBudget, 1, null, table);
+            int parallelism = config.hasPath("mcts.parallelism") ? config.getInt("mcts.parallelism") : 0;
+            return new MctsAI(iterations, timeBudget, trees, MctsAI.newSearchPool(parallelism), table);
+        }
+        throw new IllegalArgumentException("Unknown AI mode " + mode);
+    }
+}
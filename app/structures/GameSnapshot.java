@@ -0,0 +1,275 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import structures.basic.Board;
+import structures.basic.Card;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+
+/**
+ * The rule state of a game, kept apart from everything that is only needed for drawing it.
+ * For every unit on the board it records the tile, owner, health, attack, move and attack flags
+ * and attack count, for each player the health, mana and the IDs of the cards in hand and deck,
+ * and the turn.
+ *
+ * The values are held in a few int arrays. The units and cards themselves, which carry the
+ * animations, image corrections and card art, are only referenced, so taking a snapshot costs
+ * O(number of units and cards) and nothing is loaded or deep copied. Snapshots never change once
+ * taken, so they can be shared freely, e.g. between the threads of a search.
+ *
+ * restore() puts a game back into the recorded state. It must be the game the snapshot was taken
+ * from (or a game holding the same Unit and Card objects): units summoned since are taken off the
+ * board and units that died are put back. A search can take one snapshot of its scratch game and
+ * restore it before every playout instead of copying the whole GameState.
+ *
+ * @author The team
+ *
+ */
+public final class GameSnapshot {
+
+	// Per unit: tile index, owner, health, attack, flags, attack count
+	private static final int UNIT_FIELDS = 6;
+	private static final int MOVED = 1;
+	private static final int ATTACKED = 2;
+
+	private final Unit[] units; // player one's units, then player two's, each in summoning order
+	private final int[] unitState;
+	private final int[] playerState; // health and mana of player one, then of player two
+	private final int[][] hands; // card IDs in hand order, per player
+	private final int[][] decks; // card IDs in deck order, per player
+	private final Card[][] cards; // cards by ID, per player
+	private final int turn;
+	private final int unitIdCounter;
+	private final boolean clickable;
+	private final boolean gameOver;
+
+	private GameSnapshot(GameState gameState) {
+		Board board = gameState.getBoard();
+		List<Unit> playerOneUnits = board.getPlayer1Units();
+		List<Unit> playerTwoUnits = board.getPlayer2Units();
+		units = new Unit[playerOneUnits.size() + playerTwoUnits.size()];
+		unitState = new int[units.length * UNIT_FIELDS];
+		int i = 0;
+		for (Unit unit : playerOneUnits) {
+			units[i] = unit;
+			recordUnit(unit, unitState, UNIT_FIELDS * i++);
+		}
+		for (Unit unit : playerTwoUnits) {
+			units[i] = unit;
+			recordUnit(unit, unitState, UNIT_FIELDS * i++);
+		}
+
+		Player one = gameState.getPlayerOne();
+		Player two = gameState.getPlayerTwo();
+		playerState = new int[] {one.getHealth(), one.getMana(), two.getHealth(), two.getMana()};
+		cards = new Card[2][];
+		hands = new int[2][];
+		decks = new int[2][];
+		recordCards(0, one);
+		recordCards(1, two);
+
+		turn = gameState.getTurn();
+		unitIdCounter = gameState.getUnitIdCounter();
+		clickable = gameState.clickable;
+		gameOver = gameState.gameOver;
+	}
+
+	/**
+	 * @param gameState the game to record.
+	 * @return a snapshot of its rule state.
+	 */
+	public static GameSnapshot of(GameState gameState) {
+		return new GameSnapshot(gameState);
+	}
+
+	// Writes the unit's rule state to UNIT_FIELDS ints
+	private static void recordUnit(Unit unit, int[] into, int at) {
+		into[at] = Board.index(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+		into[at + 1] = unit.getOwner();
+		into[at + 2] = unit.getHealth();
+		into[at + 3] = unit.getAttack();
+		into[at + 4] = (unit.getHasMoved() ? MOVED : 0) | (unit.getHasAttacked() ? ATTACKED : 0);
+		into[at + 5] = unit.getAttackCount();
+	}
+
+	// Sets the unit's rule state back and puts it on its tile, the board must not hold it yet
+	private static void restoreUnit(Unit unit, int[] from, int at, Board board) {
+		Tile tile = board.getTile(from[at]);
+		unit.setPositionByTile(tile);
+		unit.setHealth(from[at + 2]);
+		unit.setAttack(from[at + 3]);
+		unit.setHasMoved((from[at + 4] & MOVED) != 0);
+		unit.setHasAttacked((from[at + 4] & ATTACKED) != 0);
+		unit.setAttackCount(from[at + 5]);
+		board.placeUnit(tile, unit, from[at + 1]);
+	}
+
+	// Takes every unit off the board and clears the highlights
+	private static void clearBoard(Board board) {
+		board.clearHighlightedTiles();
+		board.setLastTile(null);
+		for (int p = 1; p <= 2; p++) {
+			List<Unit> onBoard = board.getPlayerUnits(p);
+			while (!onBoard.isEmpty()) board.removeUnit(onBoard.get(onBoard.size() - 1));
+		}
+	}
+
+	private void recordCards(int p, Player player) {
+		List<Card> hand = player.getHand();
+		Deque<Card> deck = player.getDeck().getCards();
+		int maxId = -1;
+		for (Card card : hand) maxId = Math.max(maxId, card.getId());
+		for (Card card : deck) maxId = Math.max(maxId, card.getId());
+		cards[p] = new Card[maxId + 1];
+		hands[p] = new int[hand.size()];
+		decks[p] = new int[deck.size()];
+		int i = 0;
+		for (Card card : hand) {
+			cards[p][card.getId()] = card;
+			hands[p][i++] = card.getId();
+		}
+		i = 0;
+		for (Card card : deck) {
+			cards[p][card.getId()] = card;
+			decks[p][i++] = card.getId();
+		}
+	}
+
+	/**
+	 * Puts the game back into the recorded state. Highlighted tiles and the last clicked tile are
+	 * cleared, nothing is sent to the front-end.
+	 * @param gameState the game this snapshot was taken from.
+	 */
+	public void restore(GameState gameState) {
+		Board board = gameState.getBoard();
+		clearBoard(board);
+		for (int i = 0; i < units.length; i++) restoreUnit(units[i], unitState, i * UNIT_FIELDS, board);
+
+		restoreCards(0, gameState.getPlayerOne());
+		restoreCards(1, gameState.getPlayerTwo());
+
+		gameState.setTurn(turn);
+		gameState.setUnitIdCounter(unitIdCounter);
+		gameState.setClickedHandPosition(-1);
+		gameState.clickable = clickable;
+		gameState.gameOver = gameOver;
+	}
+
+	private void restoreCards(int p, Player player) {
+		player.setHealth(playerState[p * 2]);
+		player.setMana(playerState[p * 2 + 1]);
+		Card[] hand = new Card[hands[p].length];
+		for (int i = 0; i < hand.length; i++) hand[i] = cards[p][hands[p][i]];
+		Card[] deck = new Card[decks[p].length];
+		for (int i = 0; i < deck.length; i++) deck[i] = cards[p][decks[p][i]];
+		player.setCards(Arrays.asList(hand), Arrays.asList(deck));
+	}
+
+	public int getUnitCount() {
+		return units.length;
+	}
+
+	public int getUnitId(int i) {
+		return units[i].getId();
+	}
+
+	/**
+	 * @param i unit index, from 0 to getUnitCount() - 1.
+	 * @return index of the unit's tile, see Board.index().
+	 */
+	public int getUnitTile(int i) {
+		return unitState[i * UNIT_FIELDS];
+	}
+
+	public int getUnitOwner(int i) {
+		return unitState[i * UNIT_FIELDS + 1];
+	}
+
+	public int getUnitHealth(int i) {
+		return unitState[i * UNIT_FIELDS + 2];
+	}
+
+	public int getUnitAttack(int i) {
+		return unitState[i * UNIT_FIELDS + 3];
+	}
+
+	public boolean getUnitHasMoved(int i) {
+		return (unitState[i * UNIT_FIELDS + 4] & MOVED) != 0;
+	}
+
+	public boolean getUnitHasAttacked(int i) {
+		return (unitState[i * UNIT_FIELDS + 4] & ATTACKED) != 0;
+	}
+
+	/**
+	 * @param playerNumber 1 or 2.
+	 */
+	public int getPlayerHealth(int playerNumber) {
+		return playerState[(playerNumber - 1) * 2];
+	}
+
+	public int getPlayerMana(int playerNumber) {
+		return playerState[(playerNumber - 1) * 2 + 1];
+	}
+
+	/**
+	 * @param playerNumber 1 or 2.
+	 * @return the IDs of the cards in the player's hand, in hand order.
+	 */
+	public int[] getHand(int playerNumber) {
+		return hands[playerNumber - 1].clone();
+	}
+
+	public int getDeckSize(int playerNumber) {
+		return decks[playerNumber - 1].length;
+	}
+
+	public int getTurn() {
+		return turn;
+	}
+
+	/**
+	 * Two snapshots are equal when they hold the same rule state, whichever objects it was taken from.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof GameSnapshot)) return false;
+		GameSnapshot other = (GameSnapshot) o;
+		if (units.length != other.units.length) return false;
+		for (int i = 0; i < units.length; i++) {
+			if (units[i].getId() != other.units[i].getId()) return false;
+		}
+		return turn == other.turn && unitIdCounter == other.unitIdCounter
+				&& clickable == other.clickable && gameOver == other.gameOver
+				&& Arrays.equals(unitState, other.unitState) && Arrays.equals(playerState, other.playerState)
+				&& Arrays.deepEquals(hands, other.hands) && Arrays.deepEquals(decks, other.decks);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = Arrays.hashCode(unitState);
+		hash = 31 * hash + Arrays.hashCode(playerState);
+		hash = 31 * hash + Arrays.deepHashCode(hands);
+		return 31 * hash + turn;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder("turn ").append(turn);
+		for (int p = 1; p <= 2; p++) {
+			text.append(", player ").append(p).append(": health ").append(getPlayerHealth(p))
+					.append(" mana ").append(getPlayerMana(p)).append(" hand ").append(Arrays.toString(hands[p - 1]));
+		}
+		for (int i = 0; i < units.length; i++) {
+			text.append(", unit ").append(getUnitId(i)).append(" of ").append(getUnitOwner(i))
+					.append(" on ").append(getUnitTile(i)).append(" ").append(getUnitAttack(i))
+					.append("/").append(getUnitHealth(i));
+		}
+		return text.toString();
+	}
+}
@@ -3,10 +3,10 @@ package structures;
 import commands.BasicCommands;
 import structures.basic.*;
 import akka.actor.ActorRef;
+import structures.units.Avatar;
 import structures.units.PurebladeEnforcer;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -26,20 +26,66 @@ public class GameState {
 	private Player playerTwo;
 	private int unitIdCounter = 0;
 	private int clickedHandPosition; // indicate clicked card position (-1 = no card is clicked)
+	private AIPlayer playerTwoAI = new GreedyAI(); // plays player two's turns
 
 	public boolean gameInitalised = false;
 	public boolean clickable = false;
 	public boolean gameOver = false;
 
 	public GameState() {
+		this(1, 2);
+	}
+
+	/**
+	 * Creates a game where the players use the given deck types, e.g. to let the decks swap seats in a tournament.
+	 * @param playerOneDeckType deck type for player one, see Deck.
+	 * @param playerTwoDeckType deck type for player two.
+	 */
+	public GameState(int playerOneDeckType, int playerTwoDeckType) {
 		turn = 0;
 		board = new Board();
-		playerOneDeck = new Deck(1);
-		playerTwoDeck = new Deck(2);
+		playerOneDeck = new Deck(playerOneDeckType);
+		playerTwoDeck = new Deck(playerTwoDeckType);
 		playerOne = new Player(20, 0, playerOneDeck, 1);
 		playerTwo = new Player(20, 0, playerTwoDeck, 2);
 	}
 
+	// Used by copy()
+	private GameState(GameState other) {
+		turn = other.turn;
+		board = other.board.copy();
+		playerOne = other.playerOne.copy();
+		playerTwo = other.playerTwo.copy();
+		playerOneDeck = playerOne.getDeck();
+		playerTwoDeck = playerTwo.getDeck();
+		// avatars keep the player's health in sync, so they have to point at the copied players
+		for(int playerNumber = 1; playerNumber <= 2; playerNumber++) {
+			for(Unit unit : board.getPlayerUnits(playerNumber)) {
+				if(unit instanceof Avatar && ((Avatar) unit).getPlayer() != null) {
+					Avatar avatar = (Avatar) unit;
+					avatar.setPlayer(avatar.getPlayer().getPlayerNumber() == 1 ? playerOne : playerTwo);
+				}
+			}
+		}
+		unitIdCounter = other.unitIdCounter;
+		clickedHandPosition = other.clickedHandPosition;
+		playerTwoAI = other.playerTwoAI;
+		gameInitalised = other.gameInitalised;
+		clickable = other.clickable;
+		gameOver = other.gameOver;
+	}
+
+	/**
+	 * Copies the game so the AI can try out moves without touching the real game.
+	 * The board, units, players, hands and decks are copied, the cards themselves are shared.
+	 * Nothing is loaded from disk. Commands issued while playing on the copy should go to a null
+	 * ActorRef, e.g. from a thread that has BasicCommands.setEventSink() set.
+	 * @return an independent game in the same state.
+	 */
+	public GameState copy() {
+		return new GameState(this);
+	}
+
 	public Board getBoard() {
 		return board;
 	}
@@ -52,6 +98,10 @@ public class GameState {
 		return playerTwo;
 	}
 
+	public int getTurn() {
+		return turn;
+	}
+
 	/**
 	 * Method should be called before the next turn.
 	 */
@@ -66,23 +116,13 @@ public class GameState {
 	 * Afterwards, it can be used anytime the grid needs to be reset to regular color.
 	 * For example, if tiles are highlighted to show movement, once movement is complete,
 	 * this method can be called to return the grid colours to regular size.
+	 * Only the tiles that are not already shown in the default mode are sent.
 	 *
 	 * @param out - Game Actor reference.
+	 * @see Board#drawDefaultTiles(ActorRef)
 	 */
 	public void drawDefaultTilesGrid(ActorRef out) {
-		int X = getBoard().getX();
-		int Y = getBoard().getY();
-		for(int x = 0; x < X; x++){
-			for(int y = 0; y < Y; y++){
-				try {
-					Thread.sleep(10);
-				} catch (Exception e) {}
-
-				BasicCommands.drawTile(out,
-						getBoard().getTile(x, y),
-						0);
-			}
-		}
+		getBoard().drawDefaultTiles(out);
 	}
 
 	/**
@@ -107,20 +147,33 @@ public class GameState {
 	 * @param out actor reference.
 	 */
 	public void displayCurrentHandCards(ActorRef out, Player player) {
-		LinkedList<Card> hand = player.getHand();
-		IntStream.range(0, hand.size())
-				.forEach(index ->{
-					BasicCommands.drawCard(out, hand.get(index),index+1, 0);
-				});
+		player.displayHand(out);
 	}
 
 	// Clear all cards in the hand at frontend
 	public void clearCurrentHandCards(ActorRef out, Player player){
-		LinkedList<Card> hand = player.getHand();
+		List<Card> hand = player.getHand();
+		BasicCommands.beginBatch(out);
 		IntStream.range(0, hand.size())
 				.forEach(index ->{
 					BasicCommands.deleteCard(out, index+1);
 				});
+		BasicCommands.endBatch(out);
+	}
+
+	/**
+	 * @return the last unit ID handed out, kept by GameSnapshot and UndoLog.
+	 */
+	public int getUnitIdCounter() {
+		return unitIdCounter;
+	}
+
+	public void setUnitIdCounter(int unitIdCounter) {
+		this.unitIdCounter = unitIdCounter;
+	}
+
+	void setTurn(int turn) {
+		this.turn = turn;
 	}
 
 	// Generate next unit ID
@@ -143,11 +196,34 @@ public class GameState {
 
 	// Reset highlighting of cards in hand
 	public void resetHighlight(ActorRef out) {
+	BasicCommands.beginBatch(out);
 	for(int i = 0; i < getPlayerOne().getHand().size(); i++) {
 		Card cardOnScreen = getPlayerOne().getHand().get(i);
 		BasicCommands.drawCard(out, cardOnScreen, i + 1, 0);
-		try {Thread.sleep(10);} catch (InterruptedException e) {e.printStackTrace();}
 		}
+	BasicCommands.endBatch(out);
+	}
+
+	/**
+	 * The Zobrist key of the position as far as the rules are concerned: the units on the board and
+	 * whether each has moved or attacked (Board.getKey()), both players' mana, hand and deck, the
+	 * turn number and whose turn it is. The same position reached by different move orders gets the same key.
+	 * The board and player keys are kept up to date as the game changes, so this is a few XORs.
+	 * @return the key, see Zobrist.
+	 */
+	public long getPositionKey() {
+		return board.getKey() ^ playerOne.getKey() ^ playerTwo.getKey() ^ Zobrist.side(clickable ? 1 : 2) ^ Zobrist.turn(turn);
+	}
+
+	/**
+	 * @return the AI that plays player two's turns.
+	 */
+	public AIPlayer getPlayerTwoAI() {
+		return playerTwoAI;
+	}
+
+	public void setPlayerTwoAI(AIPlayer playerTwoAI) {
+		this.playerTwoAI = playerTwoAI;
 	}
 
 	public int getClickedHandPosition() {
@@ -0,0 +1,31 @@
+package structures;
+
+import akka.actor.ActorRef;
+import metrics.AIStepEvent;
+import metrics.GameMetrics;
+import structures.basic.Player;
+
+/**
+ * The fast AI: every unit takes the best scoring move or attack on its own (AI.makeMove),
+ * then the best affordable combination of cards is played (AI.executeCard).
+ *
+ * @author the team
+ */
+public class GreedyAI implements AIPlayer {
+
+    @Override
+    public void playTurn(ActorRef out, GameState gameState, Player player) {
+        AIStepEvent move = new AIStepEvent("makeMove", player.getPlayerNumber());
+        move.begin();
+        long start = System.nanoTime();
+        AI.makeMove(out, gameState, player);
+        long moved = System.nanoTime();
+        move.record();
+        AIStepEvent cards = new AIStepEvent("executeCard", player.getPlayerNumber());
+        cards.begin();
+        AI.executeCard(out, gameState, player);
+        cards.record();
+        GameMetrics.aiStep("makeMove", moved - start);
+        GameMetrics.aiStep("executeCard", System.nanoTime() - moved);
+    }
+}
@@ -0,0 +1,404 @@
+package structures;
+
+import akka.actor.ActorRef;
+import commands.BasicCommands;
+import commands.GameEventSink;
+import structures.basic.Player;
+import structures.basic.Unit;
+import structures.basic.Zobrist;
+import structures.units.Avatar;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * An AI that plans the whole turn with Monte Carlo Tree Search.
+ *
+ * Each node of the tree is a point in the turn, each edge one action: play a card on a tile,
+ * move or attack with a unit, or end the turn. Every iteration restores a scratch copy of the game
+ * to the start of the turn (GameSnapshot), walks down the tree choosing actions by UCT, adds one untried action, then finishes the turn
+ * with the greedy AI, lets the opponent reply greedily and scores the result. Nothing is sent to
+ * the front-end while searching, the copies are played with a null ActorRef and an ignoring sink.
+ *
+ * The search stops after the iteration budget or the time budget, whichever comes first. The most
+ * visited line of actions is then played on the real game, and if it stops before the end of the
+ * turn the greedy AI plays the rest, as it did in the rollouts.
+ *
+ * Several trees can be searched in parallel on a dedicated ForkJoinPool, see
+ * MctsAI(int, long, int, ForkJoinPool). The calling thread waits for them until the budget runs out.
+ *
+ * Results are kept in a TranspositionTable keyed by position (GameState.getPositionKey()). The game
+ * has no chance in it, so a rollout from a position always scores the same and a position met again,
+ * through another order of the same actions or in another tree, reuses the score instead of playing
+ * the rollout. The chosen line is stored move by move as well, and a turn that starts from a position
+ * searched before (every game starts the same way, and the AI is shared by all sessions) is played
+ * from the table without searching.
+ *
+ * It is written for player two, whose turn is played inside EndTurnClicked.
+ *
+ * @author the team
+ */
+public class MctsAI implements AIPlayer {
+
+    public static final int DEFAULT_ITERATIONS = 500;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+    public static final int DEFAULT_TABLE_SIZE = 1 << 16;
+
+    private static final double EXPLORATION = Math.sqrt(2);
+    // Difference in strength (see strength()) that counts as a clearly winning position
+    private static final double EVALUATION_SCALE = 20.0;
+    // Fixed so that a search bounded by iterations always picks the same turn
+    private static final long SEED = 2022;
+    // Mixed into a position's key for the score after the turn was ended there, and for its best move
+    private static final long TURN_ENDED = Zobrist.side(0);
+    private static final long BEST_MOVE = ~Zobrist.side(0);
+
+    private final GreedyAI greedy = new GreedyAI();
+    private final int iterations;
+    private final long timeBudgetMillis;
+    private final int trees;
+    private final ForkJoinPool pool; // runs the trees when there are several, never the actor's dispatcher
+    private final TranspositionTable table; // shared by the trees, null for none
+
+    public MctsAI() {
+        this(DEFAULT_ITERATIONS, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * A single search tree, searched on the calling thread.
+     * @param iterations - maximum number of iterations per turn, 0 for no limit
+     * @param timeBudgetMillis - maximum search time per turn in milliseconds, 0 for no limit
+     */
+    public MctsAI(int iterations, long timeBudgetMillis) {
+        this(iterations, timeBudgetMillis, 1, null);
+    }
+
+    /**
+     * Root parallel search: the given number of independent trees are searched at the same time on
+     * the pool, each with its own random seed and its own copies of the game. When the budget runs
+     * out the visit counts of the trees are added up action by action to choose the turn.
+     * @param iterations - maximum number of iterations per turn, shared between the trees, 0 for no limit
+     * @param timeBudgetMillis - maximum search time per turn in milliseconds, 0 for no limit
+     * @param trees - number of search trees
+     * @param pool - the pool searching the trees, may only be null for a single tree
+     */
+    public MctsAI(int iterations, long timeBudgetMillis, int trees, ForkJoinPool pool) {
+        this(iterations, timeBudgetMillis, trees, pool, new TranspositionTable(DEFAULT_TABLE_SIZE));
+    }
+
+    /**
+     * @param iterations - maximum number of iterations per turn, shared between the trees, 0 for no limit
+     * @param timeBudgetMillis - maximum search time per turn in milliseconds, 0 for no limit
+     * @param trees - number of search trees
+     * @param pool - the pool searching the trees, may only be null for a single tree
+     * @param table - the table caching scores and best moves, null to search without one
+     */
+    public MctsAI(int iterations, long timeBudgetMillis, int trees, ForkJoinPool pool, TranspositionTable table) {
+        if (iterations <= 0 && timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("MCTS needs an iteration or a time budget");
+        }
+        if (trees > 1 && pool == null) {
+            throw new IllegalArgumentException("Searching " + trees + " trees needs a pool");
+        }
+        this.iterations = iterations;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.trees = Math.max(trees, 1);
+        this.pool = pool;
+        this.table = table;
+    }
+
+    /**
+     * @return the table caching scores and best moves, with its hit counters, or null.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Creates the pool the search trees run on. Its threads are named ai-search-N.
+     * @param parallelism - number of threads, 0 for one per core
+     * @return a new pool
+     */
+    public static ForkJoinPool newSearchPool(int parallelism) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("ai-search-" + thread.getPoolIndex());
+            return thread;
+        };
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads, factory, null, false);
+    }
+
+    private static class Node {
+        final Node parent;
+        final int action; // the Move that leads here from the parent
+        final List<Node> children = new ArrayList<>();
+        int[] untried; // actions not yet added as children, null until the node is first expanded
+        int untriedCount; // the untried actions are untried[0 .. untriedCount - 1]
+        int visits;
+        double value; // sum of the rollout results
+
+        Node(Node parent, int action) {
+            this.parent = parent; this.action = action;
+        }
+
+        boolean endsTurn() {
+            return parent != null && Move.kind(action) == Move.END_TURN;
+        }
+
+        Node select() {
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(visits);
+            for (Node child : children) {
+                double score = child.value / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (score > bestScore) {
+                    best = child; bestScore = score;
+                }
+            }
+            return best;
+        }
+    }
+
+    @Override
+    public void playTurn(ActorRef out, GameState gameState, Player player) {
+        int[] plan = search(gameState, player);
+        for (int action : plan) {
+            if (gameState.gameOver || Move.kind(action) == Move.END_TURN) return;
+            Move.apply(out, gameState, player, action);
+        }
+        if (!gameState.gameOver) greedy.playTurn(out, gameState, player);
+    }
+
+    /**
+     * Searches the player's turn on copies of the game, the game itself is left untouched.
+     * The game must not change until the search returns, the trees copy it concurrently.
+     *
+     * @param gameState - current state of the game
+     * @param player - the player whose turn it is
+     * @return the most visited line of actions, possibly ending before the end of the turn
+     */
+    int[] search(GameState gameState, Player player) {
+        if (table != null) {
+            int[] remembered = rememberedPlan(gameState, player);
+            if (remembered.length > 0) return remembered;
+        }
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        int playerNumber = player.getPlayerNumber();
+        List<Node> roots = new ArrayList<>(trees);
+        if (trees == 1) {
+            roots.add(searchTree(gameState, playerNumber, SEED, iterations, deadline));
+        } else {
+            int treeIterations = iterations <= 0 ? 0 : (iterations + trees - 1) / trees;
+            List<ForkJoinTask<Node>> tasks = new ArrayList<>(trees);
+            for (int t = 0; t < trees; t++) {
+                long seed = SEED + t;
+                tasks.add(pool.submit(() -> searchTree(gameState, playerNumber, seed, treeIterations, deadline)));
+            }
+            for (ForkJoinTask<Node> task : tasks) roots.add(task.join());
+        }
+        List<Double> values = new ArrayList<>();
+        int[] plan = mergedPlan(roots, values);
+        if (table != null) remember(gameState, player, plan, values);
+        return plan;
+    }
+
+    // Stores the best move of every position along the plan, played out on a copy of the game
+    private void remember(GameState gameState, Player player, int[] plan, List<Double> values) {
+        GameEventSink previousSink = BasicCommands.getEventSink();
+        BasicCommands.setEventSink(GameEventSink.IGNORE);
+        try {
+            GameState copy = gameState.copy();
+            Player me = player(copy, player.getPlayerNumber());
+            for (int i = 0; i < plan.length && !copy.gameOver; i++) {
+                table.store(copy.getPositionKey() ^ BEST_MOVE, values.get(i), plan[i]);
+                if (Move.kind(plan[i]) == Move.END_TURN) break;
+                Move.apply(null, copy, me, plan[i]);
+            }
+        } finally {
+            BasicCommands.setEventSink(previousSink);
+        }
+    }
+
+    // The line stored for this position by an earlier search, followed until the table runs out of it.
+    // The table is shared between sessions and keyed by a hash only, so an entry may come from another
+    // position: the line stops at the first move that is not legal here.
+    private int[] rememberedPlan(GameState gameState, Player player) {
+        if (table.probe(gameState.getPositionKey() ^ BEST_MOVE) == TranspositionTable.MISS) return new int[0];
+        List<Integer> plan = new ArrayList<>();
+        GameEventSink previousSink = BasicCommands.getEventSink();
+        BasicCommands.setEventSink(GameEventSink.IGNORE);
+        try {
+            GameState copy = gameState.copy();
+            Player me = player(copy, player.getPlayerNumber());
+            MoveGenerator generator = new MoveGenerator();
+            while (!copy.gameOver) {
+                long entry = table.probe(copy.getPositionKey() ^ BEST_MOVE);
+                if (entry == TranspositionTable.MISS) break;
+                int move = TranspositionTable.move(entry);
+                generator.generate(copy, me);
+                if (!generator.contains(move)) break;
+                plan.add(move);
+                if (Move.kind(move) == Move.END_TURN) break;
+                Move.apply(null, copy, me, move);
+            }
+        } finally {
+            BasicCommands.setEventSink(previousSink);
+        }
+        return plan.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Searches one tree on the current thread until its share of the budget is used up
+    private Node searchTree(GameState gameState, int playerNumber, long seed, int iterations, long deadline) {
+        Random random = new Random(seed);
+        Node root = new Node(null, 0);
+        GameEventSink previousSink = BasicCommands.getEventSink();
+        BasicCommands.setEventSink(GameEventSink.IGNORE);
+        try {
+            // one scratch copy per tree, put back to the start of the turn before every iteration
+            GameState scratch = gameState.copy();
+            GameSnapshot start = GameSnapshot.of(scratch);
+            MoveGenerator generator = new MoveGenerator();
+            for (int i = 0; (iterations <= 0 || i < iterations) && System.nanoTime() < deadline; i++) {
+                start.restore(scratch);
+                iterate(root, scratch, playerNumber, random, generator);
+            }
+        } finally {
+            BasicCommands.setEventSink(previousSink);
+        }
+        return root;
+    }
+
+    /**
+     * Follows the most visited action from the roots down, adding up the visits of every tree that
+     * tried the same action at the same point of the turn. With one tree this is its most visited line.
+     * The mean score of each chosen action is added to values.
+     */
+    private static int[] mergedPlan(List<Node> roots, List<Double> values) {
+        List<Integer> plan = new ArrayList<>();
+        List<Node> nodes = roots;
+        while (true) {
+            Map<Integer, Integer> visits = new LinkedHashMap<>(); // keeps the first tree's order for ties
+            for (Node node : nodes) {
+                for (Node child : node.children) visits.merge(child.action, child.visits, Integer::sum);
+            }
+            if (visits.isEmpty()) break;
+            int best = 0;
+            int bestVisits = -1;
+            for (Map.Entry<Integer, Integer> entry : visits.entrySet()) {
+                if (entry.getValue() > bestVisits) {
+                    best = entry.getKey(); bestVisits = entry.getValue();
+                }
+            }
+            plan.add(best);
+            List<Node> next = new ArrayList<>();
+            double value = 0;
+            for (Node node : nodes) {
+                for (Node child : node.children) {
+                    if (child.action == best) {
+                        next.add(child);
+                        value += child.value;
+                    }
+                }
+            }
+            values.add(value / bestVisits);
+            nodes = next;
+        }
+        return plan.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // One selection, expansion, rollout and backpropagation, playing on the scratch game
+    private void iterate(Node root, GameState state, int playerNumber, Random random, MoveGenerator generator) {
+        Player me = player(state, playerNumber);
+        Node node = root;
+        while (node.untried != null && node.untriedCount == 0 && !node.children.isEmpty() && !state.gameOver) {
+            node = node.select();
+            Move.apply(null, state, me, node.action);
+        }
+        if (!node.endsTurn() && !state.gameOver) {
+            if (node.untried == null) {
+                generator.generate(state, me);
+                node.untried = generator.toArray();
+                node.untriedCount = node.untried.length;
+            }
+            if (node.untriedCount > 0) {
+                // take a random untried action, the last one fills its place
+                int i = random.nextInt(node.untriedCount);
+                int action = node.untried[i];
+                node.untried[i] = node.untried[--node.untriedCount];
+                Move.apply(null, state, me, action);
+                Node child = new Node(node, action);
+                node.children.add(child);
+                node = child;
+            }
+        }
+        double value = rollout(state, playerNumber, node.endsTurn());
+        for (; node != null; node = node.parent) {
+            node.visits++;
+            node.value += value;
+        }
+    }
+
+    // Scores the position by playOut(), or from the table when it was played out before
+    private double rollout(GameState state, int playerNumber, boolean turnEnded) {
+        if (table == null) return playOut(state, playerNumber, turnEnded);
+        long key = state.getPositionKey() ^ (turnEnded ? TURN_ENDED : 0);
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) return TranspositionTable.value(entry);
+        double value = playOut(state, playerNumber, turnEnded);
+        table.store(key, value, TranspositionTable.NO_MOVE);
+        return value;
+    }
+
+    /**
+     * Finishes the turn with the greedy AI unless it has already ended, does the end of turn
+     * bookkeeping of EndTurnClicked, lets the opponent play a greedy turn and scores the result.
+     */
+    private double playOut(GameState state, int playerNumber, boolean turnEnded) {
+        Player me = player(state, playerNumber);
+        Player opponent = player(state, playerNumber == 1 ? 2 : 1);
+        if (!turnEnded && !state.gameOver) greedy.playTurn(null, state, me);
+        if (!state.gameOver) {
+            state.getPlayerOne().draw(null);
+            state.getPlayerTwo().draw(null);
+            state.incrementTurn();
+            state.incrementPlayerMana(state.getPlayerOne());
+            state.incrementPlayerMana(state.getPlayerTwo());
+            for (Unit unit : state.getBoard().getPlayerUnits(opponent.getPlayerNumber())) {
+                unit.resetMovement();
+                unit.resetAttack();
+            }
+            // cards are played for player one while the game is clickable
+            state.clickable = opponent.getPlayerNumber() == 1;
+            greedy.playTurn(null, state, opponent);
+        }
+        return evaluate(state, playerNumber);
+    }
+
+    /**
+     * @return 1 for a win, 0 for a loss, otherwise between 0 and 1 depending on the strength difference
+     */
+    private static double evaluate(GameState state, int playerNumber) {
+        Player me = player(state, playerNumber);
+        Player opponent = player(state, playerNumber == 1 ? 2 : 1);
+        if (opponent.getHealth() < 1) return 1;
+        if (me.getHealth() < 1) return 0;
+        double balance = strength(state, me) - strength(state, opponent);
+        return 0.5 + 0.5 * Math.tanh(balance / EVALUATION_SCALE);
+    }
+
+    // Avatar health counts double, then the attack and health of every other unit on the board
+    private static double strength(GameState state, Player player) {
+        double strength = 2 * player.getHealth();
+        for (Unit unit : state.getBoard().getPlayerUnits(player.getPlayerNumber())) {
+            if (!(unit instanceof Avatar)) strength += unit.getAttack() + unit.getHealth();
+        }
+        return strength;
+    }
+
+    private static Player player(GameState state, int playerNumber) {
+        return playerNumber == 1 ? state.getPlayerOne() : state.getPlayerTwo();
+    }
+}
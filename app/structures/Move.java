@@ -0,0 +1,116 @@
+package structures;
+
+import akka.actor.ActorRef;
+import commands.BasicCommands;
+import structures.basic.Board;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+
+/**
+ * A move of the AI, packed into an int so search code can store moves without allocating:
+ * kind << 24 | subject << 8 | tile index.
+ *
+ * A UNIT move moves the unit with the subject ID to the tile or attacks the unit on it, a CARD
+ * move plays the card at the subject position of the hand on the tile, END_TURN ends the turn.
+ * Moves are carried out by the same unit and card methods the greedy AI uses (see apply()).
+ *
+ * @author the team
+ */
+public final class Move {
+
+    public static final int END_TURN = 0;
+    public static final int UNIT = 1;
+    public static final int CARD = 2;
+
+    private Move() {}
+
+    public static int endTurn() {
+        return encode(END_TURN, 0, 0);
+    }
+
+    /**
+     * @param unitId - ID of the unit to act with
+     * @param tileIndex - the tile to move to or attack, see Board.index()
+     */
+    public static int unit(int unitId, int tileIndex) {
+        return encode(UNIT, unitId, tileIndex);
+    }
+
+    /**
+     * @param handPosition - position of the card in the hand, from 0
+     * @param tileIndex - the tile to play it on, see Board.index()
+     */
+    public static int card(int handPosition, int tileIndex) {
+        return encode(CARD, handPosition, tileIndex);
+    }
+
+    private static int encode(int kind, int subject, int tileIndex) {
+        return kind << 24 | subject << 8 | tileIndex;
+    }
+
+    public static int kind(int move) {
+        return move >>> 24;
+    }
+
+    public static int subject(int move) {
+        return (move >>> 8) & 0xFFFF;
+    }
+
+    public static int tile(int move) {
+        return move & 0xFF;
+    }
+
+    /**
+     * Every move the player can make now: ending the turn, each tile a unit can move to or
+     * attack (as highlighted when the unit is clicked), and each valid tile for each affordable card.
+     * Nothing is drawn or highlighted. Code generating moves repeatedly should keep a MoveGenerator.
+     *
+     * @param gameState - current state of the game
+     * @param player - the player whose turn it is
+     * @return the moves, ending the turn first
+     */
+    public static int[] legalMoves(GameState gameState, Player player) {
+        MoveGenerator generator = new MoveGenerator();
+        generator.generate(gameState, player);
+        return generator.toArray();
+    }
+
+    /**
+     * Carries out a move the way the greedy AI would, without highlighting the unit's tiles on the
+     * front-end first. Ending the turn does nothing here, it is left to the caller.
+     *
+     * @param out - game actor reference, null while searching
+     * @param gameState - current state of the game
+     * @param player - the player making the move
+     * @param move - the move
+     */
+    public static void apply(ActorRef out, GameState gameState, Player player, int move) {
+        Board board = gameState.getBoard();
+        Tile tile = board.getTile(tile(move));
+        if (kind(move) == UNIT) {
+            Unit unit = board.getUnit(subject(move));
+            if (unit == null) return;
+            // the unit's methods check the target against the highlighted tiles and the last clicked tile
+            Tile unitTile = board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+            board.clearHighlightedTiles();
+            board.addHighlightedTiles(MoveGenerator.unitTiles(board, unit));
+            board.setLastTile(unitTile);
+            AI.performUnitAction(out, unit, unitTile, tile, gameState, player);
+            board.clearHighlightedTiles();
+            BasicCommands.pause(out, 200);
+            gameState.drawDefaultTilesGrid(out);
+        } else if (kind(move) == CARD) {
+            AI.playCard(out, gameState, player, player.getHand().get(subject(move)), tile);
+        }
+    }
+
+    /**
+     * @return e.g. "unit 3 to 22", "card 1 on 14" or "end turn"
+     */
+    public static String toString(int move) {
+        if (kind(move) == UNIT) return "unit " + subject(move) + " to " + tile(move);
+        if (kind(move) == CARD) return "card " + subject(move) + " on " + tile(move);
+        return "end turn";
+    }
+}
@@ -0,0 +1,168 @@
+package structures;
+
+import structures.basic.Board;
+import structures.basic.Card;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Works out the legal moves of a player or unit (see Move) without touching the front-end or the
+ * board's highlights. It asks the units and cards for the same tile masks their display methods
+ * highlight (Unit.movementMask(), borderAttackMask(), attackMask(), provokeMask() and Card.validTiles()),
+ * so provoke, flying, ranged attacks and airdrops follow the same rules as a click in the game.
+ * Moves come out in the same order as the tiles are highlighted.
+ *
+ * Moves are written into an int buffer owned by the generator. It grows to the largest number of
+ * moves seen and is then reused, so a search can keep one generator per thread and generate moves
+ * at every node without allocating. The buffer is overwritten by the next generate(), and a
+ * generator is not thread safe.
+ *
+ * @author the team
+ */
+public final class MoveGenerator {
+
+    private int[] moves = new int[64];
+    private int size;
+    private long written; // tiles already written for the current unit or card
+
+    /**
+     * Fills the buffer with every move the player can make now, in the order of Move.legalMoves():
+     * ending the turn, then each unit's moves and attacks, then each affordable card on each valid tile.
+     *
+     * @param gameState - current state of the game
+     * @param player - the player whose turn it is
+     * @return the number of moves, see get()
+     */
+    public int generate(GameState gameState, Player player) {
+        clear();
+        add(Move.endTurn());
+        Board board = gameState.getBoard();
+        for (Unit unit : board.getPlayerUnits(player.getPlayerNumber())) addUnitMoves(board, unit);
+        addCardMoves(board, player);
+        return size;
+    }
+
+    /**
+     * Adds the tiles the unit can move to or attack, as AI.highlightUnitActions() highlights them:
+     * its movement tiles if it has not moved or attacked (and, for a ranged unit, every enemy in range),
+     * or the enemies in range if it has only moved. Next to an enemy with provoke, only that enemy.
+     *
+     * @param board - current state of the board
+     * @param unit - a unit on the board
+     * @return the number of moves in the buffer
+     */
+    public int addUnitMoves(Board board, Unit unit) {
+        if (unit.getHasAttacked()) return size;
+        Tile tile = board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+        long enemy = board.getEnemyMask(unit);
+        long allowed = ~board.getOccupiedMask() | enemy; // never onto a friendly unit
+        long provoker = unit.provokeMask(tile, board);
+        written = 0;
+
+        if (provoker != 0) {
+            addUnitTiles(unit, provoker & allowed);
+        } else if (!unit.getHasMoved()) {
+            long movement = unit.movementMask(tile, board);
+            addUnitTiles(unit, movement & allowed);
+            addUnitTiles(unit, unit.borderAttackMask(tile, board, movement) & allowed);
+            if (unit.hasRangedAttack()) addUnitTiles(unit, unit.attackMask(tile, board));
+        } else {
+            addUnitTiles(unit, unit.attackMask(tile, board));
+        }
+        return size;
+    }
+
+    /**
+     * The tiles addUnitMoves() adds for the unit, as one mask. Move.apply() highlights them on the
+     * board, without drawing, because Unit.moveUnit() and attackMoveUnit() only act on highlighted tiles.
+     *
+     * @param board - current state of the board
+     * @param unit - a unit on the board
+     * @return the tiles it can move to or attack now
+     */
+    static long unitTiles(Board board, Unit unit) {
+        if (unit.getHasAttacked()) return 0;
+        Tile tile = board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+        long allowed = ~board.getOccupiedMask() | board.getEnemyMask(unit);
+        long provoker = unit.provokeMask(tile, board);
+        if (provoker != 0) return provoker & allowed;
+        if (unit.getHasMoved()) return unit.attackMask(tile, board);
+        long movement = unit.movementMask(tile, board);
+        long tiles = (movement | unit.borderAttackMask(tile, board, movement)) & allowed;
+        return unit.hasRangedAttack() ? tiles | unit.attackMask(tile, board) : tiles;
+    }
+
+    /**
+     * Adds each card in the hand the player can pay for, on each tile it can be played on.
+     *
+     * @param board - current state of the board
+     * @param player - the player holding the cards
+     * @return the number of moves in the buffer
+     */
+    public int addCardMoves(Board board, Player player) {
+        List<Card> hand = player.getHand();
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            if (card.getManacost() > player.getMana()) continue;
+            for (long m = card.validTiles(board, player.getPlayerNumber()); m != 0; m &= m - 1) {
+                add(Move.card(i, Long.numberOfTrailingZeros(m)));
+            }
+        }
+        return size;
+    }
+
+    // adds the tiles not yet written for this unit, in index order
+    private void addUnitTiles(Unit unit, long tiles) {
+        for (long m = tiles & ~written; m != 0; m &= m - 1) {
+            add(Move.unit(unit.getId(), Long.numberOfTrailingZeros(m)));
+        }
+        written |= tiles;
+    }
+
+    private void add(int move) {
+        if (size == moves.length) moves = Arrays.copyOf(moves, size * 2);
+        moves[size++] = move;
+    }
+
+    /**
+     * Empties the buffer, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i - from 0 to size() - 1
+     * @return the move, see Move
+     */
+    public int get(int i) {
+        if (i >= size) throw new IndexOutOfBoundsException("Move " + i + " of " + size);
+        return moves[i];
+    }
+
+    /**
+     * @param move - see Move
+     * @return whether the move is in the buffer.
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return a copy of the moves in the buffer.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+}
@@ -0,0 +1,139 @@
+package structures;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size cache of search results keyed by position (see GameState.getPositionKey()). Each
+ * entry holds an evaluation between 0 and 1 and optionally the best move found there.
+ *
+ * The table is an array of slots, two longs each, and a key always goes to the same slot, so it
+ * never grows and a newer entry simply replaces an older one. It can be shared by threads without
+ * locking: a slot holds the entry and the entry XOR the key, and probe() only accepts the entry when
+ * the two give back the key it asked for. A slot half written by another thread, or holding a
+ * different position, therefore reads as a miss rather than as a wrong result.
+ *
+ * Probes, hits, stores and overwrites are counted so the hit rate can be reported.
+ *
+ * @author the team
+ */
+public final class TranspositionTable {
+
+	/** Returned by probe() when the position is not in the table. */
+	public static final long MISS = 0;
+	/** Stored as the move of an entry that only holds an evaluation. */
+	public static final int NO_MOVE = -1;
+
+	private static final long OCCUPIED = Long.MIN_VALUE; // set in every entry, so no entry equals MISS
+
+	private final AtomicLongArray slots; // check (key ^ entry), then entry, per slot
+	private final int mask;
+	private final LongAdder probes = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+	private final LongAdder overwrites = new LongAdder();
+
+	/**
+	 * @param entries - number of positions the table can hold, rounded up to a power of two
+	 */
+	public TranspositionTable(int entries) {
+		if (entries <= 0 || entries > 1 << 29) throw new IllegalArgumentException("Bad table size " + entries);
+		int size = Integer.highestOneBit(entries);
+		if (size < entries) size <<= 1;
+		slots = new AtomicLongArray(size * 2);
+		mask = size - 1;
+	}
+
+	/**
+	 * @param key - the position's key
+	 * @return the entry stored for the position, or MISS. See value() and move().
+	 */
+	public long probe(long key) {
+		probes.increment();
+		int slot = slot(key);
+		long entry = slots.get(slot + 1);
+		long check = slots.get(slot);
+		if (entry == MISS || (check ^ entry) != key) return MISS;
+		hits.increment();
+		return entry;
+	}
+
+	/**
+	 * Stores the result for the position, replacing whatever was in its slot.
+	 * @param key - the position's key
+	 * @param value - the position's evaluation
+	 * @param move - the best move found in the position, NO_MOVE if there is none
+	 */
+	public void store(long key, double value, int move) {
+		stores.increment();
+		int slot = slot(key);
+		long old = slots.get(slot + 1);
+		if (old != MISS && (slots.get(slot) ^ old) != key) overwrites.increment();
+		long entry = OCCUPIED | (long) (move + 1) << 32 | (Float.floatToIntBits((float) value) & 0xFFFFFFFFL);
+		slots.set(slot + 1, entry);
+		slots.set(slot, key ^ entry);
+	}
+
+	public static double value(long entry) {
+		return Float.intBitsToFloat((int) entry);
+	}
+
+	public static int move(long entry) {
+		return (int) ((entry >>> 32) & 0x7FFFFFFF) - 1;
+	}
+
+	private int slot(long key) {
+		return (int) (key & mask) * 2;
+	}
+
+	/**
+	 * @return number of positions the table can hold.
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	public long getProbes() {
+		return probes.sum();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getStores() {
+		return stores.sum();
+	}
+
+	/**
+	 * @return number of stores that replaced a different position.
+	 */
+	public long getOverwrites() {
+		return overwrites.sum();
+	}
+
+	/**
+	 * @return hits per probe, 0 before the first probe.
+	 */
+	public double getHitRate() {
+		long probed = probes.sum();
+		return probed == 0 ? 0 : (double) hits.sum() / probed;
+	}
+
+	/**
+	 * Empties the table and resets the counters.
+	 */
+	public void clear() {
+		for (int i = 0; i < slots.length(); i++) slots.set(i, 0);
+		probes.reset();
+		hits.reset();
+		stores.reset();
+		overwrites.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d probes, %d hits (%.1f%%), %d stores, %d overwrites",
+				getProbes(), getHits(), 100 * getHitRate(), getStores(), getOverwrites());
+	}
+}
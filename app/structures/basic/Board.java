@@ -2,8 +2,13 @@ package structures.basic;
 
 import commands.BasicCommands;
 import utils.BasicObjectBuilders;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import akka.actor.ActorRef;
 
 /**
@@ -11,6 +16,16 @@ import akka.actor.ActorRef;
  * It is composed of Tile objects which represent each tile on the grid.
  * Then, stores the information about player1 and player2 units on the board.
  *
+ * Alongside the tiles the board keeps a bitboard view of itself: every tile has an index
+ * (x * Y_AXIS + y), which is its bit in a long. There is an occupancy mask per player and a mask of
+ * the highlighted tiles, and the masks of the tiles around each tile are computed once from the grid
+ * size (BoardGeometry). Ownership, highlight, range and reach checks are then single bit operations
+ * instead of list scans.
+ * Units must be placed, moved and removed through the board so the masks stay in step with the tiles.
+ *
+ * Each unit on the board knows its owner (Unit.getOwner()) and the board keeps an index of its units by
+ * ID, so ownership checks and lookups do not scan the player unit lists.
+ *
  * @author The team!
  */
 public class Board {
@@ -18,20 +33,83 @@ public class Board {
     private static final int X_AXIS = 9;
     private static final int Y_AXIS = 5;
 
+    // neighbour, range and reach masks of every tile, see BoardGeometry
+    private static final BoardGeometry GEOMETRY = new BoardGeometry(X_AXIS, Y_AXIS);
+
     private Tile[][] tiles;
     private List<Unit> player1Units;
     private List<Unit> player2Units;
+    private List<Unit> player1UnitsView; // read only views handed out by the getters
+    private List<Unit> player2UnitsView;
+    private Map<Integer, Unit> unitsById;
     private List<Tile> highlightedTiles;
+    private int[][] tileModes; // last drawTile mode sent to the front-end for each tile, -1 if never drawn
+    private long player1Mask; // tiles holding a player1 unit
+    private long player2Mask; // tiles holding a player2 unit
+    private long highlightMask; // tiles in highlightedTiles
+    private long key; // Zobrist key of the units on the board: tile, health, attack and flags of each
 
      // Tile to store the last tile that was clicked
      private Tile lastTile;
 
+    UndoLog undoLog; // records the changes to the units while it is attached, see UndoLog; not copied
+
     //Constructor
     public Board() {
         tiles = constructTiles();
-        player1Units = new LinkedList<>();
-        player2Units = new LinkedList<>();
-        highlightedTiles = new LinkedList<>();
+        player1Units = new ArrayList<>();
+        player2Units = new ArrayList<>();
+        player1UnitsView = Collections.unmodifiableList(player1Units);
+        player2UnitsView = Collections.unmodifiableList(player2Units);
+        unitsById = new HashMap<>();
+        highlightedTiles = new ArrayList<>();
+        tileModes = new int[X_AXIS][Y_AXIS];
+        for(int[] column : tileModes) Arrays.fill(column, -1);
+    }
+
+    /**
+     * Copies a board for a simulated game, see copy().
+     * @param other the board to copy.
+     */
+    private Board(Board other) {
+        tiles = new Tile[X_AXIS][Y_AXIS];
+        Map<Unit, Unit> copies = new IdentityHashMap<>();
+        for(int x = 0; x < X_AXIS; x++){
+            for(int y = 0; y < Y_AXIS; y++){
+                Tile tile = other.tiles[x][y];
+                Tile copy = new Tile(tile.getTileTextures(), tile.getXpos(), tile.getYpos(), tile.getWidth(), tile.getHeight(), x, y);
+                if(tile.getUnit() != null) copy.addUnit(copies.computeIfAbsent(tile.getUnit(), Unit::copy));
+                tiles[x][y] = copy;
+            }
+        }
+        player1Units = new ArrayList<>(other.player1Units.size());
+        player2Units = new ArrayList<>(other.player2Units.size());
+        unitsById = new HashMap<>();
+        // the copies keep their owner, so they are added to the lists directly
+        for(Unit unit : other.player1Units) player1Units.add(copies.computeIfAbsent(unit, Unit::copy));
+        for(Unit unit : other.player2Units) player2Units.add(copies.computeIfAbsent(unit, Unit::copy));
+        for(Map.Entry<Integer, Unit> entry : other.unitsById.entrySet()) unitsById.put(entry.getKey(), copies.get(entry.getValue()));
+        player1UnitsView = Collections.unmodifiableList(player1Units);
+        player2UnitsView = Collections.unmodifiableList(player2Units);
+        highlightedTiles = new ArrayList<>(other.highlightedTiles.size());
+        for(Tile tile : other.highlightedTiles) highlightedTiles.add(getTile(index(tile)));
+        tileModes = new int[X_AXIS][Y_AXIS];
+        for(int x = 0; x < X_AXIS; x++) tileModes[x] = other.tileModes[x].clone();
+        copies.forEach((unit, copy) -> copy.board = unit.board == other ? this : null);
+        key = other.key;
+        player1Mask = other.player1Mask;
+        player2Mask = other.player2Mask;
+        highlightMask = other.highlightMask;
+        if(other.lastTile != null) lastTile = getTile(index(other.lastTile));
+    }
+
+    /**
+     * Copies the board and every unit on it, e.g. for the AI to try out moves without touching the real game.
+     * Tiles share their textures with the original, units are copied with Unit.copy().
+     * @return an independent board in the same state.
+     */
+    public Board copy() {
+        return new Board(this);
     }
 
     /**
@@ -68,35 +146,115 @@ public class Board {
     }
 
     public void addUnitToPlayer1List(Unit unit){
-        player1Units.add(unit);
+        addUnitToPlayerList(unit, 1);
     }
 
     public void removeUnitFromPlayer1List(Unit unit){
-        player1Units.remove(unit);
+        if(unit.getOwner() == 1) removeUnitFromPlayerList(unit);
     }
 
     public void addUnitToPlayer2List(Unit unit){
-        player2Units.add(unit);
+        addUnitToPlayerList(unit, 2);
     }
 
     public void removeUnitFromPlayer2List(Unit unit){
-        player2Units.remove(unit);
+        if(unit.getOwner() == 2) removeUnitFromPlayerList(unit);
+    }
+
+    // records the owner and indexes the unit by ID
+    private void addUnitToPlayerList(Unit unit, int playerNumber){
+        if(unit.getOwner() == playerNumber) return;
+        if(unit.getOwner() != 0) removeUnitFromPlayerList(unit);
+        unit.setOwner(playerNumber);
+        if(playerNumber == 1) player1Units.add(unit);
+        else player2Units.add(unit);
+        unitsById.put(unit.getId(), unit);
     }
 
+    private void removeUnitFromPlayerList(Unit unit){
+        if(unit.getOwner() == 1) player1Units.remove(unit);
+        else player2Units.remove(unit);
+        unitsById.remove(unit.getId(), unit);
+        unit.setOwner(0);
+    }
+
+    /**
+     * @return read only list of player1's units on the board, in the order they were summoned.
+     */
     public List<Unit> getPlayer1Units() {
-        return player1Units;
+        return player1UnitsView;
     }
 
+    /**
+     * @return read only list of player2's units on the board, in the order they were summoned.
+     */
     public List<Unit> getPlayer2Units() {
-        return player2Units;
+        return player2UnitsView;
+    }
+
+    /**
+     * @param playerNumber 1 or 2.
+     * @return read only list of that player's units on the board.
+     */
+    public List<Unit> getPlayerUnits(int playerNumber) {
+        return playerNumber == 1 ? player1UnitsView : player2UnitsView;
     }
 
     /**
-     * Get the currently highlighted tiles.
-     * @return highlightedTiles list.
+     * @param id unit ID.
+     * @return the unit on the board with this ID, or null.
+     */
+    public Unit getUnit(int id){
+        return unitsById.get(id);
+    }
+
+    /**
+     * @param unit any unit, may be null.
+     * @param playerNumber 1 or 2.
+     * @return true if the unit is on the board and belongs to the player.
+     */
+    public boolean isOwnedBy(Unit unit, int playerNumber){
+        return unit != null && unit.getOwner() == playerNumber;
+    }
+
+    /**
+     * Get the currently highlighted tiles, in the order they were highlighted.
+     * Use addHighlightedTile() and clearHighlightedTiles() to change them.
+     * @return read only view of the highlightedTiles list.
      */
     public List<Tile> getHighlightedTiles() {
-        return highlightedTiles;
+        return Collections.unmodifiableList(highlightedTiles);
+    }
+
+    /**
+     * Adds a tile to the highlighted tiles, unless it is already highlighted.
+     * @param tile the tile to highlight.
+     */
+    public void addHighlightedTile(Tile tile){
+        long bit = bit(tile);
+        if((highlightMask & bit) == 0){
+            highlightMask |= bit;
+            highlightedTiles.add(tile);
+        }
+    }
+
+    /**
+     * Highlights every tile in the mask, in tile index order.
+     * @param mask tiles to highlight.
+     */
+    public void addHighlightedTiles(long mask){
+        for(long m = mask & ~highlightMask; m != 0; m &= m - 1){
+            highlightedTiles.add(getTile(Long.numberOfTrailingZeros(m)));
+        }
+        highlightMask |= mask;
+    }
+
+    public boolean isHighlighted(Tile tile){
+        return (highlightMask & bit(tile)) != 0;
+    }
+
+    public long getHighlightMask(){
+        return highlightMask;
     }
 
     /**
@@ -105,6 +263,211 @@ public class Board {
      */
     public void clearHighlightedTiles(){
         highlightedTiles.clear();
+        highlightMask = 0;
+    }
+
+    /**
+     * Puts a unit on a tile, adds it to the player's unit list and marks the tile as occupied by the player.
+     * @param tile the tile to place the unit on.
+     * @param unit the unit.
+     * @param playerNumber 1 or 2.
+     */
+    public void placeUnit(Tile tile, Unit unit, int playerNumber){
+        if(undoLog != null) undoLog.recordPlace(unit);
+        tile.addUnit(unit);
+        addUnitToPlayerList(unit, playerNumber);
+        unit.board = this;
+        key ^= unitKey(unit, index(tile));
+        long bit = bit(tile);
+        if(playerNumber == 1) player1Mask |= bit;
+        else player2Mask |= bit;
+    }
+
+    /**
+     * Moves the unit standing on one tile to another tile, keeping its owner.
+     * @param from the tile the unit is on.
+     * @param to an empty tile.
+     */
+    public void moveUnit(Tile from, Tile to){
+        long fromBit = bit(from);
+        long toBit = bit(to);
+        Unit unit = from.getUnit();
+        if(undoLog != null) undoLog.recordMove(unit, index(from), index(to));
+        key ^= Zobrist.unit(unit.getId(), index(from)) ^ Zobrist.unit(unit.getId(), index(to));
+        to.addUnit(unit);
+        from.removeUnit();
+        if((player1Mask & fromBit) != 0) player1Mask = (player1Mask & ~fromBit) | toBit;
+        if((player2Mask & fromBit) != 0) player2Mask = (player2Mask & ~fromBit) | toBit;
+    }
+
+    /**
+     * Takes a unit off the board: it is removed from its player's list and from the tile it stands on.
+     * @param unit the unit to remove.
+     */
+    public void removeUnit(Unit unit){
+        long bit = unitBit(unit);
+        if(undoLog != null && undoLog.isRecording()){
+            int listIndex = unit.getOwner() == 0 ? -1 : getPlayerUnits(unit.getOwner()).indexOf(unit);
+            undoLog.recordRemove(unit, bit == 0 ? -1 : Long.numberOfTrailingZeros(bit), unit.getOwner(), listIndex);
+        }
+        if(bit != 0){
+            key ^= unitKey(unit, Long.numberOfTrailingZeros(bit));
+            unit.board = null;
+            getTile(Long.numberOfTrailingZeros(bit)).removeUnit();
+            player1Mask &= ~bit;
+            player2Mask &= ~bit;
+        }
+        if(unit.getOwner() != 0) removeUnitFromPlayerList(unit);
+    }
+
+    // Puts a unit taken off by removeUnit() back on its tile and at its place in its player's list, see UndoLog
+    void putBack(Unit unit, int tileIndex, int owner, int listIndex){
+        if(owner != 0){
+            unit.setOwner(owner);
+            if(owner == 1) player1Units.add(listIndex, unit);
+            else player2Units.add(listIndex, unit);
+            unitsById.put(unit.getId(), unit);
+        }
+        if(tileIndex >= 0){
+            Tile tile = getTile(tileIndex);
+            tile.addUnit(unit);
+            unit.board = this;
+            key ^= unitKey(unit, tileIndex);
+            if(owner == 1) player1Mask |= bit(tile);
+            else if(owner == 2) player2Mask |= bit(tile);
+        }
+    }
+
+    /**
+     * The Zobrist key of the units on the board, covering the ID, tile, health, attack and move and
+     * attack flags of each. It is kept up to date as units are placed, moved, removed, damaged,
+     * healed, buffed, move or attack.
+     * @return the key, see Zobrist.
+     */
+    public long getKey(){
+        return key;
+    }
+
+    // Called by a unit on this board when its health, attack or flags change
+    void updateKey(long change){
+        key ^= change;
+    }
+
+    private static long unitKey(Unit unit, int tileIndex){
+        return Zobrist.unit(unit.getId(), tileIndex) ^ Zobrist.stats(unit.getId(), unit.getHealth(), unit.getAttack())
+                ^ Zobrist.flags(unit.getId(), unit.getHasMoved(), unit.getHasAttacked(), unit.getAttackCount());
+    }
+
+    /**
+     * @param playerNumber 1 or 2.
+     * @return mask of the tiles holding that player's units.
+     */
+    public long getPlayerMask(int playerNumber){
+        return playerNumber == 1 ? player1Mask : player2Mask;
+    }
+
+    public long getOccupiedMask(){
+        return player1Mask | player2Mask;
+    }
+
+    /**
+     * @param unit a unit on the board.
+     * @return mask of the tiles holding units of the same player, 0 if the unit is not on the board.
+     */
+    public long getFriendlyMask(Unit unit){
+        long bit = unitBit(unit);
+        if((player1Mask & bit) != 0) return player1Mask;
+        if((player2Mask & bit) != 0) return player2Mask;
+        return 0;
+    }
+
+    /**
+     * @param unit a unit on the board.
+     * @return mask of the tiles holding the other player's units, 0 if the unit is not on the board.
+     */
+    public long getEnemyMask(Unit unit){
+        long bit = unitBit(unit);
+        if((player1Mask & bit) != 0) return player2Mask;
+        if((player2Mask & bit) != 0) return player1Mask;
+        return 0;
+    }
+
+    /**
+     * @param x - height
+     * @param y - width
+     * @return the tile's index, which is also its bit position in the masks.
+     */
+    public static int index(int x, int y){
+        return GEOMETRY.index(x, y);
+    }
+
+    public static int index(Tile tile){
+        return index(tile.getTilex(), tile.getTiley());
+    }
+
+    public static long bit(Tile tile){
+        return 1L << index(tile);
+    }
+
+    public Tile getTile(int index){
+        return tiles[index / Y_AXIS][index % Y_AXIS];
+    }
+
+    /**
+     * @return mask of the 8 tiles surrounding the tile, not including the tile itself.
+     */
+    public static long adjacentMask(Tile tile){
+        return GEOMETRY.adjacentMask(index(tile));
+    }
+
+    /**
+     * @return mask of the tiles directly above, below, left and right of the tile.
+     */
+    public static long cardinalMask(Tile tile){
+        return GEOMETRY.cardinalMask(index(tile));
+    }
+
+    /**
+     * @param tile the centre tile.
+     * @param distance the number of up/down/left/right steps.
+     * @return mask of the tiles at most distance steps away, including the tile itself.
+     */
+    public static long rangeMask(Tile tile, int distance){
+        return GEOMETRY.rangeMask(index(tile), distance);
+    }
+
+    /**
+     * @param tile the starting tile.
+     * @param passable mask of the tiles a unit can pass through, e.g. empty and friendly tiles.
+     * @return mask of the tiles within two steps that can be reached, see BoardGeometry.reach().
+     */
+    public static long reachMask(Tile tile, long passable){
+        return GEOMETRY.reach(index(tile), passable);
+    }
+
+    /**
+     * @return mask with the bit of every tile on the board set.
+     */
+    public static long allTilesMask(){
+        return GEOMETRY.allTiles();
+    }
+
+    /**
+     * @param tile the centre tile.
+     * @param radius how many tiles the square reaches out in each direction, diagonals included.
+     * @return mask of the tiles in the square, including the tile itself.
+     */
+    public static long squareMask(Tile tile, int radius){
+        return GEOMETRY.squareMask(index(tile), radius);
+    }
+
+    // the bit of the tile the unit stands on, 0 if it is not on the board
+    private long unitBit(Unit unit){
+        if(unit == null || unit.getPosition() == null) return 0;
+        int x = unit.getPosition().getTilex();
+        int y = unit.getPosition().getTiley();
+        if(x < 0 || x >= X_AXIS || y < 0 || y >= Y_AXIS || tiles[x][y].getUnit() != unit) return 0;
+        return 1L << index(x, y);
     }
 
     public Tile getLastTile(){
@@ -115,29 +478,66 @@ public class Board {
         lastTile = clickedTile;
     }
 
-    //helper method to display highlighted tiles for player one only
+    /**
+     * Draws a tile in the given mode, unless the front-end already shows it in that mode.
+     * All tile drawing for the board should go through here so the recorded modes stay accurate.
+     * @param out game actor reference.
+     * @param tile the tile to draw.
+     * @param mode visualisation mode, 0 = default, 1 = highlighted, 2 = red.
+     */
+    public void drawTile(ActorRef out, Tile tile, int mode){
+        if(tileModes[tile.getTilex()][tile.getTiley()] != mode){
+            tileModes[tile.getTilex()][tile.getTiley()] = mode;
+            BasicCommands.drawTile(out, tile, mode);
+        }
+    }
+
+    /**
+     * Returns every tile to the default mode. Only tiles that are currently shown in another mode
+     * are sent, so reverting three highlighted tiles costs three commands rather than a full redraw.
+     * @param out game actor reference.
+     */
+    public void drawDefaultTiles(ActorRef out){
+        BasicCommands.beginBatch(out);
+        for(int x = 0; x < X_AXIS; x++){
+            for(int y = 0; y < Y_AXIS; y++){
+                drawTile(out, tiles[x][y], 0);
+            }
+        }
+        BasicCommands.endBatch(out);
+    }
+
+    /**
+     * @return the mode the tile was last drawn in, -1 if it has not been drawn yet.
+     */
+    public int getTileMode(Tile tile){
+        return tileModes[tile.getTilex()][tile.getTiley()];
+    }
+
+    //helper method to display highlighted tiles for player one only, sent as one batch
     public void displayHighlightedTiles(ActorRef out, int mode){
+        BasicCommands.beginBatch(out);
         for(Tile tile: highlightedTiles){
-            BasicCommands.drawTile(out, tile, mode);
-            try {Thread.sleep(20);} catch (InterruptedException e) {e.printStackTrace();}
+            drawTile(out, tile, mode);
         }
+        BasicCommands.endBatch(out);
     }
 
 	// Returns enemy units
 	public List<Unit> getEnemyUnits(Unit unit){
-		if(this.getPlayer1Units().contains(unit))
-			return player2Units;
-		else if(player2Units.contains(unit))
-			return player1Units;
+		if(isOwnedBy(unit, 1))
+			return player2UnitsView;
+		else if(isOwnedBy(unit, 2))
+			return player1UnitsView;
 			else return null; // Should not reach here as all units on the board are either part of player1's or player2's List
 	}
 
     // Returns friendly units
     public List<Unit> getFriendlyUnits(Unit unit){
-        if(player1Units.contains(unit))
-            return player1Units;
-        else if(player2Units.contains(unit))
-            return player2Units;
+        if(isOwnedBy(unit, 1))
+            return player1UnitsView;
+        else if(isOwnedBy(unit, 2))
+            return player2UnitsView;
         else return null; // Should not reach here as all units on the board are either part of player1's or player2's List
     }
 
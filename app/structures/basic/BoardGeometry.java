@@ -0,0 +1,146 @@
+package structures.basic;
+
+/**
+ * Lookup tables for a board of a given size, worked out once so that range and reach questions are
+ * answered with a table lookup and a mask instead of scanning tiles.
+ *
+ * Tiles are numbered x * height + y, which is also their bit in a long, so a board can have at most
+ * 64 tiles. For every tile there is a mask of its 8 surrounding tiles, of its 4 up/down/left/right
+ * neighbours, of the tiles within each number of steps (a diamond) and of the tiles within each
+ * square radius.
+ *
+ * Movement uses the two step rule of displayMovementTiles(): a tile within two steps can be reached
+ * when one of its up/down/left/right neighbours, also within two steps, is passable (empty or
+ * friendly). So a tile two steps straight ahead is blocked by an enemy in between, and a diagonal
+ * tile only when both tiles beside the diagonal are blocked. For each tile the table lists the tiles
+ * within two steps together with the neighbours that decide them, see reach().
+ *
+ * The tables only depend on the width and height, so a board of another size gets correct tables
+ * by creating its own BoardGeometry. Board uses one for its 9 x 5 grid.
+ *
+ * @author The team
+ */
+public final class BoardGeometry {
+
+    /** Number of steps covered by the reach tables. */
+    public static final int MOVE_STEPS = 2;
+
+    private final int width;
+    private final int height;
+    private final long allTiles;
+    private final long[] adjacent; // the 8 surrounding tiles
+    private final long[] cardinal; // up, down, left and right
+    private final long[][] range; // range[i][d]: tiles at most d steps from i, i included
+    private final long[][] square; // square[i][r]: the square of tiles r around i, i included
+    private final long[][] reachTiles; // reachTiles[i][k]: one tile within MOVE_STEPS of i
+    private final long[][] reachSupport; // reachSupport[i][k]: the neighbours of that tile that lead to it
+
+    /**
+     * @param width - number of columns (x)
+     * @param height - number of rows (y)
+     */
+    public BoardGeometry(int width, int height) {
+        if (width < 1 || height < 1 || width * height > 64) {
+            throw new IllegalArgumentException("A board of " + width + " x " + height + " does not fit the 64 bit masks");
+        }
+        this.width = width;
+        this.height = height;
+        int tiles = width * height;
+        allTiles = tiles == 64 ? -1L : (1L << tiles) - 1;
+        adjacent = new long[tiles];
+        cardinal = new long[tiles];
+        range = new long[tiles][width + height - 1];
+        square = new long[tiles][Math.max(width, height)];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int i = index(x, y);
+                for (int nx = 0; nx < width; nx++) {
+                    for (int ny = 0; ny < height; ny++) {
+                        int ax = Math.abs(nx - x);
+                        int ay = Math.abs(ny - y);
+                        long bit = 1L << index(nx, ny);
+                        if (ax <= 1 && ay <= 1 && ax + ay > 0) adjacent[i] |= bit;
+                        if (ax + ay == 1) cardinal[i] |= bit;
+                        for (int d = ax + ay; d < range[i].length; d++) range[i][d] |= bit;
+                        for (int r = Math.max(ax, ay); r < square[i].length; r++) square[i][r] |= bit;
+                    }
+                }
+            }
+        }
+        reachTiles = new long[tiles][];
+        reachSupport = new long[tiles][];
+        for (int i = 0; i < tiles; i++) {
+            long inReach = rangeMask(i, MOVE_STEPS);
+            reachTiles[i] = new long[Long.bitCount(inReach)];
+            reachSupport[i] = new long[reachTiles[i].length];
+            int k = 0;
+            for (long m = inReach; m != 0; m &= m - 1, k++) {
+                int t = Long.numberOfTrailingZeros(m);
+                reachTiles[i][k] = 1L << t;
+                reachSupport[i][k] = cardinal[t] & inReach;
+            }
+        }
+    }
+
+    /**
+     * @return the tile's index, which is also its bit position in the masks.
+     */
+    public int index(int x, int y) {
+        return x * height + y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return mask with the bit of every tile on the board set.
+     */
+    public long allTiles() {
+        return allTiles;
+    }
+
+    public long adjacentMask(int index) {
+        return adjacent[index];
+    }
+
+    public long cardinalMask(int index) {
+        return cardinal[index];
+    }
+
+    /**
+     * @return mask of the tiles at most distance steps away, including the tile itself.
+     */
+    public long rangeMask(int index, int distance) {
+        long[] ranges = range[index];
+        return ranges[Math.max(0, Math.min(distance, ranges.length - 1))];
+    }
+
+    /**
+     * @return mask of the tiles in the square reaching radius tiles out, including the tile itself.
+     */
+    public long squareMask(int index, int radius) {
+        long[] squares = square[index];
+        return squares[Math.max(0, Math.min(radius, squares.length - 1))];
+    }
+
+    /**
+     * The tiles within MOVE_STEPS of the tile that can be reached, given which tiles can be passed.
+     * @param index - the starting tile
+     * @param passable - mask of the tiles a unit can pass, e.g. the empty and friendly tiles
+     * @return mask of the tiles in reach, whether or not they are occupied
+     */
+    public long reach(int index, long passable) {
+        long[] tiles = reachTiles[index];
+        long[] support = reachSupport[index];
+        long reach = 0;
+        for (int k = 0; k < tiles.length; k++) {
+            if ((support[k] & passable) != 0) reach |= tiles[k];
+        }
+        return reach;
+    }
+}
@@ -8,10 +8,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import akka.actor.ActorRef;
+import metrics.CardExecutionEvent;
 import structures.spells.*;
 import structures.units.Avatar;
-import utils.BasicObjectBuilders;
 import utils.CustomizedBuilders;
+import utils.PrototypeRegistry;
 import utils.StaticConfFiles;
 
 /**
@@ -23,7 +24,7 @@ import utils.StaticConfFiles;
  * @author Dr. Richard McCreadie
  *
  */
-public class Card {
+public class Card implements Cloneable {
 	
 	int id;
 	
@@ -77,6 +78,19 @@ public class Card {
 		this.bigCard = bigCard;
 	}
 
+	/**
+	 * Copies the card, e.g. from a prototype (see utils.PrototypeRegistry). The mini and big card,
+	 * which hold the card art and stats, are shared with the original.
+	 * @return a new card with the same fields.
+	 */
+	public Card copy() {
+		try {
+			return (Card) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 
 
 	/**
@@ -89,22 +103,20 @@ public class Card {
 		// If the player has enough mana
 		if((gameState.clickable && gameState.getPlayerOne().getMana() >= manacost) ||
 				(!gameState.clickable && gameState.getPlayerTwo().getMana() >= manacost)){
+			CardExecutionEvent event = new CardExecutionEvent(cardname, manacost, gameState.clickable ? 1 : 2);
+			event.begin();
 			// If it is not a spell card, summon a new unit
 			if(bigCard.getHealth() != -1){
 				Unit newUnit;
 				// Summon animation
-				BasicCommands.playEffectAnimation(out, BasicObjectBuilders.loadEffect(StaticConfFiles.f1_summon), tile);
-				try {Thread.sleep(100);} catch (InterruptedException e) {e.printStackTrace();}
-				try {
-					newUnit = CustomizedBuilders.loadSummonByName(cardname, gameState);
-					// If it is player one
-					if(gameState.clickable){
-						newUnit.summon(out,tile, gameState.getPlayerOne(), gameState.getBoard());
-					} else {
-						newUnit.summon(out,tile, gameState.getPlayerTwo(), gameState.getBoard());
-					}
-				} catch (Exception e){
-					e.printStackTrace();
+				BasicCommands.playEffectAnimation(out, PrototypeRegistry.loadEffect(StaticConfFiles.f1_summon), tile);
+				BasicCommands.pause(out, 100);
+				newUnit = CustomizedBuilders.loadSummonByName(cardname, gameState);
+				// If it is player one
+				if(gameState.clickable){
+					newUnit.summon(out,tile, gameState.getPlayerOne(), gameState.getBoard());
+				} else {
+					newUnit.summon(out,tile, gameState.getPlayerTwo(), gameState.getBoard());
 				}
 			} else {
 				// Execute spell
@@ -121,7 +133,7 @@ public class Card {
 				BasicCommands.setPlayer1Mana(out, gameState.getPlayerOne());
 				BasicCommands.deleteCard(out, gameState.getClickedHandPosition());
 				gameState.clearCurrentHandCards(out,gameState.getPlayerOne());
-				gameState.getPlayerOne().getHand().removeFirstOccurrence(this);
+				gameState.getPlayerOne().removeFromHand(this);
 				gameState.displayCurrentHandCards(out,gameState.getPlayerOne());
 			}
 			// Reset clicked card
@@ -129,10 +141,11 @@ public class Card {
 			// Refresh the board
 			gameState.getBoard().clearHighlightedTiles();
 			gameState.drawDefaultTilesGrid(out);
+			event.record();
 		} else {
 			if(gameState.clickable){
 				BasicCommands.addPlayer1Notification(out, "Insufficient mana", 2);
-				try {Thread.sleep(100);} catch (InterruptedException e) {e.printStackTrace();}
+				BasicCommands.pause(out, 100);
 			}
 		}
 
@@ -150,156 +163,60 @@ public class Card {
 		gameState.getBoard().clearHighlightedTiles();
 		gameState.drawDefaultTilesGrid(out);
 
+		Board board = gameState.getBoard();
+		board.addHighlightedTiles(validTiles(board, gameState.clickable == true ? 1 : 2));
+		// spells aimed at the enemy are shown in red
+		if(gameState.clickable == true) board.displayHighlightedTiles(out, targetsEnemy() ? 2 : 1);
+	}
+
+	/**
+	 * The tiles the card can be played on, as highlighted by displayCardValidTiles(). Nothing is drawn or highlighted.
+	 * @param board the current state of the board.
+	 * @param playerNumber the player playing the card, 1 or 2.
+	 * @return mask of the tiles.
+	 */
+	public long validTiles(Board board, int playerNumber){
+		long friendlyUnits = board.getPlayerMask(playerNumber);
+		long enemyUnits = board.getPlayerMask(playerNumber == 1 ? 2 : 1);
+
 		if(cardname.equals("Ironcliff Guardian") || cardname.equals("Planar Scout")){
-			displayAirDropTiles(out, gameState);
+			// airdrop: any empty tile on the board
+			return Board.allTilesMask() & ~board.getOccupiedMask();
 		} else if (cardname.equals("Truestrike")) {
-			displayTruestrikeTiles(out, gameState);
+			// all enemy units
+			return enemyUnits;
 		} else if (cardname.equals(("Sundrop Elixir"))){
-			displaySundropElixirTiles(out, gameState);
+			// all friendly units
+			return friendlyUnits;
 		} else if (cardname.equals("Entropic Decay")){
-			displayEntropicDecayTiles(out, gameState);
+			// enemy units besides the Avatar
+			return enemyUnits & ~avatarTiles(board, enemyUnits);
 		} else if (cardname.equals("Staff of Y'Kir'")){
-			displayStaffOfYKirTiles(out, gameState);
+			// the friendly Avatar only
+			return avatarTiles(board, friendlyUnits);
 		} else {
-			displayNormalSummonTiles(out, gameState);
-		}
-	}
-
-
-	// Highlight normal summon tiles
-	private void displayNormalSummonTiles(ActorRef out, GameState gameState){
-
-		int[][] directions = new int[][]{{-1,-1}, {-1,0}, {-1,1}, {0,1}, {1,1}, {1,0}, {1,-1}, {0,-1}};
-
-		List<Unit> friendlyUnits;
-		if(gameState.clickable == true){
-			friendlyUnits = gameState.getBoard().getPlayer1Units();
-		} else {
-			friendlyUnits = gameState.getBoard().getPlayer2Units();
-		}
-
-		for(int x = 0; x < gameState.getBoard().getX(); x++){
-			for(int y = 0; y < gameState.getBoard().getY(); y++){
-				if(friendlyUnits.contains(gameState.getBoard().getTile(x,y).getUnit())){
-					for(int[] direction: directions){
-						int nx = x + direction[0];
-						int ny = y + direction[1];
-						// if the tile is in bound
-						if(nx >= 0 && nx < gameState.getBoard().getX()){
-							if(ny >= 0 && ny < gameState.getBoard().getY()){
-								// if the tile has no unit
-								if(gameState.getBoard().getTile(nx, ny).getUnit() == null){
-									gameState.getBoard().getHighlightedTiles().add(gameState.getBoard().getTile(nx, ny));
-								}
-							}
-						}
-					}
-				}
+			// normal summon: every empty tile next to a friendly unit
+			long summonTiles = 0;
+			for(long m = friendlyUnits; m != 0; m &= m - 1){
+				summonTiles |= Board.adjacentMask(board.getTile(Long.numberOfTrailingZeros(m)));
 			}
+			return summonTiles & ~board.getOccupiedMask();
 		}
-		if(gameState.clickable == true) gameState.getBoard().displayHighlightedTiles(out, 1);
 	}
 
-
-	//Highlight airdrop (all tiles on the board) summon tiles
-	private void displayAirDropTiles(ActorRef out, GameState gameState){
-
-		for(int x = 0; x < gameState.getBoard().getX(); x++) {
-			for (int y = 0; y < gameState.getBoard().getY(); y++) {
-				if(gameState.getBoard().getTile(x, y).getUnit() == null){
-					gameState.getBoard().getHighlightedTiles().add(gameState.getBoard().getTile(x, y));
-				}
-			}
-		}
-		if(gameState.clickable == true) gameState.getBoard().displayHighlightedTiles(out, 1);
+	// true for the spells cast on enemy units
+	private boolean targetsEnemy(){
+		return cardname.equals("Truestrike") || cardname.equals("Entropic Decay");
 	}
 
-
-	//Highlight Truestrike (all enemy) tiles
-	private void displayTruestrikeTiles(ActorRef out, GameState gameState){
-
-		List<Unit> enemyUnits;
-		if(gameState.clickable == true){
-			enemyUnits = gameState.getBoard().getPlayer2Units();
-		} else {
-			enemyUnits = gameState.getBoard().getPlayer1Units();
-		}
-
-		for(int x = 0; x < gameState.getBoard().getX(); x++) {
-			for (int y = 0; y < gameState.getBoard().getY(); y++) {
-				if(enemyUnits.contains(gameState.getBoard().getTile(x, y).getUnit())){
-					gameState.getBoard().getHighlightedTiles().add(gameState.getBoard().getTile(x, y));
-				}
-			}
-		}
-		if(gameState.clickable == true) gameState.getBoard().displayHighlightedTiles(out, 2);
-	}
-
-
-	//Highlight Entropic Decay (enemy besides avatar) tiles
-	private void displayEntropicDecayTiles(ActorRef out, GameState gameState){
-
-		List<Unit> enemyUnits;
-		if(gameState.clickable == true){
-			enemyUnits = gameState.getBoard().getPlayer2Units();
-		} else {
-			enemyUnits = gameState.getBoard().getPlayer1Units();
-		}
-
-		for(int x = 0; x < gameState.getBoard().getX(); x++) {
-			for (int y = 0; y < gameState.getBoard().getY(); y++) {
-				// If it is Entropic Decay, only highlight units besides Avatar
-				if(enemyUnits.contains(gameState.getBoard().getTile(x, y).getUnit())){
-					if(gameState.getBoard().getTile(x, y).getUnit() instanceof Avatar == false){
-						gameState.getBoard().getHighlightedTiles().add(gameState.getBoard().getTile(x, y));
-					}
-				}
-			}
-		}
-		if(gameState.clickable == true) gameState.getBoard().displayHighlightedTiles(out, 2);
-	}
-
-	//highlight Sundrop Elixir (all friendly units)  tiles
-	private void displaySundropElixirTiles(ActorRef out, GameState gameState){
-
-		List<Unit> friendlyUnits;
-		if(gameState.clickable == true){
-			friendlyUnits = gameState.getBoard().getPlayer1Units();
-		} else {
-			friendlyUnits = gameState.getBoard().getPlayer2Units();
-		}
-
-		for(int x = 0; x < gameState.getBoard().getX(); x++) {
-			for (int y = 0; y < gameState.getBoard().getY(); y++) {
-				if(friendlyUnits.contains(gameState.getBoard().getTile(x, y).getUnit())){
-					gameState.getBoard().getHighlightedTiles().add(gameState.getBoard().getTile(x, y));
-				}
-			}
-		}
-		if(gameState.clickable == true) gameState.getBoard().displayHighlightedTiles(out, 1);
-	}
-
-
-	//highlight Staff of Y’Kir (friendly Avatar only) tiles
-	private void displayStaffOfYKirTiles(ActorRef out, GameState gameState){
-
-		List<Unit> friendlyUnits;
-		if(gameState.clickable == true){
-			friendlyUnits = gameState.getBoard().getPlayer1Units();
-		} else {
-			friendlyUnits = gameState.getBoard().getPlayer2Units();
-		}
-
-		for(int x = 0; x < gameState.getBoard().getX(); x++) {
-			for (int y = 0; y < gameState.getBoard().getY(); y++) {
-				if(friendlyUnits.contains(gameState.getBoard().getTile(x, y).getUnit())){
-					if(gameState.getBoard().getTile(x, y).getUnit() instanceof Avatar){
-						gameState.getBoard().getHighlightedTiles().add(gameState.getBoard().getTile(x, y));
-					}
-				}
-			}
+	// the tiles in the mask that hold an Avatar
+	private static long avatarTiles(Board board, long units){
+		long avatars = 0;
+		for(long m = units; m != 0; m &= m - 1){
+			int i = Long.numberOfTrailingZeros(m);
+			if(board.getTile(i).getUnit() instanceof Avatar) avatars |= 1L << i;
 		}
-		if(gameState.clickable == true) gameState.getBoard().displayHighlightedTiles(out, 1);
+		return avatars;
 	}
 
 }
@@ -24,6 +24,11 @@ public class Deck {
         else cards = null;
     }
 
+    // Used by copy()
+    private Deck(Deque<Card> cards){
+        this.cards = cards;
+    }
+
     /**
      * The method that creates deck one.
      * @return Deck of cards.
@@ -55,4 +60,11 @@ public class Deck {
     public Deque<Card> getCards() {
         return cards;
     }
+
+    /**
+     * @return a deck holding the same cards in the same order, drawing from it leaves this deck untouched.
+     */
+    public Deck copy() {
+        return new Deck(cards == null ? null : new ArrayDeque<>(cards));
+    }
 }
@@ -1,7 +1,10 @@
 package structures.basic;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 
 import akka.actor.ActorRef;
 import commands.BasicCommands;
@@ -20,6 +23,9 @@ public class Player {
 	private int playerNumber;
 	private Deck deck;
 	private LinkedList<Card> hand;
+	private List<Card> handView; // read-only, so every change of the hand goes through this class
+	private long key; // Zobrist key of mana, hand and deck, kept up to date by the methods changing them
+	UndoLog undoLog; // records the changes while it is attached, see UndoLog; not copied
 	private static final int HandMax = 6;
 	
 	public Player() {
@@ -28,6 +34,7 @@ public class Player {
 		this.mana = 0;
 		deck = null;
 		hand = null;
+		key = Zobrist.mana(playerNumber, mana);
 	}
 	public Player(int health, int mana) {
 		super();
@@ -35,6 +42,7 @@ public class Player {
 		this.mana = mana;
 		deck = null;
 		hand = null;
+		key = Zobrist.mana(playerNumber, mana);
 	}
 
 	//New constructor.
@@ -44,18 +52,23 @@ public class Player {
 		this.deck = deck;
 		this.playerNumber = playerNumber;
 		hand = new LinkedList<>();
+		handView = Collections.unmodifiableList(hand);
+		key = Zobrist.mana(playerNumber, mana) ^ deckKey();
 	}
 
 	public int getHealth() {
 		return health;
 	}
 	public void setHealth(int health) {
+		if(undoLog != null) undoLog.recordHealth(this, this.health);
 		this.health = health;
 	}
 	public int getMana() {
 		return mana;
 	}
 	public void setMana(int mana) {
+		if(undoLog != null) undoLog.recordMana(this, this.mana);
+		key ^= Zobrist.mana(playerNumber, this.mana) ^ Zobrist.mana(playerNumber, mana);
 		this.mana = mana;
 	}
 
@@ -63,20 +76,124 @@ public class Player {
 		return playerNumber;
 	}
 
-	public LinkedList<Card> getHand() {
-		return hand;
+	/**
+	 * @return the cards in hand, read-only. Cards are added by draw() and taken out by removeFromHand().
+	 */
+	public List<Card> getHand() {
+		return handView;
 	}
-	//Adds a card to the players hand. 
+	//Adds a card to the players hand. Nothing is added once the deck is empty.
 	public void draw(ActorRef out){
-		if(hand.size()<HandMax)
-			hand.add(deck.draw());
+		key ^= deckKey();
+		if(hand.size()<HandMax){
+			Card card = deck.draw();
+			if(undoLog != null) undoLog.recordDraw(this, card, card != null);
+			if(card != null) {
+				key ^= Zobrist.hand(playerNumber, hand.size(), card.getId());
+				hand.add(card);
+			}
+		}
 		else{
-			deck.draw();
+			Card lost = deck.draw();
+			if(undoLog != null) undoLog.recordDraw(this, lost, false);
 			if(playerNumber == 1)BasicCommands.addPlayer1Notification(out, "Hand Full, Card Lost", 5);
 		}
+		key ^= deckKey();
+	}
+
+	// Takes back a draw(), see UndoLog: the card goes back on top of the deck, and out of the hand if it went there
+	void undoDraw(Card card, boolean toHand){
+		key ^= deckKey();
+		if(toHand) key ^= Zobrist.hand(playerNumber, hand.size() - 1, hand.removeLast().getId());
+		if(card != null) deck.getCards().addLast(card);
+		key ^= deckKey();
+	}
+
+	/**
+	 * Takes a played card out of the hand, the cards after it move up one position.
+	 * @param card the card to remove, its first occurrence is removed.
+	 * @return false if the card is not in the hand.
+	 */
+	public boolean removeFromHand(Card card){
+		int index = hand.indexOf(card);
+		if(index < 0) return false;
+		if(undoLog != null) undoLog.recordHandRemoval(this, card, index);
+		for(int i = index; i < hand.size(); i++) {
+			key ^= Zobrist.hand(playerNumber, i, hand.get(i).getId());
+			if(i > index) key ^= Zobrist.hand(playerNumber, i - 1, hand.get(i).getId());
+		}
+		hand.remove(index);
+		return true;
+	}
+
+	// Takes back a removeFromHand(), see UndoLog
+	void returnToHand(Card card, int index){
+		hand.add(index, card);
+		for(int i = index; i < hand.size(); i++) {
+			key ^= Zobrist.hand(playerNumber, i, hand.get(i).getId());
+			if(i > index) key ^= Zobrist.hand(playerNumber, i - 1, hand.get(i).getId());
+		}
+	}
+
+	/**
+	 * Replaces the hand and the deck, e.g. to put a game back into an earlier state, see GameSnapshot.
+	 * @param hand the cards in hand order.
+	 * @param deck the cards in the order of Deck.getCards(), the last one is drawn next.
+	 */
+	public void setCards(Collection<Card> hand, Collection<Card> deck){
+		this.hand.clear();
+		this.hand.addAll(hand);
+		this.deck.getCards().clear();
+		this.deck.getCards().addAll(deck);
+		key = Zobrist.mana(playerNumber, mana) ^ deckKey();
+		int position = 0;
+		for(Card card : hand) key ^= Zobrist.hand(playerNumber, position++, card.getId());
+	}
+
+	/**
+	 * Shows the cards in the player's hand on the front-end, in hand order.
+	 * @param out game actor reference
+	 */
+	public void displayHand(ActorRef out){
+		BasicCommands.beginBatch(out);
+		for(int i = 0; i < hand.size(); i++){
+			BasicCommands.drawCard(out, hand.get(i), i + 1, 0);
+		}
+		BasicCommands.endBatch(out);
 	}
 
 	public Deck getDeck() {
 		return deck;
 	}
+
+	/**
+	 * The Zobrist key of the player's mana, hand (each card and its position) and deck (its size and
+	 * the card drawn next). Health is covered by the avatar on the board, see Board.getKey().
+	 * It is kept up to date by setMana(), draw(), removeFromHand() and setCards().
+	 * @return the key, see Zobrist.
+	 */
+	public long getKey() {
+		return key;
+	}
+
+	private long deckKey() {
+		if(deck == null || deck.getCards() == null) return 0;
+		Deque<Card> cards = deck.getCards();
+		return Zobrist.deck(playerNumber, cards.size(), cards.isEmpty() ? -1 : cards.peekLast().getId());
+	}
+
+	/**
+	 * Copies the player for a simulated game. The hand and deck are copied, the cards in them are shared.
+	 * @return an independent player with the same health, mana, hand and deck.
+	 */
+	public Player copy() {
+		Player copy = new Player(health, mana, deck == null ? null : deck.copy(), playerNumber);
+		if(hand != null) copy.hand.addAll(hand);
+		else {
+			copy.hand = null;
+			copy.handView = null;
+		}
+		copy.key = key;
+		return copy;
+	}
 }
\ No newline at end of file
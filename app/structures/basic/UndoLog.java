@@ -0,0 +1,216 @@
+package structures.basic;
+
+import java.util.Arrays;
+
+import structures.GameState;
+import structures.Move;
+
+/**
+ * Make/unmake for search: make() carries out a Move and records every change it makes to the game,
+ * unmake() takes those changes back in reverse order. A depth first search can walk a whole tree on
+ * one GameState this way.
+ *
+ * The log is attached to the board and players of one game. The methods the rules change the game
+ * through report each change to it before making it: Unit's stats and flags, Board's placeUnit(),
+ * moveUnit() and removeUnit(), and Player's health, mana, draw() and removeFromHand(). A move is
+ * undone by putting back the old values through the same methods, so the Zobrist keys follow. The
+ * unit ID counter and the game over and clickable flags are recorded once per move.
+ *
+ * Changes are written into arrays that only grow, so once the log has reached the search depth it
+ * allocates nothing per move. Only the game's own collections do when units and cards are put back,
+ * and playing a unit card still creates the summoned unit. Changes made outside make(), and the
+ * highlighted and last clicked tiles, are not recorded.
+ *
+ * A log is used with one game at a time and is not thread safe.
+ *
+ * @author The team
+ *
+ */
+public final class UndoLog {
+
+	// Kinds of change, the first of the FIELDS ints of each
+	private static final int STATS = 0; // health, attack
+	private static final int FLAGS = 1; // moved and attacked bits, attack count
+	private static final int PLACE = 2;
+	private static final int MOVE = 3; // from tile, to tile
+	private static final int REMOVE = 4; // tile or -1, owner, index in the owner's list
+	private static final int HEALTH = 5; // health
+	private static final int MANA = 6; // mana
+	private static final int DRAW = 7; // 1 if the card went into the hand
+	private static final int HAND = 8; // position in the hand
+	private static final int FIELDS = 4;
+
+	// Recorded at the start of each move
+	private static final int FIRST_CHANGE = 0;
+	private static final int UNIT_ID_COUNTER = 1;
+	private static final int GAME_FLAGS = 2;
+	private static final int FRAME = 3;
+	private static final int CLICKABLE = 1;
+	private static final int GAME_OVER = 2;
+
+	private final GameState gameState;
+	private int[] ints = new int[64 * FIELDS];
+	private Object[] refs = new Object[64 * 2]; // the changed unit or player, then the card drawn or played
+	private int[] frames = new int[16 * FRAME];
+	private int size; // number of changes recorded
+	private int depth;
+	private boolean undoing;
+
+	/**
+	 * Attaches a new log to the game's board and players, replacing any log attached before.
+	 * @param gameState the game to make and unmake moves on.
+	 */
+	public UndoLog(GameState gameState) {
+		this.gameState = gameState;
+		gameState.getBoard().undoLog = this;
+		gameState.getPlayerOne().undoLog = this;
+		gameState.getPlayerTwo().undoLog = this;
+	}
+
+	/**
+	 * Carries out the move with Move.apply(), sending nothing to the front-end, and records its changes.
+	 * @param player the player making the move.
+	 * @param move see Move.
+	 */
+	public void make(Player player, int move) {
+		if (frames.length < (depth + 1) * FRAME) frames = Arrays.copyOf(frames, frames.length * 2);
+		int at = depth * FRAME;
+		frames[at + FIRST_CHANGE] = size;
+		frames[at + UNIT_ID_COUNTER] = gameState.getUnitIdCounter();
+		frames[at + GAME_FLAGS] = (gameState.clickable ? CLICKABLE : 0) | (gameState.gameOver ? GAME_OVER : 0);
+		depth++;
+		Move.apply(null, gameState, player, move);
+	}
+
+	/**
+	 * Takes the game back to where it was before the last make().
+	 */
+	public void unmake() {
+		if (depth == 0) throw new IllegalStateException("Nothing to undo");
+		depth--;
+		int at = depth * FRAME;
+		undoing = true;
+		try {
+			while (size > frames[at + FIRST_CHANGE]) undo(--size);
+		} finally {
+			undoing = false;
+		}
+		gameState.setUnitIdCounter(frames[at + UNIT_ID_COUNTER]);
+		gameState.clickable = (frames[at + GAME_FLAGS] & CLICKABLE) != 0;
+		gameState.gameOver = (frames[at + GAME_FLAGS] & GAME_OVER) != 0;
+		gameState.setClickedHandPosition(-1);
+	}
+
+	private void undo(int change) {
+		int at = change * FIELDS;
+		Object ref = refs[change * 2];
+		Card card = (Card) refs[change * 2 + 1];
+		refs[change * 2] = null; // so undone units and cards are not kept alive
+		refs[change * 2 + 1] = null;
+		Board board = gameState.getBoard();
+		switch (ints[at]) {
+			case STATS:
+				((Unit) ref).setStats(ints[at + 1], ints[at + 2]);
+				break;
+			case FLAGS:
+				((Unit) ref).setFlags((ints[at + 1] & 1) != 0, (ints[at + 1] & 2) != 0, ints[at + 2]);
+				break;
+			case PLACE:
+				board.removeUnit((Unit) ref);
+				break;
+			case MOVE:
+				board.moveUnit(board.getTile(ints[at + 2]), board.getTile(ints[at + 1]));
+				((Unit) ref).setPositionByTile(board.getTile(ints[at + 1]));
+				break;
+			case REMOVE:
+				board.putBack((Unit) ref, ints[at + 1], ints[at + 2], ints[at + 3]);
+				break;
+			case HEALTH:
+				((Player) ref).setHealth(ints[at + 1]);
+				break;
+			case MANA:
+				((Player) ref).setMana(ints[at + 1]);
+				break;
+			case DRAW:
+				((Player) ref).undoDraw(card, ints[at + 1] != 0);
+				break;
+			case HAND:
+				((Player) ref).returnToHand(card, ints[at + 1]);
+				break;
+			default:
+				throw new IllegalStateException("Unknown change " + ints[at]);
+		}
+	}
+
+	// Changes are recorded during make(), but not while unmake() puts the old values back
+	boolean isRecording() {
+		return depth > 0 && !undoing;
+	}
+
+	private void record(int kind, Object ref, Card card, int a, int b, int c) {
+		if (ints.length < (size + 1) * FIELDS) {
+			ints = Arrays.copyOf(ints, ints.length * 2);
+			refs = Arrays.copyOf(refs, refs.length * 2);
+		}
+		int at = size * FIELDS;
+		ints[at] = kind;
+		ints[at + 1] = a;
+		ints[at + 2] = b;
+		ints[at + 3] = c;
+		refs[size * 2] = ref;
+		refs[size * 2 + 1] = card;
+		size++;
+	}
+
+	void recordStats(Unit unit, int health, int attack) {
+		if (isRecording()) record(STATS, unit, null, health, attack, 0);
+	}
+
+	void recordFlags(Unit unit, boolean hasMoved, boolean hasAttacked, int attackCount) {
+		if (isRecording()) record(FLAGS, unit, null, (hasMoved ? 1 : 0) | (hasAttacked ? 2 : 0), attackCount, 0);
+	}
+
+	void recordPlace(Unit unit) {
+		if (isRecording()) record(PLACE, unit, null, 0, 0, 0);
+	}
+
+	void recordMove(Unit unit, int from, int to) {
+		if (isRecording()) record(MOVE, unit, null, from, to, 0);
+	}
+
+	void recordRemove(Unit unit, int tileIndex, int owner, int listIndex) {
+		if (isRecording()) record(REMOVE, unit, null, tileIndex, owner, listIndex);
+	}
+
+	void recordHealth(Player player, int health) {
+		if (isRecording()) record(HEALTH, player, null, health, 0, 0);
+	}
+
+	void recordMana(Player player, int mana) {
+		if (isRecording()) record(MANA, player, null, mana, 0, 0);
+	}
+
+	void recordDraw(Player player, Card card, boolean toHand) {
+		if (isRecording()) record(DRAW, player, card, toHand ? 1 : 0, 0, 0);
+	}
+
+	void recordHandRemoval(Player player, Card card, int position) {
+		if (isRecording()) record(HAND, player, card, position, 0, 0);
+	}
+
+	/**
+	 * @return the number of moves that can be undone.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Forgets every recorded move without changing the game.
+	 */
+	public void clear() {
+		Arrays.fill(refs, 0, size * 2, null);
+		size = 0;
+		depth = 0;
+	}
+}
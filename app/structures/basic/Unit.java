@@ -1,13 +1,12 @@
 package structures.basic;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import akka.actor.ActorRef;
 import commands.BasicCommands;
+import metrics.UnitDeathEvent;
 import structures.GameState;
 import structures.units.Avatar;
-import java.util.ArrayList;
 import java.util.List;
 
 
@@ -23,11 +22,8 @@ import java.util.List;
  * @author Dr. Richard McCreadie
  *
  */
-public class Unit {
+public class Unit implements Cloneable {
 
-	@JsonIgnore
-	protected static ObjectMapper mapper = new ObjectMapper(); // Jackson Java Object Serializer, is used to read java objects from a file
-	
 	private int id;
 	private UnitAnimationType animation;
 	private Position position;
@@ -36,11 +32,14 @@ public class Unit {
 	protected boolean hasProvoked = false;
 	protected int BASE_MOVEMENT = 2;
 	protected int BASE_ATTACK_RANGE = 2;
-	protected boolean hasMoved = false;
-	protected boolean hasAttacked = false;
+	private boolean hasMoved = false;
+	private boolean hasAttacked = false;
+	private int attackCount = 0; // attacks made this turn, only counted by units that can attack twice
 	private int health;
 	private int MAX_HEALTH;
 	private int attack;
+	private int owner = 0; // player number, 0 while the unit is not on the board
+	Board board; // the board the unit stands on, set by Board so it can keep its key up to date
 	
 	public Unit() {}
 	
@@ -124,12 +123,12 @@ public class Unit {
 	 * @param health card's health.
 	 */
 	public void setHealthWithMax(int health) {
-		this.health = health;
+		setStats(health, attack);
 		this.MAX_HEALTH = health;
 	}
 
 	public void setHealth(int health){
-		this.health = health;
+		setStats(health, attack);
 	}
 
 	public int getAttack() {
@@ -137,11 +136,21 @@ public class Unit {
 	}
 
 	public void setAttack(int attack) {
+		setStats(health, attack);
+	}
+
+	// Every change of health or attack goes through here, so the board's Zobrist key and UndoLog follow it
+	void setStats(int health, int attack) {
+		if(board != null) {
+			board.updateKey(Zobrist.stats(id, this.health, this.attack) ^ Zobrist.stats(id, health, attack));
+			if(board.undoLog != null) board.undoLog.recordStats(this, this.health, this.attack);
+		}
+		this.health = health;
 		this.attack = attack;
 	}
 
 	public void setHasMoved(boolean hasMoved) {
-		this.hasMoved = hasMoved;
+		setFlags(hasMoved, hasAttacked, attackCount);
 	}
 
 	public boolean getHasMoved(){
@@ -149,13 +158,58 @@ public class Unit {
 	}
 
 	public void setHasAttacked(boolean hasAttacked) {
-		this.hasAttacked = hasAttacked;
+		setFlags(hasMoved, hasAttacked, attackCount);
 	}
 
 	public boolean getHasAttacked(){
 		return hasAttacked;
 	}
 
+	/**
+	 * @return attacks made this turn, only counted by units that can attack more than once a turn.
+	 */
+	@JsonIgnore
+	public int getAttackCount() {
+		return attackCount;
+	}
+
+	/**
+	 * @param attackCount attacks made this turn.
+	 */
+	@JsonIgnore
+	public void setAttackCount(int attackCount) {
+		setFlags(hasMoved, hasAttacked, attackCount);
+	}
+
+	// Every change of the move and attack flags goes through here, so the board's Zobrist key and UndoLog follow it
+	void setFlags(boolean hasMoved, boolean hasAttacked, int attackCount) {
+		if(board != null) {
+			board.updateKey(Zobrist.flags(id, this.hasMoved, this.hasAttacked, this.attackCount)
+					^ Zobrist.flags(id, hasMoved, hasAttacked, attackCount));
+			if(board.undoLog != null) board.undoLog.recordFlags(this, this.hasMoved, this.hasAttacked, this.attackCount);
+		}
+		this.hasMoved = hasMoved;
+		this.hasAttacked = hasAttacked;
+		this.attackCount = attackCount;
+	}
+
+	/**
+	 * @return the number of the player this unit belongs to, 0 if it is not on the board.
+	 */
+	@JsonIgnore
+	public int getOwner() {
+		return owner;
+	}
+
+	/**
+	 * Set by the Board when the unit is placed or removed.
+	 * @param owner player number.
+	 */
+	@JsonIgnore
+	public void setOwner(int owner) {
+		this.owner = owner;
+	}
+
 	/**
 	 * This command sets the position of the Unit to a specified
 	 * tile.
@@ -166,14 +220,32 @@ public class Unit {
 		position = new Position(tile.getXpos(),tile.getYpos(),tile.getTilex(),tile.getTiley());
 	}
 
+	/**
+	 * Copies the unit for a simulated game. Health, attack, flags and the fields of subclasses
+	 * (e.g. attack turns) are copied, the animations and image correction are shared.
+	 * The copy still has to be placed on a board, see Board.copy().
+	 * @return an independent copy of this unit.
+	 */
+	public Unit copy() {
+		try {
+			Unit copy = (Unit) super.clone();
+			if(position != null) {
+				copy.position = new Position(position.getXpos(), position.getYpos(), position.getTilex(), position.getTiley());
+			}
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	/**
 	 * Method to increase to health a unit. It cannot go over the MAX_HEALTH value.
 	 * This method should be called for any ability that would heal a unit.
 	 * @param amount the amount by which to increase health
 	 */
 	public void heal(int amount){
-		if(health + amount > MAX_HEALTH) health = MAX_HEALTH;
-		else health+=amount;
+		if(health + amount > MAX_HEALTH) setStats(MAX_HEALTH, attack);
+		else setStats(health + amount, attack);
 	}
 
 	/**
@@ -185,24 +257,22 @@ public class Unit {
 	 * @param out game actor reference
 	 */
 	public void takeDamage(int damage, GameState gameState, ActorRef out){
-		health -= damage;
+		setStats(health - damage, attack);
 		if(health < 1){
-			List<Unit> playerOneUnits = gameState.getBoard().getPlayer1Units();
-			List<Unit> playerTwoUnits = gameState.getBoard().getPlayer2Units();
-			//it will remove from either list one or two. The remove() method checks whether it contains an object, so there is no need to check manually.
-			playerOneUnits.remove(this);
-			playerTwoUnits.remove(this);
+			UnitDeathEvent death = new UnitDeathEvent(getClass(), id);
+			death.begin();
 			BasicCommands.setUnitHealth(out, this, 0);
-			//remove it from tile.
-			gameState.getBoard().getTile(position.tilex, position.tiley).addUnit(null);
+			//remove it from its owner's list and from its tile.
+			gameState.getBoard().removeUnit(this);
 			//delete the unit from the front-end.
 			BasicCommands.playUnitAnimation(out, this, UnitAnimationType.death);
-			try {Thread.sleep(2000);} catch (InterruptedException e) {e.printStackTrace();}
+			BasicCommands.pause(out, 2000);
 			BasicCommands.deleteUnit(out,this);
-			try {Thread.sleep(20);} catch (InterruptedException e) {e.printStackTrace();}
+			BasicCommands.pause(out, 20);
 			//clear highlighted tiles
 			gameState.drawDefaultTilesGrid(out);
 			gameState.getBoard().clearHighlightedTiles();
+			death.record();
 		}
 		else{
 			BasicCommands.setUnitHealth(out, this, health);
@@ -220,23 +290,16 @@ public class Unit {
 	 */
 	public void summon(ActorRef out, Tile tile, Player player, Board board){
 		this.setPositionByTile(tile);
-		tile.addUnit(this);
-		if(player.getPlayerNumber() == 1){
-			board.getPlayer1Units().add(this);
-		}
-		else {
-			board.getPlayer2Units().add(this);
-		}
+		board.placeUnit(tile, this, player.getPlayerNumber());
 		BasicCommands.drawUnit(out, this, tile);
-		try {Thread.sleep(100);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 100);
 		BasicCommands.setUnitAttack(out, this, attack);
-		try {Thread.sleep(100);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 100);
 		BasicCommands.setUnitHealth(out, this, health);
-		try {Thread.sleep(100);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 100);
 		
 		if(!(this instanceof Avatar)){
-			hasMoved = true;
-			hasAttacked = true;
+			setFlags(true, true, attackCount);
 		}
 		
 	}
@@ -246,7 +309,7 @@ public class Unit {
 	 * Can be used after the end of each turn.
 	 */
 	public void resetAttack(){
-		hasAttacked = false;
+		setHasAttacked(false);
 	}
 
 	/**
@@ -259,20 +322,11 @@ public class Unit {
 	public void attack(Unit unit, GameState gameState, ActorRef out){
 		if(!this.hasAttacked) {
 			BasicCommands.playUnitAnimation(out, this, UnitAnimationType.attack);
-			try {
-				Thread.sleep(250);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
+			BasicCommands.pause(out, 250);
 			unit.takeDamage(attack, gameState, out);
-			try {
-				Thread.sleep(1500);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
+			BasicCommands.pause(out, 1500);
 			unit.counter(this, gameState, out);
-			hasAttacked = true;
-			hasMoved = true;
+			setFlags(true, true, attackCount);
 		}
 		// Clear all highlighted tiles
 		gameState.drawDefaultTilesGrid(out);
@@ -287,22 +341,15 @@ public class Unit {
 	 */
 	public void counter(Unit unit, GameState gameState, ActorRef out) {
 		if (health >= 1) {
-			int X = position.tilex;
-			int Y = position.tiley;
 			Board board= gameState.getBoard();
-			for (int x = X - (BASE_ATTACK_RANGE - 1); x < X + BASE_ATTACK_RANGE; x++) {
-				for (int y = Y - (BASE_ATTACK_RANGE - 1); y < Y + BASE_ATTACK_RANGE; y++) {
-					if (x < board.getX() &&
-						y < board.getY()
-						&& x >= 0 && y >= 0) {
-					if(board.getTile(x,y).getUnit() == unit){
-						BasicCommands.playUnitAnimation(out, this, UnitAnimationType.attack);
-						try {Thread.sleep(250);} catch (InterruptedException e) {e.printStackTrace();}
-						unit.takeDamage(attack, gameState, out);
-						break;
-					}
-				}
-				}
+			Tile tile = board.getTile(position.tilex, position.tiley);
+			Tile attackerTile = board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+			// the attacker must still be standing within this unit's attack range
+			if (attackerTile.getUnit() == unit &&
+					(Board.squareMask(tile, BASE_ATTACK_RANGE - 1) & Board.bit(attackerTile)) != 0) {
+				BasicCommands.playUnitAnimation(out, this, UnitAnimationType.attack);
+				BasicCommands.pause(out, 250);
+				unit.takeDamage(attack, gameState, out);
 			}
 		}
 	}
@@ -333,30 +380,14 @@ public class Unit {
 	 * @param board the current state of the board.
 	 */
 	private void attackDisplayHelper(ActorRef out, Tile tile, Board board){
-		int X = tile.getTilex();
-		int Y = tile.getTiley();
-		List<Unit> enemyList = board.getEnemyUnits(this);
-		for (int x = X - (BASE_ATTACK_RANGE - 1); x < X + BASE_ATTACK_RANGE; x++) {
-			for (int y = Y - (BASE_ATTACK_RANGE - 1); y < Y + BASE_ATTACK_RANGE; y++) {
-				if (x < board.getX() &&
-						y < board.getY()
-						&& x >= 0 && y >= 0) {
-					Unit unit = board.getTile(x, y).getUnit();
-					if (unit != null) {
-						if (enemyList.contains(unit)) {
-							try {
-								Tile highlightedTile = board.getTile(x, y);
-								BasicCommands.drawTile(out, highlightedTile, 2);
-								try {Thread.sleep(20);} catch (InterruptedException e) {e.printStackTrace(); }
-								board.getHighlightedTiles().add(highlightedTile);
-
-							} catch (IndexOutOfBoundsException ignored) {
-							}
-						}
-					}
-				}
-			}
+		long targets = attackMask(tile, board);
+		BasicCommands.beginBatch(out);
+		for (long m = targets; m != 0; m &= m - 1) {
+			Tile highlightedTile = board.getTile(Long.numberOfTrailingZeros(m));
+			board.drawTile(out, highlightedTile, 2);
+			board.addHighlightedTile(highlightedTile);
 		}
+		BasicCommands.endBatch(out);
 	}
 
 	/**
@@ -364,7 +395,7 @@ public class Unit {
 	 * Can be used after the end of each turn.
 	 */
 	public void resetMovement(){
-		hasMoved = false;
+		setHasMoved(false);
 	}
 
 
@@ -375,122 +406,96 @@ public class Unit {
 	 * @param gameState current state of the game.
 	 */
 	public void displayMovementTiles(ActorRef out, Tile tile, GameState gameState){
-		int X = tile.getTilex();
-		int Y = tile.getTiley();
-		Unit tileUnit = null;
-
-		if(tile.getUnit() != null){
-			tileUnit = tile.getUnit();
-		}
-
-		List<Tile> highlightedTiles = gameState.getBoard().getHighlightedTiles();
-		List<Unit> friendlyUnits = gameState.getBoard().getFriendlyUnits(tileUnit);
-		List<Unit> enemyUnits = gameState.getBoard().getEnemyUnits(tileUnit);
-		List<Tile> tilesToClear = new ArrayList<>();
-		List<Tile> tilesToAdd = new ArrayList<>();
+		Board board = gameState.getBoard();
+		long enemy = board.getEnemyMask(tile.getUnit());
 
 		//if a unit has attacked, then it forfeits its ability to move.
-		if(hasAttacked) hasMoved = true;
-		if(nexToProvokeUnit(tile,gameState.getBoard(), out)){}
+		if(hasAttacked) setHasMoved(true);
+		if(nexToProvokeUnit(tile,board, out)){}
 		//movement base logic
 		else if(!hasMoved){
-			//Creating the default diamond shape highlight using points distance from center.
-			for(int x = X - BASE_MOVEMENT; x <= X+BASE_MOVEMENT; x++){
-				for(int y = Y - BASE_MOVEMENT; y <= Y+BASE_MOVEMENT; y++){
-					int a = Math.abs(x-X);
-					int b = Math.abs(y-Y);
-					if(a + b <= 2) {
-						try {
-							Tile tileToAdd = gameState.getBoard().getTile(x, y);
-							gameState.getBoard().getHighlightedTiles().add(tileToAdd);
-						} catch (Exception ignored) {
-						}
-					}
-				}
-			}
-
-			// Stage 1: clear tile with no friendly neighbour
-			for(int i = 0; i < highlightedTiles.size(); i++){
-				int htx = highlightedTiles.get(i).getTilex();
-				int hty = highlightedTiles.get(i).getTiley();
-				boolean hasEmptyNeighbour = false;
-				boolean hasFriendlyNeighbour = false;
-				for(int x = htx-1; x <= htx+1; x++){
-					for(int y = hty-1; y <= hty+1; y++){
-						try {
-							Tile t = gameState.getBoard().getTile(x, y);
-							int ax = Math.abs(htx - x);
-							int ay = Math.abs(hty - y);
-							if(ax + ay == 1){
-								if (highlightedTiles.contains(t) && t.getUnit() == null){
-									hasEmptyNeighbour = true;
-								}
-								if (highlightedTiles.contains(t) && friendlyUnits.contains(t.getUnit())) {
-									hasFriendlyNeighbour = true;
-								}
-							}
-						} catch (Exception ignored){}
-					}
-				}
-				if(!hasEmptyNeighbour && !hasFriendlyNeighbour){
-					tilesToClear.add(highlightedTiles.get(i));
-				}
-			}
-
-			highlightedTiles.removeAll(tilesToClear);
-			tilesToClear.clear();
+			long movement = movementMask(tile, board);
+			board.clearHighlightedTiles();
+			board.addHighlightedTiles(movement);
+			board.addHighlightedTiles(borderAttackMask(tile, board, movement));
+		}
 
-			// Stage 2: Clear tile with friendly unit
-			for(int i = 0; i < highlightedTiles.size(); i++){
-				if(tileUnit != null){
-					if(friendlyUnits.contains(highlightedTiles.get(i).getUnit())){
-						tilesToClear.add(highlightedTiles.get(i));
-					}
-				}
+		// Display highlighted tiles
+		BasicCommands.beginBatch(out);
+		for(Tile t: board.getHighlightedTiles()){
+			if((enemy & Board.bit(t)) != 0){
+				board.drawTile(out,t, 2);
+			} else {
+				board.drawTile(out,t, 1);
 			}
+		}
+		BasicCommands.endBatch(out);
 
-			highlightedTiles.removeAll(tilesToClear);
-			tilesToClear.clear();
-
-			// Stage 3: Highlight enemy around the border
-			for(int i = 0; i < highlightedTiles.size(); i++){
-				int htx = highlightedTiles.get(i).getTilex();
-				int hty = highlightedTiles.get(i).getTiley();
-				int ax = Math.abs(X - htx);
-				int ay = Math.abs(Y - hty);
-				if(highlightedTiles.get(i).getUnit() == null){
-					if(ax+ay == 2){
-						for(int x = htx-1; x <= htx+1; x++){
-							for(int y = hty-1; y <= hty+1; y++){
-								try{
-									Tile t = gameState.getBoard().getTile(x, y);
-									if (!highlightedTiles.contains(t) && enemyUnits.contains(t.getUnit())){
-										tilesToAdd.add(t);
-									}
-								} catch (Exception ignored){}
-							}
-						}
-					}
-				}
-
-			}
+		// a ranged unit can also attack any enemy in range without moving
+		if(hasRangedAttack() && !hasAttacked) displayInRangeAttackTiles(out, tile, board);
+	}
 
-			highlightedTiles.addAll(tilesToAdd);
-			tilesToAdd.clear();
+	/**
+	 * The tiles this unit can move to from the tile, as highlighted by displayMovementTiles(), along with
+	 * the enemies within that reach that it can move next to. Nothing is drawn or highlighted.
+	 * The default is a diamond of two steps, leaving out tiles that can only be reached through enemies
+	 * and tiles holding friendly units.
+	 * @param tile the unit's tile.
+	 * @param board the current state of the board.
+	 * @return mask of the tiles.
+	 */
+	public long movementMask(Tile tile, Board board){
+		long friendly = board.getFriendlyMask(this);
+		// reach through empty or friendly tiles, but not onto friendly units
+		return Board.reachMask(tile, ~board.getOccupiedMask() | friendly) & ~friendly;
+	}
 
+	/**
+	 * The enemies next to the edge of the unit's movement that it can move up to and attack, as
+	 * highlighted by displayMovementTiles() after the movement tiles. Nothing is drawn or highlighted.
+	 * @param tile the unit's tile.
+	 * @param board the current state of the board.
+	 * @param movement the unit's movementMask().
+	 * @return mask of the enemy tiles not already in movement.
+	 */
+	public long borderAttackMask(Tile tile, Board board, long movement){
+		long border = movement & ~board.getOccupiedMask() & Board.rangeMask(tile, 2) & ~Board.rangeMask(tile, 1);
+		long enemies = 0;
+		for(long m = border; m != 0; m &= m - 1){
+			enemies |= Board.adjacentMask(board.getTile(Long.numberOfTrailingZeros(m)));
 		}
+		return enemies & board.getEnemyMask(this) & ~movement;
+	}
 
-		// Display highlighted tiles
-		for(Tile t: gameState.getBoard().getHighlightedTiles()){
-			if(gameState.getBoard().getEnemyUnits(tile.getUnit()).contains(t.getUnit())){
-				BasicCommands.drawTile(out,t, 2);
-				try {Thread.sleep(20);} catch (InterruptedException e) {e.printStackTrace();}
-			} else {
-				BasicCommands.drawTile(out,t, 1);
-				try {Thread.sleep(20);} catch (InterruptedException e) {e.printStackTrace();}
-			}
+	/**
+	 * The enemies this unit can attack from the tile without moving, ignoring provoke.
+	 * Nothing is drawn or highlighted.
+	 * @param tile the unit's tile.
+	 * @param board the current state of the board.
+	 * @return mask of the enemy tiles within BASE_ATTACK_RANGE.
+	 */
+	public long attackMask(Tile tile, Board board){
+		return Board.squareMask(tile, BASE_ATTACK_RANGE - 1) & board.getEnemyMask(this);
+	}
+
+	/**
+	 * @param tile the unit's tile.
+	 * @param board the current state of the board.
+	 * @return the bit of the first enemy next to the tile that has provoke, 0 if there is none.
+	 */
+	public long provokeMask(Tile tile, Board board){
+		for (long m = Board.adjacentMask(tile) & board.getEnemyMask(this); m != 0; m &= m - 1) {
+			int i = Long.numberOfTrailingZeros(m);
+			if (board.getTile(i).getUnit().hasProvoked) return 1L << i;
 		}
+		return 0;
+	}
 
+	/**
+	 * @return true if the unit can attack enemies out of reach of its movement without moving, e.g. Pyromancer.
+	 */
+	public boolean hasRangedAttack(){
+		return false;
 	}
 
 	/**
@@ -501,34 +506,12 @@ public class Unit {
 	 * @return true if next to a unit with provoke. False otherwise.
 	 */
 	protected boolean nexToProvokeUnit(Tile tile, Board board, ActorRef out) {
-		int player = 1;
-		if (board.getPlayer2Units().contains(this)) player = 2;
-		for (int x = tile.getTilex() - 1; x <= tile.getTilex() + 1; x++) {
-			for (int y = tile.getTiley() - 1; y <= tile.getTiley() + 1; y++) {
-				if (x < board.getX() &&
-						y < board.getY()
-						&& x >= 0 && y >= 0) {
-					Tile tileToCheck = board.getTile(x, y);
-					if (tileToCheck.getUnit() != null && tileToCheck.getUnit().hasProvoked) {
-						Unit unit = tileToCheck.getUnit();
-						if (player == 1) {
-							if (board.getPlayer2Units().contains(unit)) {
-								board.getHighlightedTiles().add(tileToCheck);
-								BasicCommands.drawTile(out, tileToCheck, 2);
-								return true;
-							}
-						} else {
-							if (board.getPlayer1Units().contains(unit)) {
-								board.getHighlightedTiles().add(tileToCheck);
-								BasicCommands.drawTile(out, tileToCheck, 2);
-								return true;
-							}
-						}
-					}
-				}
-			}
-		}
-		return false;
+		long provoker = provokeMask(tile, board);
+		if (provoker == 0) return false;
+		Tile tileToCheck = board.getTile(Long.numberOfTrailingZeros(provoker));
+		board.addHighlightedTile(tileToCheck);
+		board.drawTile(out, tileToCheck, 2);
+		return true;
 	}
 
 	/**
@@ -545,25 +528,24 @@ public class Unit {
 	private void findActionableTiles(int x, int y, Tile tile, Board board, ActorRef out){
 		int X = tile.getTilex();
 		int Y = tile.getTiley();
-		List<Unit> enemyList = board.getEnemyUnits(this);
+		long enemies = board.getEnemyMask(this);
 		if(!(x == X && y == Y) &&
 				x < board.getX() &&
 				y < board.getY()
 				&& x >= 0 && y >= 0){
 			if(board.getTile(x,y).unit != null){
-				Unit unit = board.getTile(x,y).getUnit();
 				//if there is an enemy unit and this unit can attack it, add to highlighted tiles
-				if(enemyList.contains(unit)){
+				if((enemies & Board.bit(board.getTile(x,y))) != 0){
 					if(!hasAttacked){
 						Tile highlightedTile = board.getTile(x,y);
-						board.getHighlightedTiles().add(highlightedTile);
+						board.addHighlightedTile(highlightedTile);
 					}
 				}
 			}
 			else {
 				//also add the movable tiles to highlighted tiles
 				Tile highlightedTile = board.getTile(x,y);
-				board.getHighlightedTiles().add(highlightedTile);
+				board.addHighlightedTile(highlightedTile);
 			}
 		}
 		//if a unit hasn't attacked check the border cases.
@@ -583,23 +565,22 @@ public class Unit {
 	* @param out - game actor reference
 	*/
 	public void moveUnit(Tile tile, ActorRef out, GameState gameState){
-		if(gameState.getBoard().getHighlightedTiles().contains(tile)){
+		if(gameState.getBoard().isHighlighted(tile)){
 			Tile tilePath = gameState.getBoard().getTile(tile.getTilex(), gameState.getBoard().getLastTile().getTiley());
 			int distance = calculateDistanceToTile(tilePath);
 			//Checks wether the path to the unit is blocked. If so it takes an alternate path. 
 			if(tilePath.getUnit()==null){
 				BasicCommands.moveUnitToTile(out,this,tile);
-				try {Thread.sleep(1600 * distance);} catch (InterruptedException e) {e.printStackTrace();}
+				BasicCommands.pause(out, 1600 * distance);
 			}else{
 				Boolean yfirst=true;
 				BasicCommands.moveUnitToTile(out,this,tile,yfirst);
-				try {Thread.sleep(1600 * distance);} catch (InterruptedException e) {e.printStackTrace();}
+				BasicCommands.pause(out, 1600 * distance);
 			}
 				this.setPositionByTile(tile);
 				gameState.getBoard().clearHighlightedTiles();
-				tile.addUnit(this);
-				gameState.getBoard().getLastTile().removeUnit();
-				hasMoved=true;
+				gameState.getBoard().moveUnit(gameState.getBoard().getLastTile(), tile);
+				setHasMoved(true);
 		}
 	}
 
@@ -672,9 +653,9 @@ public class Unit {
 		moveUnit(attackMoveTile, out, gameState);
 
 		gameState.getBoard().clearHighlightedTiles();
-		hasMoved=true;
+		setHasMoved(true);
 		//The Attack method is called here after the unit has moved. 
-		try {Thread.sleep(250);} catch (InterruptedException e) {e.printStackTrace();}
+		BasicCommands.pause(out, 250);
 
 		this.attack(tile.getUnit(), gameState, out);
 
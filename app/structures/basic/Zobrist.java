@@ -0,0 +1,97 @@
+package structures.basic;
+
+/**
+ * Zobrist keys for game positions. Every feature of a position (a unit on a tile, a unit's health
+ * and attack, a player's mana, a card in hand, ...) gets a pseudo random 64 bit key, and a position's
+ * key is the XOR of the keys of its features. Adding or removing a feature is one XOR, so keys can
+ * be kept up to date as the game changes, see Board.getKey() and GameState.getPositionKey().
+ *
+ * Instead of random tables, the feature and its values are packed into one long and scrambled with
+ * the SplitMix64 finaliser. The finaliser is a bijection, so different features never share a key
+ * as long as the packing is unique: unit IDs must fit in 24 bits and health, attack, mana, hand
+ * positions and card IDs in 16 bits, far more than a game gets near.
+ *
+ * @author The team
+ */
+public final class Zobrist {
+
+	private static final int UNIT = 1;
+	private static final int STATS = 2;
+	private static final int FLAGS = 3;
+	private static final int MANA = 4;
+	private static final int HAND = 5;
+	private static final int DECK = 6;
+	private static final int SIDE = 7;
+	private static final int TURN = 8;
+
+	private Zobrist() {}
+
+	/**
+	 * @param unitId - the unit's ID
+	 * @param tileIndex - the tile it stands on, see Board.index()
+	 */
+	public static long unit(int unitId, int tileIndex) {
+		return key(UNIT, unitId, tileIndex, 0);
+	}
+
+	public static long stats(int unitId, int health, int attack) {
+		return key(STATS, unitId, health, attack);
+	}
+
+	/**
+	 * @param unitId - the unit's ID
+	 * @param hasMoved - see Unit.getHasMoved()
+	 * @param hasAttacked - see Unit.getHasAttacked()
+	 * @param attackCount - see Unit.getAttackCount()
+	 */
+	public static long flags(int unitId, boolean hasMoved, boolean hasAttacked, int attackCount) {
+		return key(FLAGS, unitId, (hasMoved ? 1 : 0) | (hasAttacked ? 2 : 0), attackCount);
+	}
+
+	public static long mana(int playerNumber, int mana) {
+		return key(MANA, playerNumber, mana, 0);
+	}
+
+	/**
+	 * @param playerNumber - 1 or 2
+	 * @param handPosition - position in the hand, from 0
+	 * @param cardId - the card's ID
+	 */
+	public static long hand(int playerNumber, int handPosition, int cardId) {
+		return key(HAND, playerNumber, handPosition, cardId);
+	}
+
+	/**
+	 * @param playerNumber - 1 or 2
+	 * @param size - cards left in the deck
+	 * @param nextCardId - ID of the card drawn next, -1 if the deck is empty
+	 */
+	public static long deck(int playerNumber, int size, int nextCardId) {
+		return key(DECK, playerNumber, size, nextCardId);
+	}
+
+	/**
+	 * @param playerNumber - the player whose turn it is
+	 */
+	public static long side(int playerNumber) {
+		return key(SIDE, playerNumber, 0, 0);
+	}
+
+	/**
+	 * @param turn - the turn number, mana is refilled from it
+	 */
+	public static long turn(int turn) {
+		return key(TURN, turn, 0, 0);
+	}
+
+	// feature in 8 bits, a in 24, b and c in 16 each
+	private static long key(int feature, int a, int b, int c) {
+		return mix((long) feature << 56 | (long) (a & 0xFFFFFF) << 32 | (long) (b & 0xFFFF) << 16 | (c & 0xFFFF));
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
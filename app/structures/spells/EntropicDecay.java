@@ -6,7 +6,7 @@ import structures.GameState;
 import structures.basic.Spell;
 import structures.basic.Tile;
 import structures.units.Avatar;
-import utils.BasicObjectBuilders;
+import utils.PrototypeRegistry;
 import utils.StaticConfFiles;
 import structures.basic.Unit;
 
@@ -19,8 +19,8 @@ public class EntropicDecay extends Spell {
     public void spell(ActorRef out, GameState gameState, Tile tile){
 
         //Entropic Decay animation
-        BasicCommands.playEffectAnimation(out, BasicObjectBuilders.loadEffect(StaticConfFiles.f1_martyrdom), tile);
-        try {Thread.sleep(250);} catch (InterruptedException e) {e.printStackTrace();}
+        BasicCommands.playEffectAnimation(out, PrototypeRegistry.loadEffect(StaticConfFiles.f1_martyrdom), tile);
+        BasicCommands.pause(out, 250);
 
         //First check whether it is not an avatar
         //Then use damage method
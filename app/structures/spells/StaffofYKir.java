@@ -6,7 +6,7 @@ import structures.GameState;
 import structures.basic.Spell;
 import structures.basic.Tile;
 import structures.units.Avatar;
-import utils.BasicObjectBuilders;
+import utils.PrototypeRegistry;
 import utils.StaticConfFiles;
 
 /* This is the Staff of Kir Class that will add +2 attack to
@@ -16,8 +16,8 @@ public class StaffofYKir extends Spell{
     public void spell(ActorRef out, GameState gameState, Tile tile){
 
         //Buff animation
-        BasicCommands.playEffectAnimation(out, BasicObjectBuilders.loadEffect(StaticConfFiles.f1_buff), tile);
-        try {Thread.sleep(250);} catch (InterruptedException e) {e.printStackTrace();}
+        BasicCommands.playEffectAnimation(out, PrototypeRegistry.loadEffect(StaticConfFiles.f1_buff), tile);
+        BasicCommands.pause(out, 250);
 
         //Checks first whether unit is an avatar or not
         //Then it increases the attacak attribute +2
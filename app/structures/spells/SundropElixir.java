@@ -10,7 +10,7 @@ import structures.basic.Player;
 import structures.basic.Spell;
 import structures.basic.Tile;
 import structures.basic.Unit;
-import utils.BasicObjectBuilders;
+import utils.PrototypeRegistry;
 import utils.StaticConfFiles;
 
 /* This is the Sundrop Elixir Class that will add +5 health to a
@@ -20,8 +20,8 @@ public class SundropElixir extends Spell{
     public void spell(ActorRef out, GameState gameState, Tile tile){
 
         //Buff animation
-        BasicCommands.playEffectAnimation(out, BasicObjectBuilders.loadEffect(StaticConfFiles.f1_buff), tile);
-        try {Thread.sleep(250);} catch (InterruptedException e) {e.printStackTrace();}
+        BasicCommands.playEffectAnimation(out, PrototypeRegistry.loadEffect(StaticConfFiles.f1_buff), tile);
+        BasicCommands.pause(out, 250);
 
         tile.getUnit().heal(5);
 
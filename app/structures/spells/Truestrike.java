@@ -5,7 +5,7 @@ import commands.BasicCommands;
 import structures.GameState;
 import structures.basic.Spell;
 import structures.basic.Tile;
-import utils.BasicObjectBuilders;
+import utils.PrototypeRegistry;
 import utils.StaticConfFiles;
 import structures.basic.Unit;
 
@@ -16,8 +16,8 @@ public class Truestrike extends Spell{
     public void spell(ActorRef out, GameState gameState, Tile tile){
 
         //Truestrike animation
-        BasicCommands.playEffectAnimation(out, BasicObjectBuilders.loadEffect(StaticConfFiles.f1_inmolation), tile);
-        try {Thread.sleep(250);} catch (InterruptedException e) {e.printStackTrace();}
+        BasicCommands.playEffectAnimation(out, PrototypeRegistry.loadEffect(StaticConfFiles.f1_inmolation), tile);
+        BasicCommands.pause(out, 250);
 
         //Deals 2 damage to enemy unit
         tile.getUnit().takeDamage(2, gameState, out);
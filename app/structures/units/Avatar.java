@@ -31,6 +31,14 @@ public class Avatar extends Unit {
     public Player getPlayer(){
         return player;
     }
+
+    /**
+     * Binds a copied avatar to the copied player, see GameState.copy().
+     * @param player the player who this avatar represents
+     */
+    public void setPlayer(Player player){
+        this.player = player;
+    }
     /**
      * Whenever the avatar is healed, the player should be healed too.
      * @param amount the amount by which to increase health
@@ -72,12 +80,12 @@ public class Avatar extends Unit {
             if(player.getPlayerNumber() == 1){
                 BasicCommands.setPlayer1Health(out, player);
                 //SilverguardKnight effect
-                gameState.getBoard().getPlayer1Units().parallelStream()
+                gameState.getBoard().getPlayer1Units().stream()
                         .filter(unit -> unit instanceof SilverguardKnight)
                         .forEach(unit -> {
                             SilverguardKnight knight = (SilverguardKnight) unit;
                             unit.setAttack(unit.getAttack()+2);
-                            try {Thread.sleep(100);} catch (InterruptedException e) {e.printStackTrace();}
+                            BasicCommands.pause(out, 100);
                             BasicCommands.setUnitAttack(out, knight, knight.getAttack());
                         });
             }
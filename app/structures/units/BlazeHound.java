@@ -1,7 +1,6 @@
 package structures.units;
 
 import akka.actor.ActorRef;
-import structures.GameState;
 import structures.basic.Board;
 import structures.basic.Player;
 import structures.basic.Tile;
@@ -27,12 +26,12 @@ public class BlazeHound extends Unit {
         super.summon(out, tile, player, board);
         List<Unit> units = new ArrayList<>(board.getPlayer1Units());
         units.addAll(board.getPlayer2Units());
-        units.stream().parallel()
+        units.stream()
                 .filter(unit -> unit instanceof Avatar)
                 .forEach(unit -> {
                     Player n = ((Avatar) unit).getPlayer();
                     n.draw(out);
-                    if(n.getPlayerNumber() == 1) new GameState().displayCurrentHandCards(out, n);
+                    if(n.getPlayerNumber() == 1) n.displayHand(out);
                 });
     }
 }
@@ -1,6 +1,9 @@
 package structures.units;
 
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import akka.actor.ActorRef;
 import commands.BasicCommands;
 import structures.GameState;
@@ -10,7 +13,7 @@ import structures.basic.Position;
 import structures.basic.Tile;
 import structures.basic.Unit;
 import structures.basic.UnitAnimationType;
-import utils.BasicObjectBuilders;
+import utils.PrototypeRegistry;
 import utils.StaticConfFiles;
 
 
@@ -19,6 +22,8 @@ any enemy on the board.
 */
 public class FireSpitter extends Unit {
 
+    private static final Logger log = LoggerFactory.getLogger(FireSpitter.class);
+
     /**
      * Has the ranged attack Ability
      * @param unit the unit to attack.
@@ -32,9 +37,9 @@ public class FireSpitter extends Unit {
 
     @Override
     public void attack(Unit unit, GameState gameState, ActorRef out) {
-        if(!this.hasAttacked) {
+        if(!getHasAttacked()) {
 			
-            EffectAnimation projectile = BasicObjectBuilders.loadEffect(StaticConfFiles.f1_projectiles);
+            EffectAnimation projectile = PrototypeRegistry.loadEffect(StaticConfFiles.f1_projectiles);
             Position attacker, enemy;
             attacker = this.getPosition();
             enemy = unit.getPosition();
@@ -43,37 +48,28 @@ public class FireSpitter extends Unit {
 
             BasicCommands.playUnitAnimation(out, this, UnitAnimationType.attack);
             BasicCommands.playProjectileAnimation(out, projectile, 0, attackerTile, enemyTile);
-            try {Thread.sleep(2000);} catch (InterruptedException e) {e.printStackTrace();}
+            BasicCommands.pause(out, 2000);
 
-			try {
-				Thread.sleep(250);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
+			BasicCommands.pause(out, 250);
 			unit.takeDamage(this.getAttack(), gameState, out);
-			try {
-				Thread.sleep(1000);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
+			BasicCommands.pause(out, 1000);
             unit.counter(this, gameState, out);
-			hasAttacked = true;
-			hasMoved = true;
+			setHasAttacked(true);
+			setHasMoved(true);
 		}
-		else System.out.println("Unit already attacked!");
+		else log.debug("unit={} already attacked", getId());
     }
 
+    //Can attack enemies anywhere on the board without moving, so they are shown with the movement tiles.
     @Override
-    public void displayMovementTiles(ActorRef out, Tile tile, GameState gameState) {
-        super.displayMovementTiles(out, tile, gameState);
-        if(!this.getHasAttacked())
-            this.displayInRangeAttackTiles(out, tile, gameState.getBoard());
+    public boolean hasRangedAttack() {
+        return true;
     }
 
     @Override
     public void attackMoveUnit(Tile tile, ActorRef out, GameState gameState){
         this.attack(tile.getUnit(), gameState, out);
-        System.out.println("AttackMove");
+        log.debug("unit={} attack move to tile={},{}", getId(), tile.getTilex(), tile.getTiley());
     }
 
     
@@ -13,8 +13,8 @@ public class PurebladeEnforcer extends Unit {
         this.setAttack(this.getAttack()+1);
         this.setHealth(this.getHealth()+1);
         BasicCommands.setUnitAttack(out, this, getAttack());
-        try {Thread.sleep(20);} catch (InterruptedException e) {e.printStackTrace();}
+        BasicCommands.pause(out, 20);
         BasicCommands.setUnitHealth(out, this, getHealth());
-        try {Thread.sleep(20);} catch (InterruptedException e) {e.printStackTrace();}
+        BasicCommands.pause(out, 20);
     }
 }
@@ -1,5 +1,8 @@
 package structures.units;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import akka.actor.ActorRef;
 import commands.BasicCommands;
 import structures.GameState;
@@ -9,7 +12,7 @@ import structures.basic.Position;
 import structures.basic.Tile;
 import structures.basic.Unit;
 import structures.basic.UnitAnimationType;
-import utils.BasicObjectBuilders;
+import utils.PrototypeRegistry;
 import utils.StaticConfFiles;
 
 
@@ -19,6 +22,8 @@ attack any enemy on the board
 */
 public class Pyromancer extends Unit {
 
+    private static final Logger log = LoggerFactory.getLogger(Pyromancer.class);
+
     public Pyromancer(){
         super.BASE_ATTACK_RANGE = 15;
     }
@@ -27,8 +32,8 @@ public class Pyromancer extends Unit {
     //It attacks the ranged enemy and plays the projectile animation. 
     @Override
     public void attack(Unit unit, GameState gameState, ActorRef out) {
-        if(!this.hasAttacked) {
-            EffectAnimation projectile = BasicObjectBuilders.loadEffect(StaticConfFiles.f1_projectiles);
+        if(!getHasAttacked()) {
+            EffectAnimation projectile = PrototypeRegistry.loadEffect(StaticConfFiles.f1_projectiles);
             Position attacker, enemy;
             attacker = this.getPosition();
             enemy = unit.getPosition();
@@ -37,37 +42,27 @@ public class Pyromancer extends Unit {
 
             BasicCommands.playUnitAnimation(out, this, UnitAnimationType.attack);
             BasicCommands.playProjectileAnimation(out, projectile, 0, attackerTile, enemyTile);
-            try {Thread.sleep(1000);} catch (InterruptedException e) {e.printStackTrace();}
+            BasicCommands.pause(out, 1000);
 
-			try {
-				Thread.sleep(250);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
+			BasicCommands.pause(out, 250);
 			unit.takeDamage(this.getAttack(), gameState, out);
-			try {
-				Thread.sleep(250);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
+			BasicCommands.pause(out, 250);
             unit.counter(this, gameState, out);
-			hasAttacked = true;
-			hasMoved = true;
+			setHasAttacked(true);
+			setHasMoved(true);
 		}
-		else System.out.println("Unit already attacked!");
+		else log.debug("unit={} already attacked", getId());
     }
-    //This overrides the standard diplay movement tiles method to show ranged enemies. 
+    //Can attack enemies anywhere on the board without moving, so they are shown with the movement tiles.
     @Override
-    public void displayMovementTiles(ActorRef out, Tile tile, GameState gameState) {
-        super.displayMovementTiles(out, tile, gameState);
-        if(!this.getHasAttacked())
-            this.displayInRangeAttackTiles(out, tile, gameState.getBoard());
+    public boolean hasRangedAttack() {
+        return true;
     }
     //Overrides the attack move so that this unit does not move to perform its ranged attack. 
     @Override
     public void attackMoveUnit(Tile tile, ActorRef out, GameState gameState){
         this.attack(tile.getUnit(), gameState, out);
-        System.out.println("AttackMove");
+        log.debug("unit={} attack move to tile={},{}", getId(), tile.getTilex(), tile.getTiley());
     }
 
 
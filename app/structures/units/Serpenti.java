@@ -14,7 +14,6 @@ turn
 public class Serpenti extends Unit{
 
     final int MAX_ATTACK_TURN = 2;
-    int attackTurn = 0;
 
     /**
      * Can attack twice per turn
@@ -25,22 +24,22 @@ public class Serpenti extends Unit{
     @Override
     public void attack(Unit unit, GameState gameState, ActorRef out) {
         super.attack(unit, gameState, out);
-        attackTurn++;
+        setAttackCount(getAttackCount() + 1);
         //if the attack turn is less than 2, reset hasAttack
-        if(attackTurn < MAX_ATTACK_TURN){
-            hasAttacked = false;
-            hasMoved = true;
+        if(getAttackCount() < MAX_ATTACK_TURN){
+            setHasAttacked(false);
+            setHasMoved(true);
         }
     }
     //this overrides the summon 
     @Override
     public void summon(ActorRef out, Tile tile, Player player, Board board) {
         super.summon(out, tile, player, board);
-        attackTurn = MAX_ATTACK_TURN;
+        setAttackCount(MAX_ATTACK_TURN);
     }
 
     public void resetAttackTurn(){
-        attackTurn = 0;
+        setAttackCount(0);
     }
 
 }
\ No newline at end of file
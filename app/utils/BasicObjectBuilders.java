@@ -1,6 +1,9 @@
 package utils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,6 +24,8 @@ public class BasicObjectBuilders {
 	@JsonIgnore
 	protected static ObjectMapper mapper = new ObjectMapper(); // Jackson Java Object Serializer, is used to read java objects from a file
 	
+	private static final AtomicInteger filesRead = new AtomicInteger(); // see getFilesRead()
+	
 	/**
 	 * This class produces a Card object (or anything that extends Card) given a configuration
 	 * file. Configuration files can be found in the conf/gameconfs directory. The card should
@@ -36,7 +41,7 @@ public class BasicObjectBuilders {
 	 */
 	public static Card loadCard(String configurationFile, int id, Class<? extends Card> classtype) {
 		try {
-			Card card = mapper.readValue(new File(configurationFile), classtype);
+			Card card = mapper.readValue(configFile(configurationFile), classtype);
 			card.setId(id);
 			return card;
 		} catch (Exception e) {
@@ -54,7 +59,7 @@ public class BasicObjectBuilders {
 	 */
 	public static EffectAnimation loadEffect(String configurationFile) {
 		try {
-			EffectAnimation effect = mapper.readValue(new File(configurationFile), EffectAnimation.class);
+			EffectAnimation effect = mapper.readValue(configFile(configurationFile), EffectAnimation.class);
 			return effect;
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -74,7 +79,7 @@ public class BasicObjectBuilders {
 	public static Unit loadUnit(String configFile, int id,  Class<? extends Unit> classType) {
 		
 		try {
-			Unit unit = mapper.readValue(new File(configFile), classType);
+			Unit unit = mapper.readValue(configFile(configFile), classType);
 			unit.setId(id);
 			return unit;
 		} catch (Exception e) {
@@ -86,7 +91,20 @@ public class BasicObjectBuilders {
 	}
 	
 	/**
-	 * Generates a tile object with x and y indices
+	 * The tile read from tileConf the first time a tile is needed. Its texture list is made
+	 * unmodifiable and shared by every tile, so a board is built without reading any file.
+	 */
+	private static class TileTemplate {
+		static final Tile TILE = Tile.constructTile(StaticConfFiles.tileConf);
+		static {
+			filesRead.incrementAndGet();
+			TILE.setTileTextures(Collections.unmodifiableList(new ArrayList<String>(TILE.getTileTextures())));
+		}
+	}
+
+	/**
+	 * Generates a tile object with x and y indices. The tile is a copy of the template read
+	 * once from tileConf, see TileTemplate.
 	 * @param x
 	 * @param y
 	 * @return
@@ -96,14 +114,27 @@ public class BasicObjectBuilders {
 		int gridTopLeftx = 410;
 		int gridTopLefty = 280;
 		
-		Tile tile = Tile.constructTile(StaticConfFiles.tileConf);
-		tile.setXpos((tile.getWidth()*x)+(gridmargin*x)+gridTopLeftx);
-		tile.setYpos((tile.getHeight()*y)+(gridmargin*y)+gridTopLefty);
-		tile.setTilex(x);
-		tile.setTiley(y);
-		
-		return tile;
+		Tile template = TileTemplate.TILE;
+		return new Tile(template.getTileTextures(),
+				(template.getWidth()*x)+(gridmargin*x)+gridTopLeftx,
+				(template.getHeight()*y)+(gridmargin*y)+gridTopLefty,
+				template.getWidth(), template.getHeight(), x, y);
 		
 	}
 	
+	/**
+	 * @return the number of configuration files read so far by the loaders of this class, the
+	 * tile template and PrototypeRegistry. A game started after PrototypeRegistry.preload()
+	 * should not change it.
+	 */
+	public static int getFilesRead() {
+		return filesRead.get();
+	}
+	
+	// every configuration file is opened here, so that getFilesRead() sees it
+	static File configFile(String name) {
+		filesRead.incrementAndGet();
+		return new File(name);
+	}
+	
 }
@@ -0,0 +1,155 @@
+package utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import structures.basic.Card;
+import structures.basic.Spell;
+import structures.basic.Unit;
+import structures.spells.EntropicDecay;
+import structures.spells.StaffofYKir;
+import structures.spells.SundropElixir;
+import structures.spells.Truestrike;
+import structures.units.AzureHerald;
+import structures.units.AzuriteLion;
+import structures.units.BlazeHound;
+import structures.units.FireSpitter;
+import structures.units.HailstoneGolem;
+import structures.units.IroncliffGuardian;
+import structures.units.PurebladeEnforcer;
+import structures.units.Pyromancer;
+import structures.units.RockPulveriser;
+import structures.units.Serpenti;
+import structures.units.SilverguardKnight;
+import structures.units.WindShrike;
+
+/**
+ * The table from a card to what playing it creates: for a unit card its configuration files and unit
+ * subclass, for a spell card its Spell. The table is written out below, so playing a card looks up a
+ * map instead of building class and field names and finding them by reflection.
+ *
+ * Cards are looked up by name, as the card ids only give a card's position in a deck. A name missing
+ * from the table is an error: check() finds it at startup for every card in both decks, and lookup()
+ * throws for any other.
+ *
+ * Spells keep no state, so each spell card has a single Spell shared by every game.
+ *
+ * @author The team
+ */
+public final class CardRegistry {
+
+    /**
+     * What one card creates when played.
+     */
+    public static final class Entry {
+        private final String cardConfig;
+        private final String unitConfig; // null for spells
+        private final String reflectedUnitConfig; // the unit as player 2 summons it
+        private final Class<? extends Unit> unitType;
+        private final Spell spell; // null for units
+
+        private Entry(String cardConfig, String unitConfig, String reflectedUnitConfig, Class<? extends Unit> unitType, Spell spell) {
+            this.cardConfig = cardConfig;
+            this.unitConfig = unitConfig;
+            this.reflectedUnitConfig = reflectedUnitConfig;
+            this.unitType = unitType;
+            this.spell = spell;
+        }
+
+        public boolean isSpell() {
+            return spell != null;
+        }
+
+        public String getCardConfig() {
+            return cardConfig;
+        }
+
+        /**
+         * @param playerOne whether player one is summoning the unit
+         * @return the unit's configuration file.
+         */
+        public String getUnitConfig(boolean playerOne) {
+            return playerOne ? unitConfig : reflectedUnitConfig;
+        }
+
+        public Class<? extends Unit> getUnitType() {
+            return unitType;
+        }
+
+        public Spell getSpell() {
+            return spell;
+        }
+    }
+
+    private static final Map<String, Entry> entries;
+
+    static {
+        Map<String, Entry> table = new HashMap<>();
+        // Deck 1
+        unit(table, "Comodo Charger", StaticConfFiles.c_comodo_charger, StaticConfFiles.u_comodo_charger, Unit.class);
+        unit(table, "Azure Herald", StaticConfFiles.c_azure_herald, StaticConfFiles.u_azure_herald, AzureHerald.class);
+        unit(table, "Azurite Lion", StaticConfFiles.c_azurite_lion, StaticConfFiles.u_azurite_lion, AzuriteLion.class);
+        unit(table, "Fire Spitter", StaticConfFiles.c_fire_spitter, StaticConfFiles.u_fire_spitter, FireSpitter.class);
+        table.put("Hailstone Golem", new Entry(StaticConfFiles.c_hailstone_golem, StaticConfFiles.u_hailstone_golem,
+                StaticConfFiles.u_hailstone_golemR, HailstoneGolem.class, null));
+        unit(table, "Ironcliff Guardian", StaticConfFiles.c_ironcliff_guardian, StaticConfFiles.u_ironcliff_guardian, IroncliffGuardian.class);
+        unit(table, "Pureblade Enforcer", StaticConfFiles.c_pureblade_enforcer, StaticConfFiles.u_pureblade_enforcer, PurebladeEnforcer.class);
+        unit(table, "Silverguard Knight", StaticConfFiles.c_silverguard_knight, StaticConfFiles.u_silverguard_knight, SilverguardKnight.class);
+        spell(table, "Truestrike", StaticConfFiles.c_truestrike, new Truestrike());
+        spell(table, "Sundrop Elixir", StaticConfFiles.c_sundrop_elixir, new SundropElixir());
+        // Deck 2
+        unit(table, "Blaze Hound", StaticConfFiles.c_blaze_hound, StaticConfFiles.u_blaze_hound, BlazeHound.class);
+        unit(table, "Bloodshard Golem", StaticConfFiles.c_bloodshard_golem, StaticConfFiles.u_bloodshard_golem, Unit.class);
+        unit(table, "Planar Scout", StaticConfFiles.c_planar_scout, StaticConfFiles.u_planar_scout, Unit.class);
+        unit(table, "Pyromancer", StaticConfFiles.c_pyromancer, StaticConfFiles.u_pyromancer, Pyromancer.class);
+        unit(table, "Rock Pulveriser", StaticConfFiles.c_rock_pulveriser, StaticConfFiles.u_rock_pulveriser, RockPulveriser.class);
+        unit(table, "Serpenti", StaticConfFiles.c_serpenti, StaticConfFiles.u_serpenti, Serpenti.class);
+        unit(table, "WindShrike", StaticConfFiles.c_windshrike, StaticConfFiles.u_windshrike, WindShrike.class);
+        spell(table, "Staff of Y'Kir'", StaticConfFiles.c_staff_of_ykir, new StaffofYKir());
+        spell(table, "Entropic Decay", StaticConfFiles.c_entropic_decay, new EntropicDecay());
+        entries = Collections.unmodifiableMap(table);
+    }
+
+    private CardRegistry() {}
+
+    private static void unit(Map<String, Entry> table, String cardName, String cardConfig, String unitConfig, Class<? extends Unit> unitType) {
+        table.put(cardName, new Entry(cardConfig, unitConfig, unitConfig, unitType, null));
+    }
+
+    private static void spell(Map<String, Entry> table, String cardName, String cardConfig, Spell spell) {
+        table.put(cardName, new Entry(cardConfig, null, null, null, spell));
+    }
+
+    /**
+     * @param cardName the card's name, as in its configuration file
+     * @return what the card creates when played.
+     * @throws IllegalArgumentException when the card is not in the table.
+     */
+    public static Entry lookup(String cardName) {
+        Entry entry = entries.get(cardName);
+        if (entry == null) throw new IllegalArgumentException("No unit or spell for the card " + cardName);
+        return entry;
+    }
+
+    /**
+     * Checks that every card in both decks is in the table and that its unit files load as its unit
+     * type, so that a missing card stops the server at startup rather than in a game.
+     * @return the number of cards in the table.
+     */
+    public static int check() {
+        List<Card> cards = OrderedCardLoader.getPlayer1Cards();
+        cards.addAll(OrderedCardLoader.getPlayer2Cards());
+        for (Card card : cards) {
+            Entry entry = lookup(card.getCardname());
+            if (entry.isSpell() != (card.getBigCard().getHealth() == -1)) {
+                throw new IllegalStateException("The card " + card.getCardname() + " is listed as the wrong kind of card");
+            }
+            if (entry.isSpell()) continue;
+            PrototypeRegistry.loadUnit(entry.getUnitConfig(true), 0, entry.getUnitType());
+            PrototypeRegistry.loadUnit(entry.getUnitConfig(false), 0, entry.getUnitType());
+        }
+        return entries.size();
+    }
+}
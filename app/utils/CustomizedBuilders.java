@@ -1,17 +1,11 @@
 package utils;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import scala.util.parsing.json.JSON;
 import scala.util.parsing.json.JSONObject;
 import structures.GameState;
 import structures.basic.Card;
 import structures.basic.Spell;
 import structures.basic.Unit;
-import structures.spells.*;
-
-import java.lang.reflect.Field;
 
 /* This class contains customized builders to create different objects */
 
@@ -27,8 +21,8 @@ public class CustomizedBuilders {
      */
     public static Unit loadSummon(String unitConfig, String cardConfig, int unitID, Class<? extends Unit> unitClassType){
 
-        Unit unit = BasicObjectBuilders.loadUnit(unitConfig, unitID, unitClassType);
-        Card card = BasicObjectBuilders.loadCard(cardConfig, 0, Card.class);
+        Unit unit = PrototypeRegistry.loadUnit(unitConfig, unitID, unitClassType);
+        Card card = PrototypeRegistry.loadCard(cardConfig, 0);
 
         assert unit != null;
         assert card != null;
@@ -40,42 +34,22 @@ public class CustomizedBuilders {
 
 
     /**
-     * A unit builder only intake card name and find out the corresponding config files and subclass.
+     * A unit builder only intake card name and find out the corresponding config files and subclass
+     * from CardRegistry. The unit and card are copied from PrototypeRegistry, no file is read.
      * @param cardName card name
      * @param gameState State of Game
      * @return unit
+     * @throws IllegalArgumentException when there is no unit for the card
      */
-    public static Unit loadSummonByName(String cardName, GameState gameState) throws NoSuchFieldException, IllegalAccessException, ClassNotFoundException {
+    public static Unit loadSummonByName(String cardName, GameState gameState) {
 
-        String className = "structures.units." + cardName.replace(" ", "");
-        cardName = cardName.replace(" ", "_").toLowerCase();
-        Class<StaticConfFiles> configFiles = StaticConfFiles.class;
-        Field unitField;
-        Field cardField;
+        CardRegistry.Entry entry = CardRegistry.lookup(cardName);
+        if (entry.isSpell()) throw new IllegalArgumentException(cardName + " is a spell card");
 
         // player 2 summon a reflected Hailstone Golem
-        if(cardName.equals("hailstone_golem") && !gameState.clickable){
-            unitField = configFiles.getDeclaredField("u_" + cardName + "R");
-        } else {
-            unitField = configFiles.getDeclaredField("u_" + cardName);
-        }
-        cardField = configFiles.getDeclaredField("c_" + cardName);
-
-        String unitConfig = unitField.get(configFiles).toString();
-        String cardConfig = cardField.get(configFiles).toString();
-
-        Unit unit;
-        Card card = BasicObjectBuilders.loadCard(cardConfig, 0, Card.class);
-        int newUnitID = gameState.getNewUnitID();
-        try {
-            unit = BasicObjectBuilders.loadUnit(unitConfig, newUnitID,
-                    Class.forName(className).asSubclass(Unit.class));
-        } catch (ClassNotFoundException e) {
-            unit = BasicObjectBuilders.loadUnit(unitConfig, newUnitID, Unit.class);
-        }
+        Unit unit = PrototypeRegistry.loadUnit(entry.getUnitConfig(gameState.clickable), gameState.getNewUnitID(), entry.getUnitType());
+        Card card = PrototypeRegistry.loadCard(entry.getCardConfig(), 0);
 
-        assert unit != null;
-        assert card != null;
         unit.setHealthWithMax(card.getBigCard().getHealth());
         unit.setAttack(card.getBigCard().getAttack());
 
@@ -86,19 +60,13 @@ public class CustomizedBuilders {
     /**
      * A spell builder using the card name.
      * @param cardName card name
-     * @return spell
+     * @return spell, shared by every caster
+     * @throws IllegalArgumentException when there is no spell for the card
      */
     public static Spell loadSpellByName(String cardName){
-        cardName = cardName.replace(" ","").replace("'", "");
-        String className = "structures.spells." + cardName;
-        Spell spell = null;
-        try {
-            spell = new ObjectMapper().readValue("{}", Class.forName(className).asSubclass(Spell.class));
-
-        } catch (ClassNotFoundException | JsonProcessingException e) {
-            e.printStackTrace();
-        }
-        return spell;
+        CardRegistry.Entry entry = CardRegistry.lookup(cardName);
+        if (!entry.isSpell()) throw new IllegalArgumentException(cardName + " is not a spell card");
+        return entry.getSpell();
     }
 
 }
@@ -6,7 +6,6 @@ import java.util.List;
 import java.util.Set;
 
 import structures.basic.Card;
-import structures.basic.Tile;
 import structures.basic.Unit;
 
 /**
@@ -19,7 +18,8 @@ public class ImageListForPreLoad {
 
 	/**
 	 * This method returns a very big list of relative locations of the different images
-	 * that are needed by the game. Pixi.js will cache these on game load.
+	 * that are needed by the game. Pixi.js will cache these on game load. The images are
+	 * taken from PrototypeRegistry, and PreloadManifest builds the list once for all sessions.
 	 * @return
 	 */
 	public static Set<String> getImageListForPreLoad() {
@@ -42,11 +42,11 @@ public class ImageListForPreLoad {
 		images.add("assets/game/extra/ui/button_primary.png");
 		
 		// Tiles
-		images.addAll(Tile.constructTile(StaticConfFiles.tileConf).getTileTextures());
+		images.addAll(BasicObjectBuilders.loadTile(0, 0).getTileTextures());
 		
 		// Avatars
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.humanAvatar, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.aiAvatar, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.humanAvatar, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.aiAvatar, -1, Unit.class).getAnimations().getAllFrames());
 		
 		// Deck 1 Cards
 		images.addAll(getCardImagesForPreload(StaticConfFiles.c_truestrike));
@@ -61,14 +61,14 @@ public class ImageListForPreLoad {
 		images.addAll(getCardImagesForPreload(StaticConfFiles.c_silverguard_knight));
 		
 		// Deck 1 Units
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_comodo_charger, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_azure_herald, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_azurite_lion, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_fire_spitter, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_hailstone_golem, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_ironcliff_guardian, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_pureblade_enforcer, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_silverguard_knight, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_comodo_charger, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_azure_herald, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_azurite_lion, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_fire_spitter, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_hailstone_golem, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_ironcliff_guardian, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_pureblade_enforcer, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_silverguard_knight, -1, Unit.class).getAnimations().getAllFrames());
 		
 		// Deck 2 Cards
 		images.addAll(getCardImagesForPreload(StaticConfFiles.c_staff_of_ykir));
@@ -83,28 +83,28 @@ public class ImageListForPreLoad {
 		images.addAll(getCardImagesForPreload(StaticConfFiles.c_serpenti));
 		
 		// Deck 2 Units
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_planar_scout, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_rock_pulveriser, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_pyromancer, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_bloodshard_golem, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_blaze_hound, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_windshrike, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_hailstone_golemR, -1, Unit.class).getAnimations().getAllFrames());
-		images.addAll(BasicObjectBuilders.loadUnit(StaticConfFiles.u_serpenti, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_planar_scout, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_rock_pulveriser, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_pyromancer, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_bloodshard_golem, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_blaze_hound, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_windshrike, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_hailstone_golemR, -1, Unit.class).getAnimations().getAllFrames());
+		images.addAll(PrototypeRegistry.loadUnit(StaticConfFiles.u_serpenti, -1, Unit.class).getAnimations().getAllFrames());
 		
 		
-		images.addAll(BasicObjectBuilders.loadEffect(StaticConfFiles.f1_projectiles).getAnimationTextures());
-		images.addAll(BasicObjectBuilders.loadEffect(StaticConfFiles.f1_buff).getAnimationTextures());
-		images.addAll(BasicObjectBuilders.loadEffect(StaticConfFiles.f1_inmolation).getAnimationTextures());
-		images.addAll(BasicObjectBuilders.loadEffect(StaticConfFiles.f1_martyrdom).getAnimationTextures());
-		images.addAll(BasicObjectBuilders.loadEffect(StaticConfFiles.f1_summon).getAnimationTextures());
+		images.addAll(PrototypeRegistry.loadEffect(StaticConfFiles.f1_projectiles).getAnimationTextures());
+		images.addAll(PrototypeRegistry.loadEffect(StaticConfFiles.f1_buff).getAnimationTextures());
+		images.addAll(PrototypeRegistry.loadEffect(StaticConfFiles.f1_inmolation).getAnimationTextures());
+		images.addAll(PrototypeRegistry.loadEffect(StaticConfFiles.f1_martyrdom).getAnimationTextures());
+		images.addAll(PrototypeRegistry.loadEffect(StaticConfFiles.f1_summon).getAnimationTextures());
 		
 		return images;
 	}
 	
 	
 	public static List<String> getCardImagesForPreload(String configFile) {
-		Card card = BasicObjectBuilders.loadCard(configFile, 0, Card.class);
+		Card card = PrototypeRegistry.loadCard(configFile, 0);
 		List<String> images = new ArrayList<String>(card.getMiniCard().getAnimationFrames().length+card.getMiniCard().getCardTextures().length+card.getBigCard().getCardTextures().length);
 		for (String image : card.getMiniCard().getAnimationFrames()) images.add(image);
 		for (String image : card.getMiniCard().getCardTextures()) images.add(image);
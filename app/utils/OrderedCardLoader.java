@@ -21,26 +21,26 @@ public class OrderedCardLoader {
 	
 		List<Card> cardsInDeck = new ArrayList<Card>(20);
 		
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_comodo_charger, 0, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_pureblade_enforcer, 1, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_fire_spitter, 2, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_silverguard_knight, 3, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_truestrike, 4, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_azure_herald, 5, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_ironcliff_guardian, 6, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_azurite_lion, 7, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_sundrop_elixir, 8, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_hailstone_golem, 9, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_silverguard_knight, 10, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_fire_spitter, 11, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_comodo_charger, 12, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_pureblade_enforcer, 13, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_truestrike, 14, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_azure_herald, 15, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_ironcliff_guardian, 16, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_azurite_lion, 17, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_sundrop_elixir, 18, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_hailstone_golem, 19, Card.class));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_comodo_charger, 0));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_pureblade_enforcer, 1));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_fire_spitter, 2));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_silverguard_knight, 3));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_truestrike, 4));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_azure_herald, 5));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_ironcliff_guardian, 6));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_azurite_lion, 7));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_sundrop_elixir, 8));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_hailstone_golem, 9));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_silverguard_knight, 10));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_fire_spitter, 11));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_comodo_charger, 12));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_pureblade_enforcer, 13));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_truestrike, 14));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_azure_herald, 15));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_ironcliff_guardian, 16));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_azurite_lion, 17));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_sundrop_elixir, 18));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_hailstone_golem, 19));
 		
 		return cardsInDeck;
 	}
@@ -54,26 +54,26 @@ public class OrderedCardLoader {
 	
 		List<Card> cardsInDeck = new ArrayList<Card>(20);
 		
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_rock_pulveriser, 20, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_bloodshard_golem, 21, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_staff_of_ykir, 22, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_blaze_hound, 23, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_windshrike, 24, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_pyromancer, 25, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_serpenti, 26, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_entropic_decay, 27, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_planar_scout, 28, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_hailstone_golem, 29, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_rock_pulveriser, 30, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_bloodshard_golem, 31, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_staff_of_ykir, 32, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_blaze_hound, 33, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_windshrike, 34, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_pyromancer, 35, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_serpenti, 36, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_entropic_decay, 37, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_planar_scout, 38, Card.class));
-		cardsInDeck.add(BasicObjectBuilders.loadCard(StaticConfFiles.c_hailstone_golem, 39, Card.class));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_rock_pulveriser, 20));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_bloodshard_golem, 21));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_staff_of_ykir, 22));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_blaze_hound, 23));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_windshrike, 24));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_pyromancer, 25));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_serpenti, 26));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_entropic_decay, 27));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_planar_scout, 28));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_hailstone_golem, 29));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_rock_pulveriser, 30));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_bloodshard_golem, 31));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_staff_of_ykir, 32));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_blaze_hound, 33));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_windshrike, 34));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_pyromancer, 35));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_serpenti, 36));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_entropic_decay, 37));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_planar_scout, 38));
+		cardsInDeck.add(PrototypeRegistry.loadCard(StaticConfFiles.c_hailstone_golem, 39));
 		
 		return cardsInDeck;
 	}
@@ -0,0 +1,124 @@
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The list of images the front-end preloads, built once when the server starts instead of for
+ * every websocket connection.
+ *
+ * The list is sorted and encoded to JSON bytes once. Its version is a hash of those bytes, so it
+ * only changes when an image is added or removed. The front-end is told the versioned URL in the
+ * actorReady message and fetches the list from GameScreenController.preload(), which lets the
+ * browser cache it for good and answers a request carrying the ETag with 304 Not Modified.
+ *
+ * @author The team
+ */
+public final class PreloadManifest {
+
+	public static final String PATH = "/preload/"; // see conf/routes
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private final List<String> images;
+	private final byte[] body;
+	private final String version;
+	private final String etag;
+	private final ObjectNode readyMessage;
+
+	// built on first use, by then PrototypeRegistry.preload() has read the files it needs
+	private static class Current {
+		static final PreloadManifest MANIFEST = new PreloadManifest(ImageListForPreLoad.getImageListForPreLoad());
+	}
+
+	/**
+	 * @return the manifest of the game's images, built once.
+	 */
+	public static PreloadManifest get() {
+		return Current.MANIFEST;
+	}
+
+	/**
+	 * @param images the relative locations of the images to preload
+	 */
+	public PreloadManifest(Collection<String> images) {
+		this.images = Collections.unmodifiableList(new ArrayList<String>(new TreeSet<String>(images)));
+		ArrayNode list = mapper.createArrayNode();
+		for (String image : this.images) list.add(image);
+		body = list.toString().getBytes(StandardCharsets.UTF_8);
+		version = hash(body);
+		etag = "\"" + version + "\"";
+		readyMessage = mapper.createObjectNode();
+		readyMessage.put("messagetype", "actorReady");
+		readyMessage.put("preloadVersion", version);
+		readyMessage.put("preloadUrl", getUrl());
+	}
+
+	private static String hash(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			StringBuilder hex = new StringBuilder(16);
+			for (int i = 0; i < 8; i++) hex.append(String.format("%02x", digest[i]));
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // every JVM has SHA-256
+		}
+	}
+
+	public List<String> getImages() {
+		return images;
+	}
+
+	/**
+	 * @return the images as a JSON array, encoded once. Not to be changed.
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	/**
+	 * @return the URL of this version of the list, which can be cached for good.
+	 */
+	public String getUrl() {
+		return PATH + version;
+	}
+
+	/**
+	 * @return the actorReady message sent to every new connection, shared and not to be changed.
+	 */
+	public ObjectNode getReadyMessage() {
+		return readyMessage;
+	}
+
+	/**
+	 * @param ifNoneMatch the If-None-Match header of a request, or null
+	 * @return whether the browser already holds this version of the list.
+	 */
+	public boolean isCachedBy(String ifNoneMatch) {
+		if (ifNoneMatch == null) return false;
+		for (String tag : ifNoneMatch.split(",")) {
+			tag = tag.trim();
+			if (tag.startsWith("W/")) tag = tag.substring(2);
+			if (tag.equals(etag) || tag.equals("*")) return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,121 @@
+package utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import structures.basic.Card;
+import structures.basic.EffectAnimation;
+import structures.basic.Unit;
+
+/**
+ * Keeps the cards, units and effects of the configuration files in memory, so that a game in progress
+ * never reads or parses a file. Each file is read once into a JSON tree, and the first request for a
+ * card, unit or effect type turns that tree into a prototype. After that a request only copies the
+ * prototype: cards with Card.copy() and units with Unit.copy(), which share the card art, animations
+ * and image corrections but nothing the rules change. Effects are never changed, so every caller gets
+ * the same instance.
+ *
+ * preload() reads every file listed in StaticConfFiles at startup. Files not listed there are read on
+ * first use. The registry is shared by all games and safe to use from several threads.
+ *
+ * @author The team
+ */
+public final class PrototypeRegistry {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<String, JsonNode> trees = new ConcurrentHashMap<>(); // by file
+    private static final Map<String, Card> cards = new ConcurrentHashMap<>(); // by file
+    private static final Map<String, Map<Class<? extends Unit>, Unit>> units = new ConcurrentHashMap<>(); // by file, then type
+    private static final Map<String, EffectAnimation> effects = new ConcurrentHashMap<>(); // by file
+
+    private PrototypeRegistry() {}
+
+    /**
+     * Reads every configuration file named in StaticConfFiles and builds the card and effect prototypes
+     * and the tile template.
+     * @return the number of files read.
+     */
+    public static int preload() {
+        int files = 0;
+        for (Field field : StaticConfFiles.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) || field.getType() != String.class) continue;
+            String file;
+            try {
+                file = (String) field.get(null);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            tree(file);
+            files++;
+            if (field.getName().startsWith("c_")) loadCard(file, 0);
+            else if (field.getName().startsWith("f1_")) loadEffect(file);
+        }
+        BasicObjectBuilders.loadTile(0, 0); // reads the tile template, so boards are built in memory
+        return files;
+    }
+
+    /**
+     * @param configurationFile a card file, e.g. StaticConfFiles.c_truestrike
+     * @param id the id of the new card
+     * @return a new card, as BasicObjectBuilders.loadCard() would read it.
+     */
+    public static Card loadCard(String configurationFile, int id) {
+        Card card = cards.computeIfAbsent(configurationFile, file -> read(file, Card.class)).copy();
+        card.setId(id);
+        return card;
+    }
+
+    /**
+     * @param configFile a unit file, e.g. StaticConfFiles.u_serpenti
+     * @param id the id of the new unit
+     * @param classType the type of unit to create
+     * @return a new unit, as BasicObjectBuilders.loadUnit() would read it.
+     */
+    public static Unit loadUnit(String configFile, int id, Class<? extends Unit> classType) {
+        Unit prototype = units.computeIfAbsent(configFile, file -> new ConcurrentHashMap<>())
+                .computeIfAbsent(classType, type -> read(configFile, type));
+        Unit unit = prototype.copy();
+        unit.setId(id);
+        return unit;
+    }
+
+    /**
+     * @param configurationFile an effect file, e.g. StaticConfFiles.f1_summon
+     * @return the effect, shared by every caller and not to be changed.
+     */
+    public static EffectAnimation loadEffect(String configurationFile) {
+        return effects.computeIfAbsent(configurationFile, file -> read(file, EffectAnimation.class));
+    }
+
+    /**
+     * @return the number of configuration files held in memory.
+     */
+    public static int size() {
+        return trees.size();
+    }
+
+    private static <T> T read(String file, Class<T> type) {
+        try {
+            return mapper.treeToValue(tree(file), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read a " + type.getSimpleName() + " from " + file, e);
+        }
+    }
+
+    private static JsonNode tree(String file) {
+        return trees.computeIfAbsent(file, name -> {
+            try {
+                return mapper.readTree(BasicObjectBuilders.configFile(name));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + name, e);
+            }
+        });
+    }
+}
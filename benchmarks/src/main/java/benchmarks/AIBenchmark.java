@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import structures.AI;
+import structures.GameState;
+import structures.basic.Board;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+
+/**
+ * The greedy AI's card choice and move scoring on a mid-game board.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AIBenchmark {
+
+	private GameState gameState;
+	private Player player;
+	private List<Unit> units;
+	private List<Tile> tiles;
+
+	@Setup
+	public void setUp() {
+		gameState = Positions.midGame();
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+		player = gameState.getPlayerTwo();
+		player.setMana(9); // every card in the hand is affordable, the widest knapsack table
+		units = gameState.getBoard().getPlayer2Units();
+		tiles = new ArrayList<>();
+		Board board = gameState.getBoard();
+		for (int y = 0; y < board.getY(); y++) {
+			for (int x = 0; x < board.getX(); x++) tiles.add(board.getTile(x, y));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		BasicCommands.setEventSink(null);
+	}
+
+	@Benchmark
+	public int[] findOptimalCardCombo() {
+		return AI.findOptimalCardCombo(gameState, player);
+	}
+
+	// scores every tile of the board for every unit of the AI, occupied or not
+	@Benchmark
+	public double calculateScore() {
+		double total = 0;
+		for (Unit unit : units) {
+			for (Tile tile : tiles) total += AI.calculateScore(unit, tile);
+		}
+		return total;
+	}
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import commands.BasicCommands;
+import play.libs.Json;
+import structures.basic.Tile;
+import utils.BasicObjectBuilders;
+
+/**
+ * Building the JSON of a drawTile command. BasicCommands.altTell keeps the message instead of
+ * sending it to an actor, and the benchmark returns it so that it is not optimised away.
+ * drawTileRoundTrip builds the same message as BasicCommands did before CommandEncoder, by
+ * writing the tile to a String and parsing it back. Run with -prof gc for the bytes allocated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandBenchmark {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private Tile tile;
+	private ObjectNode sent;
+
+	@Setup
+	public void setUp() {
+		BasicCommands.altTell = message -> sent = message;
+		tile = BasicObjectBuilders.loadTile(3, 2);
+	}
+
+	@TearDown
+	public void tearDown() {
+		BasicCommands.altTell = null;
+	}
+
+	@Benchmark
+	public ObjectNode drawTile() {
+		BasicCommands.drawTile(null, tile, 1);
+		return sent;
+	}
+
+	@Benchmark
+	public ObjectNode drawTileRoundTrip() throws Exception {
+		ObjectNode returnMessage = Json.newObject();
+		returnMessage.put("messagetype", "drawTile");
+		returnMessage.set("tile", mapper.readTree(mapper.writeValueAsString(tile)));
+		returnMessage.put("mode", 1);
+		return returnMessage;
+	}
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import actors.EventLog;
+import play.libs.Json;
+
+/**
+ * Events handled by 8 session threads at once when every event is printed, as GameActor did, and
+ * when it goes to the event log with the loggers of conf/logback.xml. The traffic is a browser's:
+ * mostly heartbeats and unit movement, now and then a click.
+ *
+ * The benchmark's stdout is replaced with a stream that discards everything, so neither path
+ * waits on a terminal: the scores are the cost on the session threads, not of the console.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class EventLogBenchmark {
+
+	private static final String[] TYPES = {"heartbeat", "heartbeat", "heartbeat", "unitMoving", "unitstopped",
+			"tileclicked", "cardclicked", "heartbeat"};
+
+	private final AtomicLong sessions = new AtomicLong();
+	private PrintStream stdout;
+	private EventLog log;
+	private List<ObjectNode> messages;
+
+	/**
+	 * The events of one session thread.
+	 */
+	@State(Scope.Thread)
+	public static class Session {
+		long id;
+		int next;
+
+		@Setup
+		public void setUp(EventLogBenchmark benchmark) {
+			id = benchmark.sessions.incrementAndGet();
+		}
+
+		ObjectNode next(List<ObjectNode> messages) {
+			ObjectNode message = messages.get(next);
+			next = (next + 1) % messages.size();
+			return message;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		stdout = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {}
+			@Override
+			public void write(byte[] b, int off, int len) {}
+		}));
+		log = new EventLog(1, Collections.<String, Integer>emptyMap());
+		messages = new ArrayList<>();
+		for (String type : TYPES) {
+			ObjectNode message = Json.newObject();
+			message.put("messagetype", type);
+			message.put("tilex", 3);
+			message.put("tiley", 2);
+			messages.add(message);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		System.setOut(stdout);
+	}
+
+	@Benchmark
+	public void printEvent(Session session) {
+		System.out.println(session.next(messages));
+	}
+
+	@Benchmark
+	public void logEvent(Session session) {
+		ObjectNode message = session.next(messages);
+		log.received(session.id, message.get("messagetype").asText(), message);
+	}
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import structures.GameSnapshot;
+import structures.GameState;
+
+/**
+ * Recording and restoring a position with GameSnapshot, as the search does before every
+ * iteration, compared to copying the whole GameState.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameSnapshotBenchmark {
+
+	private GameState gameState;
+	private GameSnapshot snapshot;
+
+	@Setup
+	public void setUp() {
+		gameState = Positions.midGame();
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+		snapshot = GameSnapshot.of(gameState);
+	}
+
+	@TearDown
+	public void tearDown() {
+		BasicCommands.setEventSink(null);
+	}
+
+	@Benchmark
+	public GameSnapshot snapshot() {
+		return GameSnapshot.of(gameState);
+	}
+
+	@Benchmark
+	public GameState restore() {
+		snapshot.restore(gameState);
+		return gameState;
+	}
+
+	@Benchmark
+	public GameState copy() {
+		return gameState.copy();
+	}
+}
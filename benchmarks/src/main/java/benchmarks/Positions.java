@@ -0,0 +1,25 @@
+package benchmarks;
+
+import commands.GameEventSink;
+import simulation.HeadlessGame;
+import structures.GameState;
+import utils.PrototypeRegistry;
+
+/**
+ * The game states the benchmarks run on. A headless game between two greedy AIs is played for a
+ * few turns, which leaves both players with units spread over the board and cards in hand.
+ */
+final class Positions {
+
+	// the last turn limit at which the greedy AIs have not yet won: 8 units in play, 4 cards in hand
+	static final int MID_GAME_TURNS = 6;
+
+	private Positions() {}
+
+	static GameState midGame() {
+		PrototypeRegistry.preload();
+		HeadlessGame game = new HeadlessGame(GameEventSink.IGNORE, MID_GAME_TURNS);
+		game.play();
+		return game.getGameState();
+	}
+}
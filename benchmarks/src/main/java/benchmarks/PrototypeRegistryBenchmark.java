@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import structures.GameState;
+import structures.basic.Card;
+import structures.basic.Unit;
+import utils.BasicObjectBuilders;
+import utils.CustomizedBuilders;
+import utils.PrototypeRegistry;
+import utils.StaticConfFiles;
+
+/**
+ * A summoned Pyromancer copied from the registry, and the same unit and card read from file as
+ * every summon did before the registry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrototypeRegistryBenchmark {
+
+	private GameState gameState;
+
+	@Setup
+	public void setUp() {
+		PrototypeRegistry.preload();
+		gameState = new GameState();
+	}
+
+	@Benchmark
+	public Unit summonFromRegistry() {
+		return CustomizedBuilders.loadSummonByName("Pyromancer", gameState);
+	}
+
+	@Benchmark
+	public Unit summonFromFile() {
+		Unit unit = BasicObjectBuilders.loadUnit(StaticConfFiles.u_pyromancer, 0, Unit.class);
+		BasicObjectBuilders.loadCard(StaticConfFiles.c_pyromancer, 0, Card.class);
+		return unit;
+	}
+}
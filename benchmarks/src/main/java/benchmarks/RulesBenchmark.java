@@ -0,0 +1,89 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import structures.GameState;
+import structures.basic.Board;
+import structures.basic.Tile;
+import structures.basic.Unit;
+import utils.CustomizedBuilders;
+
+/**
+ * Move generation, board construction and summoning on a mid-game board. The rules run with a
+ * null ActorRef and the ignoring sink installed on the benchmark thread, as in a headless game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RulesBenchmark {
+
+	private GameState gameState;
+	private List<Unit> units;
+	private List<Tile> tiles;
+
+	@Setup
+	public void setUp() {
+		gameState = Positions.midGame();
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+		Board board = gameState.getBoard();
+		units = new ArrayList<>(board.getPlayer1Units());
+		units.addAll(board.getPlayer2Units());
+		tiles = new ArrayList<>();
+		for (Unit unit : units) {
+			// as at the start of a turn, so every unit shows its moves
+			unit.resetMovement();
+			unit.resetAttack();
+			tiles.add(board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley()));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		BasicCommands.setEventSink(null);
+	}
+
+	// highlights the moves of every unit on the board in turn, as clicking each of them would, and
+	// puts the tiles back to default after each; otherwise Board.drawTile() skips the tiles already
+	// drawn highlighted by the previous invocation
+	@Benchmark
+	public int displayMovementTiles() {
+		Board board = gameState.getBoard();
+		int highlighted = 0;
+		for (int i = 0; i < units.size(); i++) {
+			units.get(i).displayMovementTiles(null, tiles.get(i), gameState);
+			highlighted += board.getHighlightedTiles().size();
+			board.clearHighlightedTiles();
+			board.drawDefaultTiles(null);
+		}
+		return highlighted;
+	}
+
+	@Benchmark
+	public Board boardConstruction() {
+		return new Board();
+	}
+
+	@Benchmark
+	public Unit loadSummonByName() {
+		return CustomizedBuilders.loadSummonByName("Pyromancer", gameState);
+	}
+}
@@ -0,0 +1,131 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.typesafe.config.ConfigFactory;
+
+import actors.GameActor;
+import actors.SessionExecutors;
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import play.libs.Json;
+import structures.GreedyAI;
+import utils.PrototypeRegistry;
+
+/**
+ * SESSIONS GameActors opened at once on an actor system with the dispatchers of application.conf,
+ * each sent the initalize event of its browser, until every one has shown its player the mana of
+ * the new game. actorThreads processes the events on the actors' own threads, as with
+ * game.sessions.virtual-threads = off, virtualThreads on a virtual thread per event, as with
+ * virtual-threads = on.
+ *
+ * The virtual-thread mode needs JDK 21: before that SessionExecutors has no virtual threads and
+ * virtualThreads fails. Run it with sbt -java-home pointing at a JDK 21 or later.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SessionExecutorBenchmark {
+
+	private static final int SESSIONS = 400;
+
+	private ActorSystem system;
+	private ExecutorService virtual;
+
+	/**
+	 * Stands in for a browser: counts down once it is shown its player's mana, which Initalize
+	 * sends before its first pause.
+	 */
+	public static class Browser extends AbstractActor {
+		private final CountDownLatch started;
+
+		public Browser(CountDownLatch started) {
+			this.started = started;
+		}
+
+		@Override
+		public Receive createReceive() {
+			return receiveBuilder()
+					.match(JsonNode.class, this::show)
+					.build();
+		}
+
+		private void show(JsonNode command) {
+			String type = command.get("messagetype").asText();
+			if (type.equals("batch")) {
+				for (JsonNode inner : command.get("commands")) show(inner);
+			} else if (type.equals("setPlayer1Mana")) {
+				started.countDown();
+			}
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		PrototypeRegistry.preload();
+		system = ActorSystem.create("sessions", ConfigFactory.parseString(
+				"akka.loglevel = OFF\nakka.log-dead-letters = off").withFallback(ConfigFactory.load()));
+		virtual = SessionExecutors.virtualThreads();
+	}
+
+	@TearDown
+	public void tearDown() {
+		system.terminate();
+		if (virtual != null) virtual.shutdown();
+	}
+
+	// opens the sessions with the executor for their events, null for the actors' threads, and waits for the last game
+	private int startSessions(Executor executor) throws Exception {
+		CountDownLatch started = new CountDownLatch(SESSIONS);
+		ObjectNode initalize = Json.newObject();
+		initalize.put("messagetype", "initalize");
+		List<ActorRef> actors = new ArrayList<>(2 * SESSIONS);
+		for (int i = 0; i < SESSIONS; i++) {
+			ActorRef browser = system.actorOf(Props.create(Browser.class, started).withDispatcher("game.dispatchers.websocket"));
+			Props session = executor == null ? Props.create(GameActor.class, browser, new GreedyAI())
+					: Props.create(GameActor.class, browser, new GreedyAI(), executor);
+			ActorRef actor = system.actorOf(session.withDispatcher(GameActor.DISPATCHER));
+			actor.tell(initalize, ActorRef.noSender());
+			actors.add(actor);
+			actors.add(browser);
+		}
+		if (!started.await(1, TimeUnit.MINUTES)) throw new IllegalStateException("The games did not start");
+		for (ActorRef actor : actors) system.stop(actor);
+		return SESSIONS;
+	}
+
+	@Benchmark
+	public int actorThreads() throws Exception {
+		return startSessions(null);
+	}
+
+	@Benchmark
+	public int virtualThreads() throws Exception {
+		if (virtual == null) throw new IllegalStateException("This JVM has no virtual threads, they need JDK 21");
+		return startSessions(virtual);
+	}
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import events.Initalize;
+import structures.GameState;
+import structures.basic.Board;
+import structures.basic.Tile;
+import utils.PrototypeRegistry;
+import utils.StaticConfFiles;
+
+/**
+ * What a new session does before its first move: a new GameState with its board, then the
+ * Initalize event with decks, hands and avatars. A board on its own, and its 45 tiles read from
+ * file as every board did before the tile template, are timed for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SessionSetupBenchmark {
+
+	@Setup
+	public void setUp() {
+		PrototypeRegistry.preload();
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+	}
+
+	@TearDown
+	public void tearDown() {
+		BasicCommands.setEventSink(null);
+	}
+
+	@Benchmark
+	public GameState newSession() {
+		GameState gameState = new GameState();
+		new Initalize().processEvent(null, gameState, null);
+		return gameState;
+	}
+
+	@Benchmark
+	public Board newBoard() {
+		return new Board();
+	}
+
+	@Benchmark
+	public Tile tilesFromFile() {
+		Tile tile = null;
+		for (int t = 0; t < 45; t++) tile = Tile.constructTile(StaticConfFiles.tileConf);
+		return tile;
+	}
+}
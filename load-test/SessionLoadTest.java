@@ -0,0 +1,155 @@
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import actors.GameActor;
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Identify;
+import akka.actor.Props;
+import akka.pattern.Patterns;
+import play.libs.Json;
+import structures.AIPlayer;
+import utils.PrototypeRegistry;
+
+/**
+ * Plays 1000 sessions at once on an actor system set up with the dispatchers of application.conf,
+ * player two being the MCTS AI, and checks that the game actors and the default dispatcher keep
+ * answering within a few hundred milliseconds while the AI turns run on their own pool. The games
+ * are started first and the answers are timed from the moment every session ends its turn.
+ *
+ * A round of WARM_UP_SESSIONS is played first and not measured: on a cold JVM the first sessions
+ * wait on class loading and the JIT, which is not what the limits are about.
+ *
+ * It takes about a minute, so it is not part of sbt test: run it with sbt load:test.
+ */
+public class SessionLoadTest {
+
+	private static final int SESSIONS = 1000;
+	private static final int WARM_UP_SESSIONS = 200;
+	private static final int TURNS = 3;
+
+	/**
+	 * Stands in for a browser: counts the turns it is shown, see setPlayer1Mana.
+	 */
+	public static class Browser extends AbstractActor {
+		private final CountDownLatch started;
+		private final CountDownLatch finished;
+		private int manaUpdates;
+
+		public Browser(CountDownLatch started, CountDownLatch finished) {
+			this.started = started;
+			this.finished = finished;
+		}
+
+		@Override
+		public Receive createReceive() {
+			return receiveBuilder()
+					.match(JsonNode.class, this::show)
+					.build();
+		}
+
+		private void show(JsonNode command) {
+			String type = command.get("messagetype").asText();
+			if (type.equals("batch")) {
+				for (JsonNode inner : command.get("commands")) show(inner);
+			} else if (type.equals("setPlayer1Mana")) {
+				// once when the game starts, then after every turn
+				if (++manaUpdates == 1) started.countDown();
+				if (manaUpdates == TURNS + 1) finished.countDown();
+			}
+		}
+	}
+
+	private static ObjectNode event(String type) {
+		ObjectNode event = Json.newObject();
+		event.put("messagetype", type);
+		return event;
+	}
+
+	private static long percentile(List<Long> nanos, double percentile) {
+		Collections.sort(nanos);
+		return nanos.get((int) Math.min(nanos.size() - 1, nanos.size() * percentile)) / 1_000_000;
+	}
+
+	/**
+	 * The answers timed while a round of sessions played.
+	 */
+	private static final class Probes {
+		final List<Long> actor = Collections.synchronizedList(new ArrayList<>());
+		final List<Long> defaults = Collections.synchronizedList(new ArrayList<>());
+		long seconds;
+	}
+
+	// starts the sessions' games, then ends their turns at once and times answers until they have all played
+	private static Probes play(ActorSystem system, AIPlayer ai, int count) throws Exception {
+		CountDownLatch started = new CountDownLatch(count);
+		CountDownLatch finished = new CountDownLatch(count);
+		List<ActorRef> sessions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ActorRef browser = system.actorOf(Props.create(Browser.class, started, finished).withDispatcher("game.dispatchers.websocket"));
+			ActorRef session = system.actorOf(Props.create(GameActor.class, browser, ai).withDispatcher(GameActor.DISPATCHER));
+			session.tell(event("initalize"), ActorRef.noSender());
+			sessions.add(session);
+		}
+		assertTrue("the games did not start", started.await(10, TimeUnit.MINUTES));
+		long start = System.nanoTime();
+		for (ActorRef session : sessions) {
+			for (int turn = 0; turn < TURNS; turn++) session.tell(event("endturnclicked"), ActorRef.noSender());
+		}
+
+		// while the games run, ask random sessions who they are and time the answers, and
+		// time a task on the default dispatcher, which serves Play's HTTP requests
+		Probes probes = new Probes();
+		Random random = new Random(3);
+		while (!finished.await(5, TimeUnit.MILLISECONDS)) {
+			long asked = System.nanoTime();
+			Patterns.ask(sessions.get(random.nextInt(count)), new Identify(asked), Duration.ofSeconds(10))
+					.thenAccept(identity -> probes.actor.add(System.nanoTime() - asked));
+			system.dispatcher().execute(() -> probes.defaults.add(System.nanoTime() - asked));
+			assertTrue("the sessions did not finish", System.nanoTime() - start < TimeUnit.MINUTES.toNanos(10));
+		}
+		probes.seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+		for (ActorRef session : sessions) system.stop(session);
+		return probes;
+	}
+
+	@Test
+	public void thousandSessionsStayResponsive() throws Exception {
+		PrototypeRegistry.preload();
+		Config config = ConfigFactory.load();
+		ActorSystem system = ActorSystem.create("load", config);
+		try {
+			AIPlayer ai = AIPlayer.fromConfig(ConfigFactory.parseString(
+					"mode = mcts\nmcts.iterations = 50\nmcts.time-budget = 200ms"));
+			play(system, ai, WARM_UP_SESSIONS);
+			Probes probes = play(system, ai, SESSIONS);
+
+			List<Long> actor = new ArrayList<>(probes.actor);
+			List<Long> defaults = new ArrayList<>(probes.defaults);
+			long actorP99 = percentile(actor, 0.99);
+			long defaultP99 = percentile(defaults, 0.99);
+			String measured = SESSIONS + " sessions played " + TURNS + " turns each in " + probes.seconds + " s, "
+					+ actor.size() + " probes, game actors answered in " + percentile(actor, 0.5) + " ms (p50) "
+					+ actorP99 + " ms (p99), the default dispatcher in " + defaultP99 + " ms (p99)";
+			assertTrue(measured, actorP99 < 250);
+			assertTrue(measured, defaultP99 < 100);
+		} finally {
+			system.terminate();
+		}
+	}
+}
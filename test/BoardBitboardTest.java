@@ -0,0 +1,172 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import structures.GameState;
+import structures.basic.Board;
+import structures.basic.Tile;
+import structures.basic.Unit;
+
+/**
+ * Checks the bitboard masks kept by the Board, and that movement highlighting computed with them
+ * gives the same tiles as the original list based search.
+ */
+public class BoardBitboardTest {
+
+	@Before
+	public void muteCommands() {
+		BasicCommands.altTell = message -> {};
+	}
+
+	@After
+	public void restoreTell() {
+		BasicCommands.altTell = null;
+	}
+
+	private int nextId = 1;
+
+	private Unit place(Board board, int x, int y, int player) {
+		Unit unit = new Unit();
+		unit.setId(nextId++);
+		Tile tile = board.getTile(x, y);
+		unit.setPositionByTile(tile);
+		board.placeUnit(tile, unit, player);
+		return unit;
+	}
+
+	@Test
+	public void neighbourMasks() {
+		Board board = new Board();
+		assertEquals(3, Long.bitCount(Board.adjacentMask(board.getTile(0, 0))));
+		assertEquals(8, Long.bitCount(Board.adjacentMask(board.getTile(4, 2))));
+		assertEquals(2, Long.bitCount(Board.cardinalMask(board.getTile(8, 4))));
+		assertEquals(13, Long.bitCount(Board.rangeMask(board.getTile(4, 2), 2)));
+		assertEquals(45, Long.bitCount(Board.squareMask(board.getTile(0, 0), 14)));
+		assertEquals(45, Long.bitCount(Board.allTilesMask()));
+	}
+
+	@Test
+	public void occupancyFollowsUnits() {
+		Board board = new Board();
+		Unit mine = place(board, 1, 2, 1);
+		Unit theirs = place(board, 7, 2, 2);
+		assertEquals(Board.bit(board.getTile(1, 2)), board.getPlayerMask(1));
+		assertEquals(board.getPlayerMask(2), board.getEnemyMask(mine));
+		assertEquals(board.getPlayerMask(2), board.getFriendlyMask(theirs));
+
+		mine.setPositionByTile(board.getTile(2, 2));
+		board.moveUnit(board.getTile(1, 2), board.getTile(2, 2));
+		assertEquals(Board.bit(board.getTile(2, 2)), board.getPlayerMask(1));
+
+		board.removeUnit(theirs);
+		assertEquals(0, board.getPlayerMask(2));
+		assertEquals(0, board.getEnemyMask(theirs)); // no longer on the board
+	}
+
+	@Test
+	public void ownershipIndex() {
+		Board board = new Board();
+		Unit mine = place(board, 1, 2, 1);
+		Unit theirs = place(board, 7, 2, 2);
+
+		assertTrue(board.isOwnedBy(mine, 1));
+		assertFalse(board.isOwnedBy(mine, 2));
+		assertEquals(theirs, board.getUnit(theirs.getId()));
+		assertEquals(board.getPlayer2Units(), board.getEnemyUnits(mine));
+		assertEquals(1, board.getPlayer1Units().size());
+
+		board.removeUnit(theirs);
+		assertFalse(board.isOwnedBy(theirs, 2));
+		assertEquals(null, board.getUnit(theirs.getId()));
+		assertEquals(0, board.getPlayer2Units().size());
+		assertEquals(null, board.getTile(7, 2).getUnit());
+	}
+
+	@Test
+	public void highlightsAreUnique() {
+		Board board = new Board();
+		Tile tile = board.getTile(3, 3);
+		board.addHighlightedTile(tile);
+		board.addHighlightedTile(tile);
+		board.addHighlightedTiles(Board.bit(tile) | Board.bit(board.getTile(0, 0)));
+		assertEquals(2, board.getHighlightedTiles().size());
+		assertTrue(board.isHighlighted(tile));
+		board.clearHighlightedTiles();
+		assertFalse(board.isHighlighted(tile));
+		assertEquals(0, board.getHighlightMask());
+	}
+
+	@Test
+	public void movementMatchesListSearch() {
+		Random random = new Random(42);
+		for (int round = 0; round < 500; round++) {
+			GameState gameState = new GameState();
+			Board board = gameState.getBoard();
+			Unit unit = place(board, random.nextInt(9), random.nextInt(5), 1);
+			for (int i = 0; i < 8; i++) {
+				int x = random.nextInt(9);
+				int y = random.nextInt(5);
+				if (board.getTile(x, y).getUnit() == null) place(board, x, y, 1 + random.nextInt(2));
+			}
+			Tile tile = board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+			Set<Tile> expected = listSearch(board, tile);
+
+			unit.displayMovementTiles(null, tile, gameState);
+			assertEquals(expected, new HashSet<>(board.getHighlightedTiles()));
+		}
+	}
+
+	// the movement search as it was written before the board kept masks
+	private Set<Tile> listSearch(Board board, Tile tile) {
+		int X = tile.getTilex();
+		int Y = tile.getTiley();
+		List<Unit> friendlyUnits = board.getFriendlyUnits(tile.getUnit());
+		List<Unit> enemyUnits = board.getEnemyUnits(tile.getUnit());
+		List<Tile> highlighted = new ArrayList<>();
+		for (int x = X - 2; x <= X + 2; x++)
+			for (int y = Y - 2; y <= Y + 2; y++)
+				if (Math.abs(x - X) + Math.abs(y - Y) <= 2 && inside(x, y)) highlighted.add(board.getTile(x, y));
+
+		List<Tile> toClear = new ArrayList<>();
+		for (Tile h : highlighted) {
+			boolean keep = false;
+			for (int x = h.getTilex() - 1; x <= h.getTilex() + 1; x++)
+				for (int y = h.getTiley() - 1; y <= h.getTiley() + 1; y++) {
+					if (!inside(x, y) || Math.abs(h.getTilex() - x) + Math.abs(h.getTiley() - y) != 1) continue;
+					Tile t = board.getTile(x, y);
+					if (highlighted.contains(t) && (t.getUnit() == null || friendlyUnits.contains(t.getUnit()))) keep = true;
+				}
+			if (!keep) toClear.add(h);
+		}
+		highlighted.removeAll(toClear);
+		highlighted.removeIf(h -> friendlyUnits.contains(h.getUnit()));
+
+		List<Tile> toAdd = new ArrayList<>();
+		for (Tile h : highlighted) {
+			if (h.getUnit() != null || Math.abs(X - h.getTilex()) + Math.abs(Y - h.getTiley()) != 2) continue;
+			for (int x = h.getTilex() - 1; x <= h.getTilex() + 1; x++)
+				for (int y = h.getTiley() - 1; y <= h.getTiley() + 1; y++) {
+					if (!inside(x, y)) continue;
+					Tile t = board.getTile(x, y);
+					if (!highlighted.contains(t) && enemyUnits.contains(t.getUnit())) toAdd.add(t);
+				}
+		}
+		highlighted.addAll(toAdd);
+		return new HashSet<>(highlighted);
+	}
+
+	private boolean inside(int x, int y) {
+		return x >= 0 && x < 9 && y >= 0 && y < 5;
+	}
+}
@@ -0,0 +1,90 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import structures.basic.BoardGeometry;
+
+/**
+ * Checks the lookup tables against the rules they replace, worked out tile by tile, for the game's
+ * 9 x 5 board and for boards of other sizes.
+ */
+public class BoardGeometryTest {
+
+	private static final int[][] SIZES = {{9, 5}, {5, 9}, {3, 3}, {8, 8}, {1, 6}, {12, 5}};
+
+	@Test
+	public void masksMatchDistances() {
+		for (int[] size : SIZES) {
+			BoardGeometry geometry = new BoardGeometry(size[0], size[1]);
+			int tiles = size[0] * size[1];
+			assertEquals(tiles, Long.bitCount(geometry.allTiles()));
+			for (int x = 0; x < size[0]; x++) {
+				for (int y = 0; y < size[1]; y++) {
+					int i = geometry.index(x, y);
+					for (int nx = 0; nx < size[0]; nx++) {
+						for (int ny = 0; ny < size[1]; ny++) {
+							int ax = Math.abs(nx - x);
+							int ay = Math.abs(ny - y);
+							long bit = 1L << geometry.index(nx, ny);
+							assertEquals(Math.max(ax, ay) == 1, (geometry.adjacentMask(i) & bit) != 0);
+							assertEquals(ax + ay == 1, (geometry.cardinalMask(i) & bit) != 0);
+							assertEquals(ax + ay <= 2, (geometry.rangeMask(i, 2) & bit) != 0);
+							assertEquals(Math.max(ax, ay) <= 1, (geometry.squareMask(i, 1) & bit) != 0);
+						}
+					}
+					// ranges beyond the board cover all of it
+					assertEquals(geometry.allTiles(), geometry.squareMask(i, 100));
+					assertEquals(geometry.allTiles(), geometry.rangeMask(i, 100));
+				}
+			}
+		}
+	}
+
+	// The two step rule of the original movement highlighting, tile by tile
+	private static long reachByScan(BoardGeometry geometry, int x, int y, long passable) {
+		long reach = 0;
+		for (int tx = 0; tx < geometry.getWidth(); tx++) {
+			for (int ty = 0; ty < geometry.getHeight(); ty++) {
+				if (Math.abs(tx - x) + Math.abs(ty - y) > 2) continue;
+				int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+				for (int[] step : steps) {
+					int nx = tx + step[0];
+					int ny = ty + step[1];
+					if (nx < 0 || ny < 0 || nx >= geometry.getWidth() || ny >= geometry.getHeight()) continue;
+					if (Math.abs(nx - x) + Math.abs(ny - y) > 2) continue;
+					if ((passable & 1L << geometry.index(nx, ny)) != 0) reach |= 1L << geometry.index(tx, ty);
+				}
+			}
+		}
+		return reach;
+	}
+
+	@Test
+	public void reachMatchesScan() {
+		Random random = new Random(5);
+		for (int[] size : SIZES) {
+			BoardGeometry geometry = new BoardGeometry(size[0], size[1]);
+			for (int run = 0; run < 200; run++) {
+				// from sparse to crowded boards
+				long passable = geometry.allTiles();
+				for (int i = 0; i < run % 6; i++) passable &= random.nextLong();
+				int x = random.nextInt(size[0]);
+				int y = random.nextInt(size[1]);
+				assertEquals(reachByScan(geometry, x, y, passable), geometry.reach(geometry.index(x, y), passable));
+			}
+		}
+	}
+
+	@Test
+	public void boardsOverSixtyFourTilesAreRejected() {
+		try {
+			new BoardGeometry(9, 8);
+			fail("72 tiles do not fit a long");
+		} catch (IllegalArgumentException expected) {
+		}
+		assertEquals(-1L, new BoardGeometry(8, 8).allTiles());
+	}
+}
@@ -0,0 +1,54 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import structures.basic.Board;
+import structures.basic.Tile;
+
+/**
+ * Checks that the board only sends drawTile commands for tiles whose mode actually changes.
+ */
+public class BoardRedrawTest {
+
+	private List<String> sent = new ArrayList<>();
+
+	@Before
+	public void captureCommands() {
+		BasicCommands.altTell = message -> sent.add(message.get("messagetype").asText());
+	}
+
+	@After
+	public void restoreTell() {
+		BasicCommands.altTell = null;
+	}
+
+	@Test
+	public void onlyChangedTilesAreRedrawn() {
+		Board board = new Board();
+		board.drawDefaultTiles(null);
+		assertEquals(board.getX() * board.getY(), sent.size()); // first draw sends the whole grid
+
+		sent.clear();
+		board.drawDefaultTiles(null);
+		assertEquals(0, sent.size()); // nothing changed
+
+		Tile a = board.getTile(2, 2);
+		Tile b = board.getTile(3, 2);
+		board.drawTile(null, a, 1);
+		board.drawTile(null, b, 2);
+		board.drawTile(null, a, 1); // already highlighted
+		assertEquals(2, sent.size());
+		assertEquals(1, board.getTileMode(a));
+
+		sent.clear();
+		board.drawDefaultTiles(null);
+		assertEquals(2, sent.size()); // only the two highlighted tiles are reverted
+		assertEquals(0, board.getTileMode(b));
+	}
+}
@@ -0,0 +1,58 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import structures.GameState;
+import structures.basic.Unit;
+import structures.spells.StaffofYKir;
+import structures.units.HailstoneGolem;
+import utils.CardRegistry;
+import utils.CustomizedBuilders;
+import utils.StaticConfFiles;
+
+/**
+ * Checks the card table against both decks, and that unknown cards are refused instead of played.
+ */
+public class CardRegistryTest {
+
+	@Test
+	public void everyDeckCardIsListed() {
+		assertEquals(19, CardRegistry.check());
+	}
+
+	@Test
+	public void spellsAreShared() {
+		assertTrue(CustomizedBuilders.loadSpellByName("Staff of Y'Kir'") instanceof StaffofYKir);
+		assertSame(CustomizedBuilders.loadSpellByName("Truestrike"), CustomizedBuilders.loadSpellByName("Truestrike"));
+	}
+
+	@Test
+	public void playerTwoSummonsTheReflectedGolem() {
+		GameState gameState = new GameState();
+		gameState.clickable = true;
+		Unit golem = CustomizedBuilders.loadSummonByName("Hailstone Golem", gameState);
+		gameState.clickable = false;
+		Unit reflected = CustomizedBuilders.loadSummonByName("Hailstone Golem", gameState);
+		assertTrue(golem instanceof HailstoneGolem && reflected instanceof HailstoneGolem);
+		assertEquals(StaticConfFiles.u_hailstone_golemR, CardRegistry.lookup("Hailstone Golem").getUnitConfig(false));
+		assertTrue(golem.getAnimations() != reflected.getAnimations());
+		assertEquals(golem.getHealth(), reflected.getHealth());
+	}
+
+	@Test
+	public void unknownCardsFail() {
+		try {
+			CustomizedBuilders.loadSummonByName("Comodo Charger 2", new GameState());
+			fail("there is no such card");
+		} catch (IllegalArgumentException expected) {
+		}
+		try {
+			CustomizedBuilders.loadSpellByName("Serpenti");
+			fail("Serpenti is a unit card");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+}
@@ -0,0 +1,68 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import commands.CommandEncoder;
+import structures.basic.Card;
+import structures.basic.EffectAnimation;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+import structures.basic.UnitAnimationType;
+import utils.BasicObjectBuilders;
+import utils.StaticConfFiles;
+
+/**
+ * Checks that the command encoder produces the same values the front-end used to receive from
+ * the serialise/parse round trip.
+ */
+public class CommandEncoderTest {
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private JsonNode roundTrip(Object o) throws Exception {
+		return mapper.readTree(mapper.writeValueAsString(o));
+	}
+
+	@Test
+	public void tileMatchesRoundTrip() throws Exception {
+		Tile tile = BasicObjectBuilders.loadTile(3, 2);
+		JsonNode legacy = roundTrip(tile);
+		JsonNode encoded = CommandEncoder.tile(tile);
+		for (String field : new String[] {"tileTextures", "xpos", "ypos", "width", "height", "tilex", "tiley"}) {
+			assertEquals(field, legacy.get(field), encoded.get(field));
+		}
+		assertSame(encoded, CommandEncoder.tile(tile)); // encoded once, then shared
+	}
+
+	@Test
+	public void unitMatchesRoundTrip() throws Exception {
+		Tile tile = BasicObjectBuilders.loadTile(1, 2);
+		Unit unit = BasicObjectBuilders.loadUnit(StaticConfFiles.u_serpenti, 7, Unit.class);
+		unit.setPositionByTile(tile);
+		unit.setAnimation(UnitAnimationType.attack);
+		JsonNode legacy = roundTrip(unit);
+		JsonNode encoded = CommandEncoder.unit(unit);
+		for (String field : new String[] {"id", "animation", "position", "animations", "correction", "health", "attack"}) {
+			assertEquals(field, legacy.get(field), encoded.get(field));
+		}
+	}
+
+	@Test
+	public void cardEffectAndPlayerMatchRoundTrip() throws Exception {
+		Card card = BasicObjectBuilders.loadCard(StaticConfFiles.c_azure_herald, 5, Card.class);
+		assertEquals(roundTrip(card), CommandEncoder.card(card));
+
+		EffectAnimation effect = BasicObjectBuilders.loadEffect(StaticConfFiles.f1_summon);
+		assertEquals(roundTrip(effect), CommandEncoder.effect(effect));
+
+		Player player = new Player(17, 4);
+		JsonNode legacy = roundTrip(player);
+		assertEquals(legacy.get("health"), CommandEncoder.player(player).get("health"));
+		assertEquals(legacy.get("mana"), CommandEncoder.player(player).get("mana"));
+	}
+}
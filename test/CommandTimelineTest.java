@@ -0,0 +1,116 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import commands.CommandTimeline;
+import play.libs.Json;
+
+/**
+ * Checks that the command timeline releases commands only once the pauses before them have
+ * elapsed, using a manual clock instead of real time so nothing actually waits.
+ */
+public class CommandTimelineTest {
+
+	private long now = 1000;
+	private List<String> sent = new ArrayList<>();
+
+	private ObjectNode command(String type) {
+		ObjectNode message = Json.newObject();
+		message.put("messagetype", type);
+		return message;
+	}
+
+	private CommandTimeline newTimeline() {
+		return new CommandTimeline(message -> sent.add(message.get("messagetype").asText()), () -> now);
+	}
+
+	@Test
+	public void commandsWaitForPrecedingPauses() {
+		CommandTimeline timeline = newTimeline();
+		timeline.add(command("drawUnit"));
+		timeline.pause(250);
+		timeline.add(command("setUnitHealth"));
+
+		// only the first command is due, the next one is 250ms away
+		assertEquals(250, timeline.flush());
+		assertEquals(1, sent.size());
+
+		now += 250;
+		assertEquals(-1, timeline.flush());
+		assertEquals(2, sent.size());
+		assertEquals("setUnitHealth", sent.get(1));
+	}
+
+	@Test
+	public void actionsRunInOrderWithCommands() {
+		CommandTimeline timeline = newTimeline();
+		timeline.add(command("playUnitAnimation"));
+		timeline.pause(2000);
+		timeline.add(() -> sent.add("action"));
+		timeline.add(command("deleteUnit"));
+
+		timeline.flush();
+		assertEquals(1, sent.size());
+		now += 2000;
+		timeline.flush();
+		assertEquals("action", sent.get(1));
+		assertEquals("deleteUnit", sent.get(2));
+	}
+
+	@Test
+	public void trailingPauseKeepsTimelineBusy() {
+		CommandTimeline timeline = newTimeline();
+		timeline.add(command("addPlayer1Notification"));
+		timeline.pause(1000);
+
+		assertEquals(1000, timeline.flush());
+		assertTrue(timeline.isBusy());
+		now += 1000;
+		assertEquals(-1, timeline.flush());
+		assertFalse(timeline.isBusy());
+	}
+
+	@Test
+	public void batchIsSentAsOneFrame() {
+		List<ObjectNode> frames = new ArrayList<>();
+		CommandTimeline timeline = new CommandTimeline(frames::add, () -> now);
+		timeline.beginBatch();
+		for (int i = 0; i < 45; i++) timeline.add(command("drawTile"));
+		timeline.beginBatch(); // nested batches join the outer frame
+		timeline.add(command("drawCard"));
+		timeline.endBatch();
+		timeline.pause(100); // a pause closes the frame, the rest goes into a new one
+		timeline.add(command("drawTile"));
+		timeline.add(command("drawTile"));
+		timeline.endBatch();
+
+		timeline.flush();
+		assertEquals(1, frames.size());
+		assertEquals("batch", frames.get(0).get("messagetype").asText());
+		assertEquals(46, frames.get(0).get("commands").size());
+		now += 100;
+		timeline.flush();
+		assertEquals(2, frames.size());
+		assertEquals(2, frames.get(1).get("commands").size());
+	}
+
+	@Test
+	public void cursorDoesNotLagBehindTheClock() {
+		CommandTimeline timeline = newTimeline();
+		timeline.pause(100);
+		now += 5000; // the session was idle for a while
+		timeline.add(command("drawTile"));
+		timeline.pause(100);
+		timeline.add(command("drawTile"));
+
+		timeline.flush();
+		assertEquals(1, sent.size()); // the second command is still 100ms away, not sent in a burst
+	}
+}
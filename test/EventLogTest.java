@@ -0,0 +1,51 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import actors.EventLog;
+import play.libs.Json;
+
+/**
+ * Checks the sampling of the event log, and that unknown or missing message types share one logger
+ * and count. benchmarks.EventLogBenchmark compares its throughput with printing every event.
+ */
+public class EventLogTest {
+
+	@Test
+	public void typesAreSampled() {
+		EventLog log = new EventLog(1, Collections.singletonMap("unitMoving", 4));
+		int moving = 0;
+		int clicked = 0;
+		for (int i = 0; i < 100; i++) {
+			if (log.sample("unitMoving")) moving++;
+			if (log.sample("tileclicked")) clicked++;
+		}
+		assertEquals(25, moving);
+		assertEquals(100, clicked);
+		assertEquals(50, countSampled(new EventLog(2, Collections.<String, Integer>emptyMap()), "tileclicked", 100));
+	}
+
+	@Test
+	public void unknownTypesShareOneCount() {
+		EventLog log = new EventLog(1, Collections.singletonMap(EventLog.UNKNOWN, 2));
+		int sampled = 0;
+		for (int i = 0; i < 100; i++) if (log.sample("made-up-" + i)) sampled++;
+		assertEquals(50, sampled);
+		assertTrue(log.sample("tileclicked"));
+
+		ObjectNode untyped = Json.newObject().put("tilex", 3);
+		log.received(1, null, untyped);
+		log.received(1, "made-up", untyped);
+	}
+
+	private static int countSampled(EventLog log, String type, int events) {
+		int sampled = 0;
+		for (int i = 0; i < events; i++) if (log.sample(type)) sampled++;
+		return sampled;
+	}
+}
@@ -0,0 +1,139 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.CommandTimeline;
+import commands.GameEventSink;
+import events.Initalize;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import metrics.AIStepEvent;
+import metrics.SessionEvent;
+import play.libs.Json;
+import structures.GameState;
+import structures.GreedyAI;
+import structures.basic.Card;
+import structures.basic.Tile;
+import structures.basic.Unit;
+import utils.CustomizedBuilders;
+
+/**
+ * Records the game's flight recorder events for a card, a death, an AI turn and a frame and checks that they carry
+ * their session, and that headless play is not recorded.
+ */
+public class FlightRecorderEventsTest {
+
+	private static final long SESSION = 42;
+
+	@After
+	public void cleanUp() {
+		SessionEvent.exit();
+		BasicCommands.altTell = null;
+		BasicCommands.setEventSink(null);
+	}
+
+	@Test
+	public void eventsCarryTheirSession() throws Exception {
+		List<RecordedEvent> events = record(() -> {
+			BasicCommands.altTell = message -> {};
+			GameState gameState = new GameState();
+			new Initalize().processEvent(null, gameState, null);
+
+			SessionEvent.enter(SESSION);
+			// a unit card of player one on an empty tile
+			gameState.getPlayerOne().setMana(9);
+			List<Card> hand = gameState.getPlayerOne().getHand();
+			for (int i = 0; i < hand.size(); i++) {
+				if (hand.get(i).getBigCard().getHealth() != -1) {
+					gameState.setClickedHandPosition(i);
+					hand.get(i).execute(null, gameState, gameState.getBoard().getTile(3, 2));
+					break;
+				}
+			}
+			Unit unit = gameState.getBoard().getTile(3, 2).getUnit();
+			unit.takeDamage(unit.getHealth(), gameState, null);
+			gameState.clickable = false; // player two's turn, as in EndTurnClicked
+			new GreedyAI().playTurn(null, gameState, gameState.getPlayerTwo());
+
+			// a frame of three commands, sent once the pause before it has elapsed
+			long[] now = {0};
+			CommandTimeline timeline = new CommandTimeline(message -> {}, () -> now[0]);
+			timeline.pause(100);
+			timeline.beginBatch();
+			for (int i = 0; i < 3; i++) timeline.add(Json.newObject().put("messagetype", "drawTile"));
+			timeline.endBatch();
+			timeline.flush();
+			now[0] = 100;
+			timeline.flush();
+		});
+		List<RecordedEvent> cards = named(events, "cardgame.CardExecution");
+		assertEquals(1, cards.get(0).getInt("player"));
+		for (RecordedEvent card : cards.subList(1, cards.size())) assertEquals(2, card.getInt("player"));
+		assertEquals(1, named(events, "cardgame.UnitDeath").size());
+		assertEquals(2, named(events, "cardgame.AIStep").size());
+		assertEquals(1, named(events, "cardgame.CommandBatch").size());
+		for (RecordedEvent event : events) {
+			assertEquals(SESSION, event.getLong("session"));
+			assertTrue(!event.getDuration().isNegative());
+		}
+		assertEquals(3, named(events, "cardgame.CommandBatch").get(0).getInt("commands"));
+		assertTrue(named(events, "cardgame.UnitDeath").get(0).getClass("unitType").getName().startsWith("structures.units."));
+	}
+
+	@Test
+	public void headlessPlayIsNotRecorded() throws Exception {
+		List<RecordedEvent> events = record(() -> {
+			AIStepEvent outsideSession = new AIStepEvent("makeMove", 1);
+			outsideSession.begin();
+			outsideSession.record();
+
+			SessionEvent.enter(SESSION);
+			BasicCommands.setEventSink(GameEventSink.IGNORE);
+			GameState gameState = new GameState();
+			new Initalize().processEvent(null, gameState, null);
+			new GreedyAI().playTurn(null, gameState, gameState.getPlayerTwo());
+			Tile tile = gameState.getBoard().getTile(4, 4);
+			Unit unit = CustomizedBuilders.loadSummonByName("Pyromancer", gameState);
+			unit.summon(null, tile, gameState.getPlayerOne(), gameState.getBoard());
+			unit.takeDamage(unit.getHealth(), gameState, null);
+		});
+		assertEquals(0, events.size());
+	}
+
+	private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+		List<RecordedEvent> named = new ArrayList<>();
+		for (RecordedEvent event : events) if (event.getEventType().getName().equals(name)) named.add(event);
+		return named;
+	}
+
+	// the game's events recorded while the given code runs
+	private static List<RecordedEvent> record(Runnable game) throws Exception {
+		Path file = Files.createTempFile("game", ".jfr");
+		try (Recording recording = new Recording()) {
+			for (String name : new String[] {"cardgame.EventDispatch", "cardgame.AIStep", "cardgame.CardExecution",
+					"cardgame.UnitDeath", "cardgame.CommandBatch"}) {
+				recording.enable(name);
+			}
+			recording.start();
+			game.run();
+			recording.stop();
+			recording.dump(file);
+			List<RecordedEvent> events = new ArrayList<>();
+			for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+				if (event.getEventType().getName().startsWith("cardgame.")) events.add(event);
+			}
+			return events;
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
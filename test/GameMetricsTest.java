@@ -0,0 +1,89 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import events.Initalize;
+import metrics.GameMetrics;
+import metrics.LatencyHistogram;
+import simulation.HeadlessGame;
+import structures.GameState;
+import structures.GreedyAI;
+
+/**
+ * Checks the histogram's percentiles against exact ones, that commands and events show up in
+ * the metrics text, and that the AI is only timed outside headless games.
+ */
+public class GameMetricsTest {
+
+	@After
+	public void restoreTell() {
+		BasicCommands.altTell = null;
+		BasicCommands.setEventSink(null);
+	}
+
+	@Test
+	public void percentilesAreWithinTwoPercent() {
+		Random random = new Random(7);
+		LatencyHistogram histogram = new LatencyHistogram();
+		long[] values = new long[20000];
+		for (int i = 0; i < values.length; i++) {
+			// from microseconds to seconds, spread over the orders of magnitude
+			values[i] = (long) Math.pow(10, random.nextDouble() * 6.5);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+		for (double quantile : new double[] {0.1, 0.5, 0.9, 0.99, 0.999}) {
+			long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+			long reported = histogram.percentile(quantile);
+			assertTrue(quantile + ": " + reported + " for " + exact, reported >= exact && reported <= exact * 1.02);
+		}
+		assertEquals(values[values.length - 1], histogram.percentile(1));
+		assertEquals(values.length, histogram.getCount());
+		assertEquals(values[values.length - 1], histogram.getMax());
+		assertEquals(0, new LatencyHistogram().percentile(0.5));
+	}
+
+	@Test
+	public void metricsTextListsEventsAndCommands() {
+		BasicCommands.altTell = message -> {};
+		long tilesBefore = GameMetrics.getCommandsSent("drawTile");
+		new Initalize().processEvent(null, new GameState(), null);
+		assertTrue(GameMetrics.getCommandsSent("drawTile") >= tilesBefore + 45);
+
+		GameMetrics.eventProcessed("tileclicked", 2_500_000);
+		GameMetrics.eventProcessed("tileclicked", 1_500_000);
+		String text = GameMetrics.text();
+		assertTrue(text.contains("# TYPE game_event_duration_seconds summary"));
+		assertTrue(text.contains("game_event_duration_seconds{type=\"tileclicked\",quantile=\"0.99\"} 0.0025"));
+		assertTrue(text.contains("game_commands_sent_total{command=\"drawTile\"} "));
+		assertTrue(text.contains("game_sessions_active " + GameMetrics.getActiveSessions()));
+	}
+
+	@Test
+	public void headlessGamesAreNotTimed() {
+		long turns = timed("playTurn");
+		long moves = timed("makeMove");
+		new HeadlessGame(GameEventSink.IGNORE, 8).play();
+		assertEquals(turns, timed("playTurn"));
+		assertEquals(moves, timed("makeMove"));
+
+		// a game without a sink is timed, whatever ActorRef it is played with
+		BasicCommands.altTell = message -> {};
+		GameState gameState = new GameState();
+		new Initalize().processEvent(null, gameState, null);
+		new GreedyAI().playTurn(null, gameState, gameState.getPlayerTwo());
+		assertEquals(moves + 1, timed("makeMove"));
+	}
+
+	private static long timed(String step) {
+		LatencyHistogram histogram = GameMetrics.getAIStepLatency(step);
+		return histogram == null ? 0 : histogram.getCount();
+	}
+}
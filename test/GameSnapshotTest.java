@@ -0,0 +1,79 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import events.EndTurnClicked;
+import events.Initalize;
+import structures.GameSnapshot;
+import structures.GameState;
+import structures.GreedyAI;
+import structures.basic.Unit;
+
+/**
+ * Checks that a snapshot records everything the rules depend on: restoring it and playing on
+ * must give the same game as playing on from the original position.
+ */
+public class GameSnapshotTest {
+
+	@After
+	public void removeSink() {
+		BasicCommands.setEventSink(null);
+	}
+
+	private GameState newGame() {
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+		GameState gameState = new GameState();
+		new Initalize().processEvent(null, gameState, null);
+		return gameState;
+	}
+
+	// player one's turn by the AI, then the end of turn with player two's reply
+	private void playRound(GameState gameState) {
+		new GreedyAI().playTurn(null, gameState, gameState.getPlayerOne());
+		new EndTurnClicked().processEvent(null, gameState, null);
+	}
+
+	@Test
+	public void restoreUndoesSeveralTurns() {
+		GameState gameState = newGame();
+		GameSnapshot start = GameSnapshot.of(gameState);
+		long occupied = gameState.getBoard().getOccupiedMask();
+
+		for (int i = 0; i < 4 && !gameState.gameOver; i++) playRound(gameState);
+		assertNotEquals(start, GameSnapshot.of(gameState));
+
+		start.restore(gameState);
+		assertEquals(start, GameSnapshot.of(gameState));
+		assertEquals(occupied, gameState.getBoard().getOccupiedMask());
+		for (Unit unit : gameState.getBoard().getPlayer2Units()) {
+			assertSame(unit, gameState.getBoard().getUnit(unit.getId()));
+			assertSame(unit, gameState.getBoard().getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley()).getUnit());
+		}
+	}
+
+	@Test
+	public void restoredGamePlaysOnTheSame() {
+		GameState gameState = newGame();
+		for (int i = 0; i < 3; i++) playRound(gameState);
+		GameSnapshot middle = GameSnapshot.of(gameState);
+
+		for (int i = 0; i < 3 && !gameState.gameOver; i++) playRound(gameState);
+		GameSnapshot firstTime = GameSnapshot.of(gameState);
+
+		middle.restore(gameState);
+		for (int i = 0; i < 3 && !gameState.gameOver; i++) playRound(gameState);
+		assertEquals(firstTime, GameSnapshot.of(gameState));
+	}
+
+	@Test
+	public void copyHasTheSameSnapshot() {
+		GameState gameState = newGame();
+		for (int i = 0; i < 3; i++) playRound(gameState);
+		assertEquals(GameSnapshot.of(gameState), GameSnapshot.of(gameState.copy()));
+	}
+}
@@ -0,0 +1,71 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import simulation.HeadlessGame;
+import simulation.SimulationRunner;
+import simulation.Tournament;
+import structures.basic.Unit;
+
+/**
+ * Plays whole AI against AI games without a front-end and checks that the rules report what
+ * happens through the event sink only.
+ */
+public class HeadlessGameTest {
+
+	@After
+	public void restoreTell() {
+		BasicCommands.altTell = null;
+	}
+
+	@Test
+	public void gameIsPlayedThroughTheSink() {
+		List<String> commands = new ArrayList<>();
+		BasicCommands.altTell = message -> commands.add(message.get("messagetype").asText());
+		List<Unit> summoned = new ArrayList<>();
+		List<Unit> deleted = new ArrayList<>();
+		GameEventSink sink = new GameEventSink() {
+			@Override
+			public void unitDrawn(Unit unit, structures.basic.Tile tile) { summoned.add(unit); }
+			@Override
+			public void unitDeleted(Unit unit) { deleted.add(unit); }
+		};
+
+		HeadlessGame game = new HeadlessGame(sink, HeadlessGame.DEFAULT_TURN_LIMIT);
+		int winner = game.play();
+
+		assertEquals(0, commands.size()); // no JSON commands were built
+		assertTrue(summoned.size() >= 2); // at least both avatars
+		assertTrue(game.getTurns() > 1);
+		assertEquals(winner, game.getWinner());
+		if (winner != 0) assertTrue(game.getGameState().gameOver);
+	}
+
+	@Test
+	public void runnerPlaysEveryGame() throws Exception {
+		SimulationRunner.Results results = SimulationRunner.run(8, 2);
+		assertEquals(8, results.games);
+		// every game ends with player one or two winning or at the turn limit, counted in wins[0]
+		assertEquals(8, results.wins[0].get() + results.wins[1].get() + results.wins[2].get());
+		assertTrue(results.elapsedNanos > 0);
+	}
+
+	@Test
+	public void tournamentCountsEveryGameOnce() {
+		Tournament.Report report = Tournament.run(40, 4);
+		assertEquals(40, report.getGames());
+		assertTrue(report.getUnfinished() >= 0 && report.getUnfinished() <= 40);
+		for (int deck = 1; deck <= 2; deck++) {
+			assertTrue(report.getWinRate(deck) >= 0 && report.getWinRate(deck) <= 1);
+		}
+		assertEquals(1.0, report.getWinRate(1) + report.getWinRate(2) + report.getUnfinished() / 40.0, 1e-9);
+		assertTrue(report.getAverageTurns() > 1);
+	}
+}
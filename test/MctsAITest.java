@@ -0,0 +1,153 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import events.Initalize;
+import simulation.HeadlessGame;
+import structures.GameState;
+import structures.GreedyAI;
+import structures.MctsAI;
+import structures.Move;
+import structures.TranspositionTable;
+import structures.basic.Board;
+import structures.basic.Unit;
+import structures.basic.Zobrist;
+import structures.units.Avatar;
+
+/**
+ * Checks that game states copy independently, and that the tree search AI plays legal turns
+ * without changing the game while it searches.
+ */
+public class MctsAITest {
+
+	@After
+	public void removeSink() {
+		BasicCommands.setEventSink(null);
+	}
+
+	private GameState newGame() {
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+		GameState gameState = new GameState();
+		new Initalize().processEvent(null, gameState, null);
+		return gameState;
+	}
+
+	@Test
+	public void copyIsIndependent() {
+		GameState gameState = newGame();
+		gameState.getPlayerTwo().setMana(9);
+		GameState copy = gameState.copy();
+
+		Board board = copy.getBoard();
+		assertEquals(gameState.getBoard().getPlayer1Units().size(), board.getPlayer1Units().size());
+		for (Unit unit : board.getPlayer2Units()) {
+			assertNotSame(gameState.getBoard().getUnit(unit.getId()), unit);
+			assertSame(unit, board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley()).getUnit());
+			if (unit instanceof Avatar) assertSame(copy.getPlayerTwo(), ((Avatar) unit).getPlayer());
+		}
+
+		int handSize = gameState.getPlayerTwo().getHand().size();
+		int deckSize = gameState.getPlayerTwo().getDeck().getCards().size();
+		long occupied = gameState.getBoard().getOccupiedMask();
+		new GreedyAI().playTurn(null, copy, copy.getPlayerTwo());
+		copy.getPlayerTwo().draw(null);
+
+		assertEquals(handSize, gameState.getPlayerTwo().getHand().size());
+		assertEquals(deckSize, gameState.getPlayerTwo().getDeck().getCards().size());
+		assertEquals(occupied, gameState.getBoard().getOccupiedMask());
+		assertEquals(9, gameState.getPlayerTwo().getMana());
+	}
+
+	@Test
+	public void searchIsRepeatable() {
+		GameState first = newGame();
+		GameState second = newGame();
+		first.getPlayerTwo().setMana(6);
+		second.getPlayerTwo().setMana(6);
+
+		new MctsAI(50, 0).playTurn(null, first, first.getPlayerTwo());
+		new MctsAI(50, 0).playTurn(null, second, second.getPlayerTwo());
+
+		// an iteration budget always leads to the same turn
+		assertEquals(first.getBoard().getOccupiedMask(), second.getBoard().getOccupiedMask());
+		assertEquals(first.getPlayerTwo().getMana(), second.getPlayerTwo().getMana());
+		assertEquals(first.getPlayerTwo().getHand().size(), second.getPlayerTwo().getHand().size());
+		assertTrue(first.getPlayerTwo().getMana() >= 0);
+	}
+
+	@Test
+	public void parallelTreesAreMerged() {
+		ForkJoinPool pool = MctsAI.newSearchPool(4);
+		try {
+			GameState first = newGame();
+			GameState second = newGame();
+			first.getPlayerTwo().setMana(6);
+			second.getPlayerTwo().setMana(6);
+
+			new MctsAI(80, 0, 4, pool).playTurn(null, first, first.getPlayerTwo());
+			new MctsAI(80, 0, 4, pool).playTurn(null, second, second.getPlayerTwo());
+
+			assertTrue(pool.getPoolSize() > 0); // the trees were searched on the pool
+			assertSame(GameEventSink.IGNORE, BasicCommands.getEventSink()); // the caller's sink is left alone
+			// every tree has its own seed, so the merged turn is the same each time
+			assertEquals(first.getBoard().getOccupiedMask(), second.getBoard().getOccupiedMask());
+			assertEquals(first.getPlayerTwo().getMana(), second.getPlayerTwo().getMana());
+			assertTrue(first.getPlayerTwo().getMana() >= 0);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void mctsPlaysPlayerTwo() {
+		HeadlessGame game = new HeadlessGame(GameEventSink.IGNORE, 12);
+		game.setPlayerTwoAI(new MctsAI(40, 0));
+		int winner = game.play();
+
+		assertEquals(winner, game.getWinner());
+		assertTrue(game.getTurns() > 1);
+		assertTrue(game.getGameState().getPlayerTwo().getMana() >= 0); // never played a card it could not pay for
+	}
+
+	@Test
+	public void timeBudgetEndsTheSearch() {
+		final long budgetMillis = 100;
+		final long marginMillis = 1000; // playing out the turn, and a slow machine
+		GameState gameState = newGame();
+		gameState.getPlayerTwo().setMana(6);
+
+		long start = System.nanoTime();
+		new MctsAI(0, budgetMillis).playTurn(null, gameState, gameState.getPlayerTwo());
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		assertTrue("turn planned in " + millis + " ms", millis < budgetMillis + marginMillis);
+		assertTrue(gameState.getPlayerTwo().getMana() >= 0);
+	}
+
+	@Test
+	public void staleTableEntriesAreNotPlayed() {
+		GameState stale = newGame();
+		GameState fresh = newGame();
+		stale.getPlayerTwo().setMana(6);
+		fresh.getPlayerTwo().setMana(6);
+
+		// another position's best move under this position's key (see MctsAI.BEST_MOVE): a card the hand does not hold
+		TranspositionTable table = new TranspositionTable(1024);
+		table.store(stale.getPositionKey() ^ ~Zobrist.side(0), 1, Move.card(9, 0));
+		new MctsAI(50, 0, 1, null, table).playTurn(null, stale, stale.getPlayerTwo());
+		new MctsAI(50, 0, 1, null, new TranspositionTable(1024)).playTurn(null, fresh, fresh.getPlayerTwo());
+
+		// the entry was skipped and the turn searched as with an empty table
+		assertEquals(fresh.getBoard().getOccupiedMask(), stale.getBoard().getOccupiedMask());
+		assertEquals(fresh.getPlayerTwo().getMana(), stale.getPlayerTwo().getMana());
+		assertEquals(fresh.getPlayerTwo().getHand().size(), stale.getPlayerTwo().getHand().size());
+	}
+}
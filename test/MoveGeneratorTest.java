@@ -0,0 +1,220 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import events.EndTurnClicked;
+import events.Initalize;
+import structures.GameState;
+import structures.GreedyAI;
+import structures.Move;
+import structures.MoveGenerator;
+import structures.basic.Board;
+import structures.basic.Card;
+import structures.basic.Player;
+import structures.basic.Tile;
+import structures.basic.Unit;
+import structures.units.Avatar;
+import utils.CustomizedBuilders;
+
+/**
+ * Checks that the move generator finds exactly the tiles a click highlights, in the same order,
+ * without drawing anything.
+ */
+public class MoveGeneratorTest {
+
+	// counts the tiles drawn while it is installed
+	private static class DrawCounter implements GameEventSink {
+		int drawn;
+
+		@Override
+		public void tileDrawn(Tile tile, int mode) {
+			drawn++;
+		}
+	}
+
+	@After
+	public void removeSink() {
+		BasicCommands.setEventSink(null);
+	}
+
+	private GameState newGame() {
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+		GameState gameState = new GameState();
+		new Initalize().processEvent(null, gameState, null);
+		return gameState;
+	}
+
+	// The moves found by highlighting each unit and card, the way the AI did before the generator
+	private static List<Integer> highlightedMoves(GameState gameState, Player player) {
+		Board board = gameState.getBoard();
+		int enemy = player.getPlayerNumber() == 1 ? 2 : 1;
+		List<Integer> moves = new ArrayList<>();
+		moves.add(Move.endTurn());
+		for (Unit unit : new ArrayList<>(board.getPlayerUnits(player.getPlayerNumber()))) {
+			if (unit.getHasMoved() && unit.getHasAttacked()) continue;
+			board.clearHighlightedTiles();
+			Tile tile = board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+			if (!unit.getHasMoved() && !unit.getHasAttacked()) unit.displayMovementTiles(null, tile, gameState);
+			if (unit.getHasMoved() && !unit.getHasAttacked()) unit.displayInRangeAttackTiles(null, tile, board);
+			for (Tile highlighted : board.getHighlightedTiles()) {
+				if (highlighted.getUnit() == null || board.isOwnedBy(highlighted.getUnit(), enemy)) {
+					moves.add(Move.unit(unit.getId(), Board.index(highlighted)));
+				}
+			}
+		}
+		List<Card> hand = player.getHand();
+		for (int i = 0; i < hand.size(); i++) {
+			if (hand.get(i).getManacost() > player.getMana()) continue;
+			hand.get(i).displayCardValidTiles(null, gameState);
+			for (Tile highlighted : board.getHighlightedTiles()) moves.add(Move.card(i, Board.index(highlighted)));
+		}
+		board.clearHighlightedTiles();
+		return moves;
+	}
+
+	private static List<Integer> generated(MoveGenerator generator, GameState gameState, Player player) {
+		List<Integer> moves = new ArrayList<>();
+		int count = generator.generate(gameState, player);
+		for (int i = 0; i < count; i++) moves.add(generator.get(i));
+		return moves;
+	}
+
+	@Test
+	public void matchesHighlightsThroughRandomGames() {
+		Random random = new Random(11);
+		MoveGenerator generator = new MoveGenerator();
+		int positions = 0;
+		for (int game = 0; game < 4; game++) {
+			GameState gameState = newGame();
+			for (int turn = 0; turn < 12 && !gameState.gameOver; turn++) {
+				// player two plays random moves, checking every position on the way
+				gameState.clickable = false;
+				Player two = gameState.getPlayerTwo();
+				for (int step = 0; step < 8 && !gameState.gameOver; step++) {
+					List<Integer> expected = highlightedMoves(gameState, two);
+					assertEquals(expected, generated(generator, gameState, two));
+					positions++;
+					if (expected.size() == 1) break;
+					Move.apply(null, gameState, two, expected.get(1 + random.nextInt(expected.size() - 1)));
+				}
+				if (gameState.gameOver) break;
+				gameState.clickable = true;
+				for (Unit unit : gameState.getBoard().getPlayer1Units()) {
+					unit.resetMovement();
+					unit.resetAttack();
+				}
+				assertEquals(highlightedMoves(gameState, gameState.getPlayerOne()), generated(generator, gameState, gameState.getPlayerOne()));
+				new GreedyAI().playTurn(null, gameState, gameState.getPlayerOne());
+				new EndTurnClicked().processEvent(null, gameState, null);
+			}
+		}
+		assertTrue(positions > 20);
+	}
+
+	@Test
+	public void generatingDrawsNothing() {
+		GameState gameState = newGame();
+		gameState.clickable = false;
+		gameState.getPlayerTwo().setMana(9);
+		DrawCounter counter = new DrawCounter();
+		BasicCommands.setEventSink(counter);
+		long highlights = gameState.getBoard().getHighlightMask();
+
+		int count = new MoveGenerator().generate(gameState, gameState.getPlayerTwo());
+		assertTrue(count > 1);
+		assertEquals(0, counter.drawn);
+		assertEquals(highlights, gameState.getBoard().getHighlightMask());
+
+		highlightedMoves(gameState, gameState.getPlayerTwo());
+		assertTrue(counter.drawn > 0); // the highlights it replaces do draw
+	}
+
+	@Test
+	public void applyingAUnitMoveDrawsNoHighlights() {
+		GameState gameState = newGame();
+		gameState.clickable = false;
+		Avatar avatarTwo = avatar(gameState.getBoard(), 2);
+		avatarTwo.resetMovement();
+		MoveGenerator generator = new MoveGenerator();
+		generator.addUnitMoves(gameState.getBoard(), avatarTwo);
+		int move = generator.get(0);
+		DrawCounter counter = new DrawCounter();
+		BasicCommands.setEventSink(counter);
+
+		Move.apply(null, gameState, gameState.getPlayerTwo(), move);
+		assertEquals(Move.tile(move), Board.index(tileOf(gameState.getBoard(), avatarTwo)));
+		assertEquals(0, counter.drawn);
+		assertEquals(0, gameState.getBoard().getHighlightMask());
+	}
+
+	private static Avatar avatar(Board board, int playerNumber) {
+		for (Unit unit : board.getPlayerUnits(playerNumber)) {
+			if (unit instanceof Avatar) return (Avatar) unit;
+		}
+		throw new AssertionError("No avatar for player " + playerNumber);
+	}
+
+	private static Tile tileOf(Board board, Unit unit) {
+		return board.getTile(unit.getPosition().getTilex(), unit.getPosition().getTiley());
+	}
+
+	// summons a unit for the player on the tile, ready to act
+	private static Unit summon(GameState gameState, String name, Player player, Tile tile) throws Exception {
+		Unit unit = CustomizedBuilders.loadSummonByName(name, gameState);
+		unit.summon(null, tile, player, gameState.getBoard());
+		unit.resetMovement();
+		unit.resetAttack();
+		return unit;
+	}
+
+	@Test
+	public void provokeFlyingRangedAndAirdrop() throws Exception {
+		GameState gameState = newGame();
+		gameState.clickable = false;
+		Board board = gameState.getBoard();
+		Player two = gameState.getPlayerTwo();
+		MoveGenerator generator = new MoveGenerator();
+		Unit avatarOne = avatar(board, 1);
+		Unit avatarTwo = avatar(board, 2);
+		Tile avatarTwoTile = tileOf(board, avatarTwo);
+
+		// flying: anywhere, including far from where it stands
+		Unit shrike = summon(gameState, "WindShrike", two, board.getTile(avatarTwoTile.getTilex(), avatarTwoTile.getTiley() - 1));
+		generator.clear();
+		generator.addUnitMoves(board, shrike);
+		assertEquals(Board.allTilesMask() & ~board.getOccupiedMask() | board.getPlayerMask(1), tilesOf(generator));
+
+		// ranged: the enemy avatar across the board can be attacked without moving
+		Unit pyromancer = summon(gameState, "Pyromancer", two, board.getTile(avatarTwoTile.getTilex(), avatarTwoTile.getTiley() + 1));
+		generator.clear();
+		generator.addUnitMoves(board, pyromancer);
+		assertTrue((tilesOf(generator) & Board.bit(tileOf(board, avatarOne))) != 0);
+
+		// provoke: next to an enemy with provoke, that enemy is the only target
+		Tile provokeTile = board.getTile(avatarTwoTile.getTilex() - 1, avatarTwoTile.getTiley());
+		summon(gameState, "Rock Pulveriser", gameState.getPlayerOne(), provokeTile);
+		generator.clear();
+		generator.addUnitMoves(board, avatarTwo);
+		assertEquals(1, generator.size());
+		assertEquals(Move.unit(avatarTwo.getId(), Board.index(provokeTile)), generator.get(0));
+
+		// airdrop: any empty tile, not only next to a friendly unit
+		Card scout = new Card(99, "Planar Scout", 1, null, null);
+		assertEquals(Board.allTilesMask() & ~board.getOccupiedMask(), scout.validTiles(board, 2));
+		assertEquals(highlightedMoves(gameState, two), generated(generator, gameState, two));
+	}
+
+	private static long tilesOf(MoveGenerator generator) {
+		long tiles = 0;
+		for (int i = 0; i < generator.size(); i++) tiles |= 1L << Move.tile(generator.get(i));
+		return tiles;
+	}
+}
@@ -0,0 +1,68 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import utils.ImageListForPreLoad;
+import utils.PreloadManifest;
+import utils.PrototypeRegistry;
+
+/**
+ * Checks that the preload manifest lists the same images as before, and that its version and
+ * ETag only change with the images.
+ */
+public class PreloadManifestTest {
+
+	@Test
+	public void listsEveryImageOnce() throws Exception {
+		PrototypeRegistry.preload();
+		PreloadManifest manifest = PreloadManifest.get();
+		Set<String> images = ImageListForPreLoad.getImageListForPreLoad();
+		assertEquals(images, new HashSet<>(manifest.getImages()));
+		assertEquals(images.size(), manifest.getImages().size());
+
+		JsonNode body = new ObjectMapper().readTree(new String(manifest.getBody(), StandardCharsets.UTF_8));
+		List<String> sent = new ArrayList<>();
+		for (JsonNode image : body) sent.add(image.asText());
+		assertEquals(manifest.getImages(), sent);
+		assertSame(manifest, PreloadManifest.get());
+
+		JsonNode ready = manifest.getReadyMessage();
+		assertEquals("actorReady", ready.get("messagetype").asText());
+		assertEquals(PreloadManifest.PATH + manifest.getVersion(), ready.get("preloadUrl").asText());
+	}
+
+	@Test
+	public void versionFollowsTheImages() {
+		PreloadManifest manifest = new PreloadManifest(Arrays.asList("b.png", "a.png"));
+		PreloadManifest same = new PreloadManifest(Arrays.asList("a.png", "b.png", "a.png"));
+		PreloadManifest other = new PreloadManifest(Arrays.asList("a.png", "c.png"));
+		assertEquals(manifest.getVersion(), same.getVersion());
+		assertTrue(!manifest.getVersion().equals(other.getVersion()));
+		assertEquals("\"" + manifest.getVersion() + "\"", manifest.getEtag());
+	}
+
+	@Test
+	public void etagIsMatched() {
+		PreloadManifest manifest = new PreloadManifest(Arrays.asList("a.png"));
+		PreloadManifest other = new PreloadManifest(Arrays.asList("b.png"));
+		assertTrue(manifest.isCachedBy(manifest.getEtag()));
+		assertTrue(manifest.isCachedBy("W/" + manifest.getEtag()));
+		assertTrue(manifest.isCachedBy(other.getEtag() + ", " + manifest.getEtag()));
+		assertTrue(manifest.isCachedBy("*"));
+		assertFalse(manifest.isCachedBy(other.getEtag()));
+		assertFalse(manifest.isCachedBy(null));
+	}
+}
@@ -0,0 +1,81 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import simulation.HeadlessGame;
+import structures.GameState;
+import structures.basic.Card;
+import structures.basic.Unit;
+import structures.units.Serpenti;
+import utils.BasicObjectBuilders;
+import utils.CustomizedBuilders;
+import utils.PrototypeRegistry;
+import utils.StaticConfFiles;
+
+/**
+ * Checks that cards and units copied from the registry match the ones read from file, that the
+ * copies are independent, and that playing games reads no more files.
+ */
+public class PrototypeRegistryTest {
+
+	@After
+	public void removeSink() {
+		BasicCommands.setEventSink(null);
+	}
+
+	@Test
+	public void copiesMatchTheFiles() throws Exception {
+		PrototypeRegistry.preload();
+		String[] files = {StaticConfFiles.c_serpenti, StaticConfFiles.c_truestrike, StaticConfFiles.c_pyromancer};
+		for (int id = 0; id < files.length; id++) {
+			Card fromFile = BasicObjectBuilders.loadCard(files[id], id, Card.class);
+			Card copy = PrototypeRegistry.loadCard(files[id], id);
+			assertEquals(fromFile.getId(), copy.getId());
+			assertEquals(fromFile.getCardname(), copy.getCardname());
+			assertEquals(fromFile.getManacost(), copy.getManacost());
+			assertEquals(fromFile.getBigCard().getAttack(), copy.getBigCard().getAttack());
+		}
+
+		GameState gameState = new GameState();
+		gameState.clickable = false;
+		Unit first = CustomizedBuilders.loadSummonByName("Serpenti", gameState);
+		Unit second = CustomizedBuilders.loadSummonByName("Serpenti", gameState);
+		Unit fromFile = CustomizedBuilders.loadSummon(StaticConfFiles.u_serpenti, StaticConfFiles.c_serpenti, 99, Serpenti.class);
+		assertTrue(first instanceof Serpenti);
+		assertNotSame(first, second);
+		assertTrue(first.getId() != second.getId());
+		assertEquals(fromFile.getHealth(), first.getHealth());
+		assertEquals(fromFile.getAttack(), first.getAttack());
+		assertSame(first.getAnimations(), second.getAnimations()); // art is shared
+
+		// changing one copy leaves the others alone
+		first.setHealth(1);
+		first.setAttack(0);
+		assertEquals(fromFile.getHealth(), second.getHealth());
+		assertEquals(fromFile.getAttack(), CustomizedBuilders.loadSummonByName("Serpenti", gameState).getAttack());
+
+		assertSame(PrototypeRegistry.loadEffect(StaticConfFiles.f1_summon), PrototypeRegistry.loadEffect(StaticConfFiles.f1_summon));
+	}
+
+	@Test
+	public void gamesReadNoFiles() {
+		int files = PrototypeRegistry.preload();
+		assertEquals(files, PrototypeRegistry.size());
+		int read = BasicObjectBuilders.getFilesRead();
+
+		HeadlessGame game = new HeadlessGame(GameEventSink.IGNORE, 20);
+		game.play();
+		assertEquals(read, BasicObjectBuilders.getFilesRead());
+		assertEquals(files, PrototypeRegistry.size());
+
+		// the count does see a read
+		BasicObjectBuilders.loadCard(StaticConfFiles.c_truestrike, 0, Card.class);
+		assertEquals(read + 1, BasicObjectBuilders.getFilesRead());
+	}
+}
@@ -0,0 +1,44 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import structures.basic.Board;
+import structures.basic.Tile;
+import utils.BasicObjectBuilders;
+import utils.StaticConfFiles;
+
+/**
+ * Checks that boards are built from the tile template and that their tiles share its textures.
+ */
+public class SessionSetupTest {
+
+	@Test
+	public void tilesMatchTheFileAndShareTextures() {
+		Board board = new Board();
+		Tile first = board.getTile(0, 0);
+		for (int x = 0; x < board.getX(); x++) {
+			for (int y = 0; y < board.getY(); y++) {
+				Tile tile = board.getTile(x, y);
+				Tile fromFile = Tile.constructTile(StaticConfFiles.tileConf);
+				assertEquals(fromFile.getTileTextures(), tile.getTileTextures());
+				assertEquals(fromFile.getWidth() * x + 5 * x + 410, tile.getXpos());
+				assertEquals(fromFile.getHeight() * y + 5 * y + 280, tile.getYpos());
+				assertEquals(x, tile.getTilex());
+				assertEquals(y, tile.getTiley());
+				assertSame(first.getTileTextures(), tile.getTileTextures());
+			}
+		}
+		try {
+			first.getTileTextures().add("assets/game/extra/ui/other.png");
+			fail("the shared textures cannot be changed");
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+
+	@Test
+	public void loadedTilesShareTextures() {
+		assertSame(BasicObjectBuilders.loadTile(0, 0).getTileTextures(), BasicObjectBuilders.loadTile(8, 4).getTileTextures());
+	}
+}
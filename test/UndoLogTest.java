@@ -0,0 +1,119 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import events.EndTurnClicked;
+import events.Initalize;
+import structures.GameSnapshot;
+import structures.GameState;
+import structures.GreedyAI;
+import structures.Move;
+import structures.basic.Player;
+import structures.basic.UndoLog;
+
+/**
+ * Checks make/unmake against replaying the same moves on a fresh copy of the game.
+ */
+public class UndoLogTest {
+
+	@After
+	public void removeSink() {
+		BasicCommands.setEventSink(null);
+	}
+
+	// A game a few turns in, with player two to move and enough mana to play cards
+	private GameState midGame() {
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+		GameState gameState = new GameState();
+		new Initalize().processEvent(null, gameState, null);
+		for (int i = 0; i < 3; i++) {
+			new GreedyAI().playTurn(null, gameState, gameState.getPlayerOne());
+			new EndTurnClicked().processEvent(null, gameState, null);
+		}
+		gameState.clickable = false;
+		for (structures.basic.Unit unit : gameState.getBoard().getPlayer2Units()) {
+			unit.resetMovement();
+			unit.resetAttack();
+		}
+		return gameState;
+	}
+
+	@Test
+	public void unmakeMatchesReplay() {
+		GameState start = midGame();
+		Random random = new Random(7);
+
+		for (int line = 0; line < 30; line++) {
+			GameState game = start.copy();
+			GameSnapshot initial = GameSnapshot.of(game);
+			UndoLog log = new UndoLog(game);
+			List<Integer> moves = new ArrayList<>();
+			List<GameSnapshot> positions = new ArrayList<>();
+			Player player = game.getPlayerTwo();
+
+			// walk down a random line of moves
+			for (int depth = 0; depth < 5 && !game.gameOver; depth++) {
+				positions.add(GameSnapshot.of(game));
+				int[] legal = Move.legalMoves(game, player); // ending the turn first
+				if (legal.length == 1) break;
+				int move = legal[1 + random.nextInt(legal.length - 1)];
+				moves.add(move);
+				log.make(player, move);
+			}
+
+			// the same moves replayed on a fresh copy give the same position
+			GameState replay = start.copy();
+			for (int move : moves) Move.apply(null, replay, replay.getPlayerTwo(), move);
+			assertEquals(GameSnapshot.of(replay), GameSnapshot.of(game));
+
+			// unmaking goes back through every position on the way
+			for (int depth = moves.size() - 1; depth >= 0; depth--) {
+				log.unmake();
+				assertEquals("after undoing " + Move.toString(moves.get(depth)), positions.get(depth), GameSnapshot.of(game));
+			}
+			assertEquals(0, log.getDepth());
+			assertEquals(initial, GameSnapshot.of(game));
+		}
+	}
+
+	/**
+	 * A depth first walk over every line of two moves, all on one game, must leave it untouched
+	 * and reach each position exactly as replay does.
+	 */
+	@Test
+	public void depthFirstWalkOnOneGame() {
+		GameState start = midGame();
+		GameState game = start.copy();
+		GameSnapshot initial = GameSnapshot.of(game);
+		UndoLog log = new UndoLog(game);
+		Player player = game.getPlayerTwo();
+		int positions = 0;
+
+		for (int a : Move.legalMoves(game, player)) {
+			if (Move.kind(a) == Move.END_TURN) continue;
+			log.make(player, a);
+			for (int b : Move.legalMoves(game, player)) {
+				if (Move.kind(b) == Move.END_TURN) continue;
+				log.make(player, b);
+				if (positions++ % 25 == 0) {
+					GameState replay = start.copy();
+					Move.apply(null, replay, replay.getPlayerTwo(), a);
+					Move.apply(null, replay, replay.getPlayerTwo(), b);
+					assertEquals(GameSnapshot.of(replay), GameSnapshot.of(game));
+				}
+				log.unmake();
+			}
+			log.unmake();
+		}
+		assertTrue(positions > 0);
+		assertEquals(initial, GameSnapshot.of(game));
+	}
+}
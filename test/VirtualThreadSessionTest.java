@@ -0,0 +1,202 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.typesafe.config.ConfigFactory;
+
+import actors.GameActor;
+import actors.SessionExecutors;
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.OneForOneStrategy;
+import akka.actor.Props;
+import akka.actor.SupervisorStrategy;
+import akka.japi.pf.DeciderBuilder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import play.libs.Json;
+import structures.AIPlayer;
+import structures.GreedyAI;
+import utils.PrototypeRegistry;
+
+/**
+ * Runs a session's events on an executor, as with game.sessions.virtual-threads = on (on virtual
+ * threads from Java 21, on a thread pool before): the events are processed on the executor one at a
+ * time in the order they arrived, and an event that fails there fails the session's actor.
+ */
+public class VirtualThreadSessionTest {
+
+	private static final long TIMEOUT_SECONDS = 30;
+
+	private ActorSystem system;
+	private ExecutorService threads;
+
+	/**
+	 * Runs the session's events on the threads and counts them. A task ends after it has told the
+	 * actor that its event is done, so the next event's task may start before it ends: whether
+	 * events overlap is read from the EventDispatch recordings instead.
+	 */
+	private static final class CountingExecutor implements Executor {
+		private final Executor threads;
+		private final CountDownLatch done;
+
+		CountingExecutor(Executor threads, int events) {
+			this.threads = threads;
+			this.done = new CountDownLatch(events);
+		}
+
+		@Override
+		public void execute(Runnable event) {
+			threads.execute(() -> {
+				try {
+					event.run();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+
+		boolean await() throws InterruptedException {
+			return done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Starts the session under it, passes it the events and stops it on its first failure, which
+	 * it hands to the test.
+	 */
+	public static class Supervisor extends AbstractActor {
+		private final ActorRef session;
+		private final BlockingQueue<Throwable> failures;
+
+		public Supervisor(Props session, BlockingQueue<Throwable> failures) {
+			this.session = getContext().actorOf(session, "session");
+			this.failures = failures;
+		}
+
+		@Override
+		public SupervisorStrategy supervisorStrategy() {
+			return new OneForOneStrategy(1, Duration.ofMinutes(1), DeciderBuilder.matchAny(failure -> {
+				failures.add(failure);
+				return SupervisorStrategy.stop();
+			}).build());
+		}
+
+		@Override
+		public Receive createReceive() {
+			return receiveBuilder().matchAny(message -> session.forward(message, getContext())).build();
+		}
+	}
+
+	@Before
+	public void startSystem() {
+		PrototypeRegistry.preload();
+		// no AI dispatcher configured, so the end of turn runs on the session's executor as well
+		system = ActorSystem.create("sessions", ConfigFactory.load(ConfigFactory.parseString(
+				"akka.loglevel = OFF\nakka.log-dead-letters = off")));
+		threads = SessionExecutors.virtualThreads();
+		if (threads == null) threads = Executors.newCachedThreadPool();
+	}
+
+	@After
+	public void stopSystem() {
+		system.terminate();
+		threads.shutdown();
+	}
+
+	private static ObjectNode event(String type) {
+		return Json.newObject().put("messagetype", type);
+	}
+
+	private ActorRef session(AIPlayer ai, Executor executor, BlockingQueue<Throwable> failures) {
+		Props session = Props.create(GameActor.class, system.deadLetters(), ai, executor);
+		return system.actorOf(Props.create(Supervisor.class, session, failures));
+	}
+
+	@Test
+	public void eventsRunOneAtATimeInOrder() throws Exception {
+		List<ObjectNode> events = Arrays.asList(event("initalize"), event("cardclicked").put("position", 1),
+				event("otherclicked"), event("tileclicked").put("tilex", 1).put("tiley", 2),
+				event("otherclicked"), event("heartbeat"));
+		CountingExecutor executor = new CountingExecutor(threads, events.size());
+		BlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+
+		List<RecordedEvent> dispatched = new ArrayList<>();
+		Path file = Files.createTempFile("session", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("cardgame.EventDispatch");
+			recording.start();
+			ActorRef session = session(new GreedyAI(), executor, failures);
+			for (ObjectNode event : events) session.tell(event, ActorRef.noSender());
+			assertTrue("the events were not all processed", executor.await());
+			recording.stop();
+			recording.dump(file);
+			for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+				// the session's other events, e.g. its command batches, are recorded as well
+				if (event.getEventType().getName().equals("cardgame.EventDispatch")) dispatched.add(event);
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		assertTrue(failures.isEmpty());
+		dispatched.sort(Comparator.comparing(RecordedEvent::getStartTime));
+		for (int i = 1; i < dispatched.size(); i++) {
+			assertFalse("two events ran at once", dispatched.get(i).getStartTime().isBefore(dispatched.get(i - 1).getEndTime()));
+		}
+		List<String> types = new ArrayList<>();
+		Set<Long> sessions = new HashSet<>();
+		for (RecordedEvent event : dispatched) {
+			types.add(event.getString("messageType"));
+			sessions.add(event.getLong("session"));
+		}
+		List<String> sent = new ArrayList<>();
+		for (ObjectNode event : events) sent.add(event.get("messagetype").asText());
+		assertEquals(sent, types);
+		assertEquals(1, sessions.size());
+	}
+
+	@Test
+	public void failureComesBackToTheActor() throws Exception {
+		IllegalStateException aiFailure = new IllegalStateException("the AI failed");
+		AIPlayer failing = (out, gameState, player) -> {
+			throw aiFailure;
+		};
+		CountingExecutor executor = new CountingExecutor(threads, 2);
+		BlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+		ActorRef session = session(failing, executor, failures);
+		session.tell(event("initalize"), ActorRef.noSender());
+		session.tell(event("endturnclicked"), ActorRef.noSender());
+
+		assertTrue("the events were not processed", executor.await());
+		Throwable failure = failures.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertNotNull("the failure did not reach the actor", failure);
+		assertSame(aiFailure, failure.getCause());
+	}
+}
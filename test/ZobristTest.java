@@ -0,0 +1,172 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Deque;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import commands.BasicCommands;
+import commands.GameEventSink;
+import events.EndTurnClicked;
+import events.Initalize;
+import structures.GameSnapshot;
+import structures.GameState;
+import structures.GreedyAI;
+import structures.MctsAI;
+import structures.Move;
+import structures.TranspositionTable;
+import structures.basic.Board;
+import structures.basic.Card;
+import structures.basic.Player;
+import structures.basic.UndoLog;
+import structures.basic.Unit;
+import structures.basic.Zobrist;
+
+/**
+ * Checks that the incrementally kept position keys match keys computed from scratch, and that the
+ * transposition table finds what was stored in it.
+ */
+public class ZobristTest {
+
+	@After
+	public void removeSink() {
+		BasicCommands.setEventSink(null);
+	}
+
+	// A game a few turns in, with player two to move
+	private GameState midGame() {
+		BasicCommands.setEventSink(GameEventSink.IGNORE);
+		GameState gameState = new GameState();
+		new Initalize().processEvent(null, gameState, null);
+		for (int i = 0; i < 3; i++) {
+			new GreedyAI().playTurn(null, gameState, gameState.getPlayerOne());
+			new EndTurnClicked().processEvent(null, gameState, null);
+		}
+		gameState.clickable = false;
+		for (Unit unit : gameState.getBoard().getPlayer2Units()) {
+			unit.resetMovement();
+			unit.resetAttack();
+		}
+		return gameState;
+	}
+
+	private static long keyFromScratch(Board board) {
+		long key = 0;
+		for (int p = 1; p <= 2; p++) {
+			for (Unit unit : board.getPlayerUnits(p)) {
+				key ^= Zobrist.unit(unit.getId(), Board.index(unit.getPosition().getTilex(), unit.getPosition().getTiley()))
+						^ Zobrist.stats(unit.getId(), unit.getHealth(), unit.getAttack())
+						^ Zobrist.flags(unit.getId(), unit.getHasMoved(), unit.getHasAttacked(), unit.getAttackCount());
+			}
+		}
+		return key;
+	}
+
+	private static long keyFromScratch(Player player) {
+		int p = player.getPlayerNumber();
+		long key = Zobrist.mana(p, player.getMana());
+		for (int i = 0; i < player.getHand().size(); i++) key ^= Zobrist.hand(p, i, player.getHand().get(i).getId());
+		Deque<Card> deck = player.getDeck().getCards();
+		return key ^ Zobrist.deck(p, deck.size(), deck.isEmpty() ? -1 : deck.peekLast().getId());
+	}
+
+	@Test
+	public void boardKeyFollowsMovesAndUndo() {
+		GameState start = midGame();
+		assertEquals(keyFromScratch(start.getBoard()), start.getBoard().getKey());
+		Random random = new Random(3);
+
+		for (int line = 0; line < 30; line++) {
+			GameState game = start.copy();
+			assertEquals(start.getPositionKey(), game.getPositionKey());
+			UndoLog log = new UndoLog(game);
+			Player player = game.getPlayerTwo();
+			long[] keys = new long[6];
+			GameSnapshot previous = GameSnapshot.of(game);
+			int depth = 0;
+			for (; depth < 6 && !game.gameOver; depth++) {
+				keys[depth] = game.getPositionKey();
+				int[] legal = Move.legalMoves(game, player); // ending the turn first
+				if (legal.length == 1) break;
+				log.make(player, legal[1 + random.nextInt(legal.length - 1)]);
+				assertEquals(keyFromScratch(game.getBoard()), game.getBoard().getKey());
+				assertEquals(keyFromScratch(player), player.getKey());
+				// a move that changes the position changes its key
+				GameSnapshot now = GameSnapshot.of(game);
+				if (!now.equals(previous)) assertNotEquals(keys[depth], game.getPositionKey());
+				previous = now;
+			}
+			while (depth-- > 0) {
+				log.unmake();
+				assertEquals(keys[depth], game.getPositionKey());
+			}
+		}
+	}
+
+	@Test
+	public void transpositionsShareAKey() {
+		GameState start = midGame();
+		Player player = start.getPlayerTwo();
+		int found = 0;
+		for (int a : Move.legalMoves(start, player)) {
+			for (int b : Move.legalMoves(start, player)) {
+				if (Move.kind(a) != Move.UNIT || Move.kind(b) != Move.UNIT || Move.subject(a) >= Move.subject(b)) continue;
+				GameState ab = start.copy();
+				Move.apply(null, ab, ab.getPlayerTwo(), a);
+				if (!isLegal(ab, b)) continue;
+				Move.apply(null, ab, ab.getPlayerTwo(), b);
+				GameState ba = start.copy();
+				Move.apply(null, ba, ba.getPlayerTwo(), b);
+				if (!isLegal(ba, a)) continue;
+				Move.apply(null, ba, ba.getPlayerTwo(), a);
+				if (!GameSnapshot.of(ab).equals(GameSnapshot.of(ba))) continue;
+				assertEquals(ab.getPositionKey(), ba.getPositionKey());
+				found++;
+			}
+		}
+		assertTrue(found > 0);
+	}
+
+	private static boolean isLegal(GameState gameState, int move) {
+		for (int legal : Move.legalMoves(gameState, gameState.getPlayerTwo())) if (legal == move) return true;
+		return false;
+	}
+
+	@Test
+	public void tableKeepsEntriesAndCountsHits() {
+		TranspositionTable table = new TranspositionTable(1000);
+		assertEquals(1024, table.getCapacity());
+		assertEquals(TranspositionTable.MISS, table.probe(42));
+
+		table.store(42, 0.75, Move.card(2, 17));
+		long entry = table.probe(42);
+		assertEquals(0.75, TranspositionTable.value(entry), 1e-6);
+		assertEquals(Move.card(2, 17), TranspositionTable.move(entry));
+		table.store(42 + 1024, 0.25, TranspositionTable.NO_MOVE); // same slot, replaces it
+		assertEquals(TranspositionTable.MISS, table.probe(42));
+		assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.move(table.probe(42 + 1024)));
+		assertEquals(1, table.getOverwrites());
+		assertEquals(2, table.getHits());
+		assertEquals(0.5, table.getHitRate(), 1e-9);
+
+		// a search meets positions again through other orders of the same actions
+		GameState gameState = midGame();
+		MctsAI ai = new MctsAI(200, 0);
+		GameState first = gameState.copy();
+		ai.playTurn(null, first, first.getPlayerTwo());
+		TranspositionTable searched = ai.getTranspositionTable();
+		assertTrue(searched.getHits() > 0);
+		assertTrue(searched.getHits() < searched.getProbes()); // new positions miss first
+		assertTrue(searched.getStores() > 0);
+		assertEquals(searched.getHits() / (double) searched.getProbes(), searched.getHitRate(), 1e-9);
+
+		// the same turn again is played from the table
+		long stores = searched.getStores();
+		GameState again = gameState.copy();
+		ai.playTurn(null, again, again.getPlayerTwo());
+		assertEquals(stores, searched.getStores());
+	}
+}